@@ -1,13 +1,33 @@
 package pgs;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
+import pgs.jfr.LoggerFlushEvent;
+import pgs.log.BinaryEventSink;
+import pgs.log.EventSink;
+import pgs.log.EventType;
+import pgs.log.LogEntry;
+import pgs.log.LogFormat;
+import pgs.log.LogRingBuffer;
+import pgs.log.OverflowPolicy;
+import pgs.log.TextEventSink;
+import pgs.time.TimeSource;
+
 import java.io.IOException;
-import java.time.LocalDateTime;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * Logger logs important information about the mining process into the log file.
+ * Logger logs important information about the mining process into the log file. Logged events are placed into
+ * a bounded ring buffer and written into the file in batches by a single writer thread, which keeps the file
+ * open for the whole life of the logger. Events are written either as text lines or as compact binary records,
+ * see {@link LogFormat}. Every simulation has it's own logger, writing into it's own file.
  *
  * @author <a href="markovd@students.zcu.cz">David Markov</a>
  * @since 7.3.2021
@@ -18,98 +38,359 @@ public class Logger {
      */
     private static final String LOG_FILE_PATH = "pgs-mine.log";
     /**
-     * Logger instance - acting as a singleton
+     * Default number of events that may wait in the buffer to be written
+     */
+    public static final int DEFAULT_BUFFER_CAPACITY = 8192;
+    /**
+     * Default number of events written into the file at once
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    /**
+     * Default maximum number of milliseconds an event waits in an unfinished batch before it is written
+     */
+    public static final int DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+    /**
+     * With {@link OverflowPolicy#SAMPLE}, every n-th event is accepted once the buffer is getting full
      */
-    private static Logger INSTANCE;
+    private static final int SAMPLE_RATE = 8;
+    /**
+     * Number of nanoseconds a producer waits before trying again to place an event into a full buffer
+     */
+    private static final long BLOCKED_PRODUCER_PARK_NANOS = 100_000;
     /**
      * File that will be logged into
      */
-    private final File logFile;
+    private final Path logFile;
+    /**
+     * Buffer of events waiting to be written
+     */
+    private final LogRingBuffer buffer;
+    /**
+     * Format of the log file
+     */
+    private final LogFormat format;
+    /**
+     * Time in milliseconds since the epoch when the logger was created
+     */
+    private final long startMillis;
+    /**
+     * Source of the time of logged events
+     */
+    private final TimeSource timeSource;
+    /**
+     * Value of {@link TimeSource#nanoTime()} when the logger was created
+     */
+    private final long startNanos;
+    /**
+     * What to do with an event when the buffer is full
+     */
+    private final OverflowPolicy overflowPolicy;
+    /**
+     * Number of events written into the file at once
+     */
+    private final int batchSize;
+    /**
+     * Maximum number of nanoseconds an event waits in an unfinished batch
+     */
+    private final long flushIntervalNanos;
+    /**
+     * Number of events, that buffer has to contain, before sampling starts
+     */
+    private final int samplingThreshold;
     /**
-     * Flag indicating, that some thread is already writing into the file
+     * Thread writing the events into the file
      */
-    private boolean fileOpen = false;
+    private final Thread writerThread;
+    /**
+     * Flag indicating whether the logger accepts new events
+     */
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    /**
+     * Number of producers, that are placing an event into the buffer at the moment
+     */
+    private final AtomicInteger producersInFlight = new AtomicInteger();
+    /**
+     * Flag indicating, that the writer thread failed and nothing more will be written into the file
+     */
+    private volatile boolean writerFailed = false;
+    /**
+     * Number of events, that were not written because of the overflow policy
+     */
+    private final LongAdder droppedEvents = new LongAdder();
+    /**
+     * Counter of events offered while sampling
+     */
+    private final AtomicLong sampledEvents = new AtomicLong();
+    /**
+     * Thread closing the logger when the JVM exits before the logger is closed
+     */
+    private final Thread shutdownHook;
+    /**
+     * Flag indicating whether the flushes are recorded as JFR events
+     */
+    private final boolean jfrEventsEnabled;
 
-    private Logger(String logFilePath) { // Acting as a singleton
+    /**
+     * Creates new text logger with default buffering settings.
+     * @param logFilePath output file of the logger
+     * @param timeSource source of the time of logged events
+     */
+    public Logger(final String logFilePath, final TimeSource timeSource) {
+        this(logFilePath, timeSource, DEFAULT_BUFFER_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS,
+                OverflowPolicy.BLOCK, LogFormat.TEXT, false);
+    }
+
+    /**
+     * Creates new logger with output file, format and buffering settings taken from given configuration.
+     * Non-positive buffering settings are replaced by defaults.
+     * @param config configuration of the simulation
+     * @param timeSource source of the time of logged events
+     */
+    public Logger(final SimulationConfig config, final TimeSource timeSource) {
+        this(config.getOutputFilePath(), timeSource, config.getLogBufferCapacity(), config.getLogBatchSize(),
+                config.getLogFlushIntervalMillis(), config.getLogOverflowPolicy(), config.getLogFormat(),
+                config.isJfrEventsEnabled());
+    }
+
+    private Logger(String logFilePath, final TimeSource timeSource, final int bufferCapacity, final int batchSize,
+                   final int flushIntervalMillis, final OverflowPolicy overflowPolicy, final LogFormat format,
+                   final boolean jfrEventsEnabled) {
         if (logFilePath == null) {
             logFilePath = LOG_FILE_PATH;
             System.out.println("Logger output path not set. Falling back to default path... (" + LOG_FILE_PATH + ")");
         }
 
-        this.logFile = new File(logFilePath);
+        this.logFile = Paths.get(logFilePath);
+        this.format = format != null ? format : LogFormat.TEXT;
+        this.startMillis = System.currentTimeMillis();
+        this.timeSource = timeSource != null ? timeSource : TimeSource.REAL;
+        this.startNanos = this.timeSource.nanoTime();
+        this.buffer = new LogRingBuffer(bufferCapacity > 0 ? bufferCapacity : DEFAULT_BUFFER_CAPACITY);
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        this.flushIntervalNanos = (flushIntervalMillis > 0 ? flushIntervalMillis : DEFAULT_FLUSH_INTERVAL_MILLIS) * 1_000_000L;
+        this.overflowPolicy = overflowPolicy != null ? overflowPolicy : OverflowPolicy.BLOCK;
+        this.samplingThreshold = buffer.getCapacity() - buffer.getCapacity() / 4;
+        this.jfrEventsEnabled = jfrEventsEnabled;
+
+        this.writerThread = new Thread(this::writeEvents, "logger-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        this.shutdownHook = new Thread(this::close, "logger-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook); // Log has to be complete even on exit
     }
 
     /**
-     * Creates new instance of logger. If the instance already exists, returns false.
-     * @param logFilePath output file of the logger
-     * @return true, if the instance was successfully created, otherwise false
+     * Logs an event with single payload into the log file. Text log is in following format:
+     * "timestamp with millisecond precision" "object name" "object ID" "event description"
+     * The event is only placed into the buffer, it's description is built by the writer thread later.
+     * @param object object with ID that logs an event
+     * @param type type of logged event
+     * @param payload payload of the event, e.g. duration in milliseconds
      */
-    public static boolean createInstance(final String logFilePath) {
-        if (INSTANCE != null) {
-            return false;
-        }
-
-        INSTANCE = new Logger(logFilePath);
-        return true;
+    public void logEvent(final HasId object, final EventType type, final int payload) {
+        logEvent(object, type, payload, 0);
     }
 
     /**
-     * Returns the only existing instance of Logger. If {@code createInstance} was not called previously,
-     * always will return NULL.
-     * @return Logger instance
+     * Logs an event with two payloads into the log file.
+     * @param object object with ID that logs an event
+     * @param type type of logged event
+     * @param firstPayload first payload of the event
+     * @param secondPayload second payload of the event
+     * @see #logEvent(HasId, EventType, int)
      */
-    public static Logger getInstance() {
-        return INSTANCE;
+    public void logEvent(final HasId object, final EventType type, final int firstPayload, final int secondPayload) {
+        logEventAt(timeSource.nanoTime(), object, type, firstPayload, secondPayload);
     }
 
     /**
-     * Logs an event with given description into the log file. Resulting log is in following format:
-     * "timestamp with millisecond precision" "object name" "object ID" "event description"
+     * Logs an event, that happened at given time, into the log file. Used by simulations, that do not run
+     * in real time.
+     * @param nanoTime time of the event, comparable with {@link TimeSource#nanoTime()} of the logger's time source
      * @param object object with ID that logs an event
-     * @param description description of logged event
+     * @param type type of logged event
+     * @param firstPayload first payload of the event
+     * @param secondPayload second payload of the event
      */
-    public synchronized void logEvent(final HasId object, final String description) {
+    public void logEventAt(final long nanoTime, final HasId object, final EventType type,
+                           final int firstPayload, final int secondPayload) {
+        producersInFlight.incrementAndGet();    // Before checking the flag, so the writer does not stop under our hands
         try {
-            while (fileOpen) {  // We need to be thread safe
-                wait();
+            if (!running.get() || writerFailed) {
+                droppedEvents.increment();
+                return;
             }
-            BufferedWriter writer = new BufferedWriter(new FileWriter(logFile, true));
-            writer.write(constructLog(object, description));
-            writer.close();
 
-            fileOpen = false;    // When we wrote what we needed, we close file and notify others waiting
-            notify();
-        } catch (IOException e) {
-            System.err.println("Error while opening the log file!\n" + e.getMessage());
+            switch (overflowPolicy) {
+                case SAMPLE:
+                    if (buffer.size() >= samplingThreshold && sampledEvents.getAndIncrement() % SAMPLE_RATE != 0) {
+                        droppedEvents.increment();
+                        return;
+                    }
+                    // Sampled event is treated as with DROP policy
+                    offerOrDrop(nanoTime, object, type, firstPayload, secondPayload);
+                    return;
+                case DROP:
+                    offerOrDrop(nanoTime, object, type, firstPayload, secondPayload);
+                    return;
+                case BLOCK:
+                default:
+                    while (!buffer.offer(nanoTime, object, type, firstPayload, secondPayload)) {
+                        if (!running.get() || writerFailed) {
+                            droppedEvents.increment();
+                            return;
+                        }
+                        LockSupport.unpark(writerThread);   // Buffer is full, writer should not be sleeping
+                        LockSupport.parkNanos(this, BLOCKED_PRODUCER_PARK_NANOS);
+                    }
+            }
+        } finally {
+            producersInFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Places an event into the buffer, or counts it as dropped when the buffer is full.
+     * @param nanoTime time of the event
+     * @param object object with ID that logs an event
+     * @param type type of logged event
+     * @param firstPayload first payload of the event
+     * @param secondPayload second payload of the event
+     */
+    private void offerOrDrop(final long nanoTime, final HasId object, final EventType type,
+                             final int firstPayload, final int secondPayload) {
+        if (!buffer.offer(nanoTime, object, type, firstPayload, secondPayload)) {
+            droppedEvents.increment();
+        }
+    }
+
+    /**
+     * Stops accepting new events, writes all buffered events into the file and closes it. Calling this method
+     * repeatedly has no effect.
+     */
+    public void close() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
         } catch (InterruptedException e) {
-            System.err.println("Logger was unexpectedly interrupted while waiting for file to be open!\n" + e.getMessage());
+            System.err.println("Logger was interrupted while writing the remaining events!\n" + e.getMessage());
+        }
+
+        if (droppedEvents.sum() > 0) {
+            System.out.println("Logger dropped " + droppedEvents.sum() + " events (" + overflowPolicy + " policy).");
+        }
+
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);  // Closed loggers are not kept until the exit
+        } catch (IllegalStateException e) {
+            // Closed by the hook itself, the JVM is already shutting down
         }
     }
 
     /**
-     * Creates a timestamp of the moment of calling.
-     * @return timestamp
+     * Returns the number of events, that were not logged because of the overflow policy.
+     * @return number of dropped events
      */
-    private String getTimestamp() {
-        return LocalDateTime.now().toString();
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
     }
 
     /**
-     * Returns the name of given object.
-     * @param object object to get name of
-     * @return name of the object
+     * Returns the number of events waiting in the buffer to be written into the file.
+     * @return number of buffered events
      */
-    private String getObjectName(final HasId object) {
-        return object.getClass().getSimpleName();
+    public int getBacklog() {
+        return buffer.size();
     }
 
     /**
-     * Constructs a log message from given parameters.
-     * @param object object logging an event
-     * @param description description of the event
-     * @return message to be logged
+     * Body of the writer thread. Keeps the log file open and writes buffered events into it once a batch is full
+     * or the oldest event in the batch waits for longer than the flush interval. After the logger is closed,
+     * drains every remaining event before closing the file, including the events of producers, that passed
+     * the check of the running flag just before the logger was closed. If the file cannot be opened or written,
+     * the logger is marked as failed, so the producers drop their events instead of waiting for the writer forever.
      */
-    private String constructLog(final HasId object, final String description) {
-        return getTimestamp() + " " + getObjectName(object) + " " + object.getId() + " " + description + "\n";
+    private void writeEvents() {
+        try (FileChannel channel = openLogFile()) {
+            EventSink sink = format == LogFormat.BINARY
+                    ? new BinaryEventSink(channel, startMillis, startNanos, batchSize)
+                    : new TextEventSink(channel, startMillis, startNanos);
+            int batched = 0;
+            long batchStart = 0;
+
+            while (running.get() || producersInFlight.get() > 0 || buffer.hasPendingEntries()) {
+                int drained = buffer.drain(entry -> write(sink, entry), batchSize - batched);
+                if (drained > 0 && batched == 0) {
+                    batchStart = System.nanoTime();
+                }
+                batched += drained;
+
+                if (batched > 0 && (batched >= batchSize || !running.get()
+                        || System.nanoTime() - batchStart >= flushIntervalNanos)) {
+                    flush(sink, batched);
+                    batched = 0;
+                } else if (drained == 0) {
+                    long parkNanos = batched == 0 ? flushIntervalNanos : flushIntervalNanos - (System.nanoTime() - batchStart);
+                    LockSupport.parkNanos(this, Math.max(parkNanos, 1));
+                }
+            }
+
+            sink.flush();
+        } catch (IOException | UncheckedIOException e) {
+            writerFailed = true;
+            System.err.println("Error while writing into the log file!\n" + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes out the batch of events buffered by the sink.
+     * @param sink sink to flush
+     * @param batched number of events in the batch
+     * @throws IOException when the events cannot be written
+     */
+    private void flush(final EventSink sink, final int batched) throws IOException {
+        LoggerFlushEvent event = jfrEventsEnabled ? new LoggerFlushEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+
+        sink.flush();
+
+        if (event != null) {
+            event.events = batched;
+            event.backlog = getBacklog();
+            event.commit();
+        }
+    }
+
+    /**
+     * Opens the log file. Text log is appended to, binary log is always written from the beginning.
+     * @return channel of the log file
+     * @throws IOException when the file cannot be opened
+     */
+    private FileChannel openLogFile() throws IOException {
+        if (format == LogFormat.BINARY) {
+            return FileChannel.open(logFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        return FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Passes given entry to the sink.
+     * @param sink sink to write to
+     * @param entry logged event
+     */
+    private void write(final EventSink sink, final LogEntry entry) {
+        try {
+            sink.write(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
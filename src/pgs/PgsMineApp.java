@@ -1,5 +1,23 @@
 package pgs;
 
+import pgs.batch.BatchRunner;
+import pgs.batch.ParameterGrid;
+import pgs.log.LogFormat;
+import pgs.log.OverflowPolicy;
+import pgs.metrics.MetricsReporter;
+import pgs.mine.AnalysedMapCache;
+import pgs.random.Distribution;
+import pgs.task.ExecutorMode;
+import pgs.worker.DispatchMode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
 public class PgsMineApp {
 
     /**
@@ -21,13 +39,208 @@ public class PgsMineApp {
 
     private static final String LORRY_TIME_FLAG = "-tLorry";
 
+    private static final String LOG_POLICY_FLAG = "-logPolicy";
+
+    private static final String LOG_BUFFER_FLAG = "-logBuffer";
+
+    private static final String LOG_FORMAT_FLAG = "-logFormat";
+
+    private static final String EXECUTOR_FLAG = "-executor";
+
+    private static final String ENGINE_FLAG = "-engine";
+
+    private static final String ANALYSIS_THREADS_FLAG = "-analysisThreads";
+
+    private static final String PIPELINED_FLAG = "-pipelined";
+
+    private static final String DISPATCH_FLAG = "-dispatch";
+
+    private static final String SPLIT_THRESHOLD_FLAG = "-splitThreshold";
+
+    private static final String ADAPTIVE_WORKERS_FLAG = "-adaptiveWorkers";
+
+    private static final String MIN_WORKERS_FLAG = "-minWorkers";
+
+    private static final String ADAPT_INTERVAL_FLAG = "-adaptInterval";
+
+    private static final String DOCKS_FLAG = "-docks";
+
+    private static final String FLEET_FLAG = "-fleet";
+
+    private static final String STOCKPILE_FLAG = "-stockpile";
+
+    private static final String LOADERS_FLAG = "-loaders";
+
+    private static final String FERRIES_FLAG = "-ferries";
+
+    private static final String FERRY_WAIT_FLAG = "-ferryWait";
+
+    private static final String SPEEDUP_FLAG = "-speedup";
+
+    private static final String SEED_FLAG = "-seed";
+
+    private static final String PROCESSING_DIST_FLAG = "-processingDist";
+
+    private static final String TRANSPORT_DIST_FLAG = "-transportDist";
+
+    private static final String MAP_CACHE_FLAG = "-mapCache";
+
+    private static final String MAP_SIDECAR_FLAG = "-mapSidecar";
+
+    private static final String METRICS_FILE_FLAG = "-metricsFile";
+
+    private static final String METRICS_PORT_FLAG = "-metricsPort";
+
+    private static final String METRICS_INTERVAL_FLAG = "-metricsInterval";
+
+    private static final String JFR_EVENTS_FLAG = "-jfrEvents";
+
+    private static final String SWEEP_FLAG = "-sweep";
+
+    private static final String SWEEP_THREADS_FLAG = "-sweepThreads";
+
+    private static final String SWEEP_SUMMARY_FLAG = "-sweepSummary";
+
     public static void main(String[] args) {
-        if (args.length != REQUIRED_PARAMS_COUNT) {
+        if (args.length % 2 != 0) {
             System.out.println("Invalid parameter count passed!");
             printHelp();
             return;
         }
 
+        List<String> simulationArgs = new ArrayList<>();
+        String gridFile = null;
+        String summaryFile = null;
+        int sweepThreads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i += 2) {  // Sweep parameters are taken out, the rest describes the simulation
+            switch (args[i]) {
+                case SWEEP_FLAG:
+                    gridFile = args[i + 1];
+                    break;
+                case SWEEP_SUMMARY_FLAG:
+                    summaryFile = args[i + 1];
+                    break;
+                case SWEEP_THREADS_FLAG:
+                    try {
+                        sweepThreads = Integer.parseInt(args[i + 1]);
+                        if (sweepThreads > 0) {
+                            break;
+                        }
+                    } catch (NumberFormatException e) {
+                        // Reported below
+                    }
+                    System.out.println("Invalid parameter passed as number of simulations at once: " + args[i + 1]);
+                    System.out.println("Number of simulations at once has to be a positive integer.");
+                    printHelp();
+                    return;
+                default:
+                    simulationArgs.add(args[i]);
+                    simulationArgs.add(args[i + 1]);
+            }
+        }
+
+        if (gridFile != null && !simulationArgs.contains(MAP_CACHE_FLAG)) {    // Points of the sweep share the map, it's analysed only once
+            simulationArgs.add(MAP_CACHE_FLAG);
+            simulationArgs.add(String.valueOf(true));
+        }
+
+        SimulationConfig config = parseConfig(simulationArgs.toArray(new String[0]));
+        if (config == null) {
+            return;
+        }
+
+        printPassedParameters(config);
+        if (gridFile == null) {
+            new Simulation(config).run();
+            return;
+        }
+
+        if (!simulationArgs.contains(SEED_FLAG)) {  // Every point is simulated with the same random durations
+            simulationArgs.add(SEED_FLAG);
+            simulationArgs.add(String.valueOf(config.getRandomSeed()));
+        }
+        runSweep(simulationArgs.toArray(new String[0]), gridFile, sweepThreads, summaryFile);
+    }
+
+    /**
+     * Runs a simulation for every point of the parameter grid and prints the summary table of their results.
+     * Every simulation logs into it's own file, named after the output file with the number of the point.
+     * Metrics files are numbered the same way and every point serves it's metrics on the next port.
+     * @param baseArgs parameters shared by every point
+     * @param gridFile file describing the grid of swept parameters
+     * @param sweepThreads maximum number of simulations running at once
+     * @param summaryFile file to write the summary table to as well, may be null
+     */
+    private static void runSweep(final String[] baseArgs, final String gridFile, final int sweepThreads,
+                                 final String summaryFile) {
+        ParameterGrid grid;
+        try {
+            grid = ParameterGrid.load(Paths.get(gridFile));
+        } catch (IOException | InvalidPathException e) {
+            System.out.println("Invalid parameter grid file passed: " + gridFile + "\n" + e.getMessage());
+            return;
+        }
+
+        List<SimulationConfig> configs = new ArrayList<>();
+        for (String[] pointArgs : grid.expand(baseArgs)) {
+            SimulationConfig pointConfig = parseConfig(pointArgs);
+            if (pointConfig == null) {
+                System.out.println("Invalid parameters of sweep point: " + String.join(" ", pointArgs));
+                return;
+            }
+            pointConfig.setOutputFilePath(numberedPath(pointConfig.getOutputFilePath(), configs.size() + 1));
+            pointConfig.setMetricsFilePath(numberedPath(pointConfig.getMetricsFilePath(), configs.size() + 1));
+            if (pointConfig.getMetricsPort() > 0) {     // Simulations running at once cannot share the port
+                pointConfig.setMetricsPort(pointConfig.getMetricsPort() + configs.size());
+            }
+            configs.add(pointConfig);
+        }
+
+        System.out.println("Sweeping " + configs.size() + " points, " + sweepThreads + " at once...");
+        List<SimulationResult> results = new BatchRunner(sweepThreads).run(configs);
+        try {
+            StringBuilder summary = new StringBuilder();
+            BatchRunner.writeSummary(results, summary);
+            System.out.print(summary);
+            if (summaryFile != null) {
+                Files.writeString(Paths.get(summaryFile), summary);
+            }
+        } catch (IOException | InvalidPathException e) {
+            System.err.println("Error while writing the sweep summary!\n" + e.getMessage());
+        }
+    }
+
+    /**
+     * Inserts given number into the path before the file extension, e.g. "out.log" becomes "out-3.log".
+     * @param path path of the file, may be null
+     * @param number number to insert
+     * @return numbered path, or null if the path is null
+     */
+    private static String numberedPath(final String path, final int number) {
+        if (path == null) {
+            return null;
+        }
+
+        int extensionStart = path.lastIndexOf('.');
+        if (extensionStart <= Math.max(path.lastIndexOf('/'), path.lastIndexOf(File.separatorChar))) {
+            return path + "-" + number;
+        }
+        return path.substring(0, extensionStart) + "-" + number + path.substring(extensionStart);
+    }
+
+    /**
+     * Parses the configuration of a simulation from given command line parameters. If any parameter is invalid,
+     * prints the reason with a little help and returns null.
+     * @param args command line parameters, without the sweep parameters
+     * @return parsed configuration, or null
+     */
+    private static SimulationConfig parseConfig(final String[] args) {
+        if (args.length < REQUIRED_PARAMS_COUNT || args.length % 2 != 0) {
+            System.out.println("Invalid parameter count passed!");
+            printHelp();
+            return null;
+        }
+
         SimulationConfig config = new SimulationConfig();
         for (int i = 0; i < args.length; i += 2) {  // Incrementing two, cause processing two in each iteration
             switch (args[i]) {
@@ -45,7 +258,7 @@ public class PgsMineApp {
                         System.out.println("Invalid parameter passed as worker count: " + args[i + 1]);
                         System.out.println("Worker count has to be an integer.");
                         printHelp();
-                        return;
+                        return null;
                     }
                 case WORKER_TIME_FLAG:
                     try {
@@ -55,7 +268,7 @@ public class PgsMineApp {
                         System.out.println("Invalid parameter passed as max worker resource processing time: " + args[i + 1]);
                         System.out.println("Max worker resource processing time has to be an integer.");
                         printHelp();
-                        return;
+                        return null;
                     }
                 case LORRY_CAP_FLAG:
                     try {
@@ -65,7 +278,7 @@ public class PgsMineApp {
                         System.out.println("Invalid parameter passed as lorry capacity: " + args[i + 1]);
                         System.out.println("Lorry capacity has to be an integer.");
                         printHelp();
-                        return;
+                        return null;
                     }
                 case LORRY_TIME_FLAG:
                     try {
@@ -75,7 +288,7 @@ public class PgsMineApp {
                         System.out.println("Invalid parameter passed as max lorry transport time: " + args[i + 1]);
                         System.out.println("Max lorry transport time has to be an integer.");
                         printHelp();
-                        return;
+                        return null;
                     }
                 case FERRY_CAP_FLAG:
                     try {
@@ -85,17 +298,302 @@ public class PgsMineApp {
                         System.out.println("Invalid parameter passed as ferry capacity: " + args[i + 1]);
                         System.out.println("Ferry capacity has to be an integer.");
                         printHelp();
-                        return;
+                        return null;
+                    }
+                case LOG_POLICY_FLAG:
+                    try {
+                        config.setLogOverflowPolicy(OverflowPolicy.valueOf(args[i + 1].toUpperCase()));
+                        break;
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Invalid parameter passed as log overflow policy: " + args[i + 1]);
+                        System.out.println("Log overflow policy has to be one of: block, drop, sample.");
+                        printHelp();
+                        return null;
+                    }
+                case LOG_BUFFER_FLAG:
+                    try {
+                        config.setLogBufferCapacity(Integer.parseInt(args[i + 1]));
+                        break;
+                    } catch (NumberFormatException e) {
+                        System.out.println("Invalid parameter passed as log buffer capacity: " + args[i + 1]);
+                        System.out.println("Log buffer capacity has to be an integer.");
+                        printHelp();
+                        return null;
+                    }
+                case LOG_FORMAT_FLAG:
+                    try {
+                        config.setLogFormat(LogFormat.valueOf(args[i + 1].toUpperCase()));
+                        break;
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Invalid parameter passed as log format: " + args[i + 1]);
+                        System.out.println("Log format has to be one of: text, binary.");
+                        printHelp();
+                        return null;
+                    }
+                case EXECUTOR_FLAG:
+                    try {
+                        config.setExecutorMode(ExecutorMode.valueOf(args[i + 1].toUpperCase()));
+                        break;
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Invalid parameter passed as executor mode: " + args[i + 1]);
+                        System.out.println("Executor mode has to be one of: cached, virtual.");
+                        printHelp();
+                        return null;
+                    }
+                case ENGINE_FLAG:
+                    try {
+                        config.setEngine(SimulationEngine.valueOf(args[i + 1].toUpperCase()));
+                        break;
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Invalid parameter passed as simulation engine: " + args[i + 1]);
+                        System.out.println("Simulation engine has to be one of: real_time, discrete_event.");
+                        printHelp();
+                        return null;
+                    }
+                case ANALYSIS_THREADS_FLAG:
+                    try {
+                        config.setAnalysisParallelism(Integer.parseInt(args[i + 1]));
+                        break;
+                    } catch (NumberFormatException e) {
+                        System.out.println("Invalid parameter passed as analysis thread count: " + args[i + 1]);
+                        System.out.println("Analysis thread count has to be an integer.");
+                        printHelp();
+                        return null;
+                    }
+                case PIPELINED_FLAG:
+                    if (!args[i + 1].equalsIgnoreCase("true") && !args[i + 1].equalsIgnoreCase("false")) {
+                        System.out.println("Invalid parameter passed as pipelined start: " + args[i + 1]);
+                        System.out.println("Pipelined start has to be true or false.");
+                        printHelp();
+                        return null;
+                    }
+                    config.setPipelinedStart(Boolean.parseBoolean(args[i + 1]));
+                    break;
+                case DISPATCH_FLAG:
+                    try {
+                        config.setDispatchMode(DispatchMode.valueOf(args[i + 1].toUpperCase()));
+                        break;
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Invalid parameter passed as dispatch mode: " + args[i + 1]);
+                        System.out.println("Dispatch mode has to be one of: foreman, pull, work_stealing.");
+                        printHelp();
+                        return null;
+                    }
+                case SPLIT_THRESHOLD_FLAG:
+                    try {
+                        config.setBlockSplitThreshold(Integer.parseInt(args[i + 1]));
+                        break;
+                    } catch (NumberFormatException e) {
+                        System.out.println("Invalid parameter passed as block split threshold: " + args[i + 1]);
+                        System.out.println("Block split threshold has to be an integer.");
+                        printHelp();
+                        return null;
+                    }
+                case ADAPTIVE_WORKERS_FLAG:
+                    if (!args[i + 1].equalsIgnoreCase("true") && !args[i + 1].equalsIgnoreCase("false")) {
+                        System.out.println("Invalid parameter passed as adaptive workers: " + args[i + 1]);
+                        System.out.println("Adaptive workers have to be true or false.");
+                        printHelp();
+                        return null;
+                    }
+                    config.setAdaptiveWorkers(Boolean.parseBoolean(args[i + 1]));
+                    break;
+                case MIN_WORKERS_FLAG:
+                    try {
+                        config.setMinWorkerCount(Integer.parseInt(args[i + 1]));
+                        if (config.getMinWorkerCount() > 0) {
+                            break;
+                        }
+                    } catch (NumberFormatException e) {
+                        // Reported below
+                    }
+                    System.out.println("Invalid parameter passed as minimum worker count: " + args[i + 1]);
+                    System.out.println("Minimum worker count has to be a positive integer.");
+                    printHelp();
+                    return null;
+                case ADAPT_INTERVAL_FLAG:
+                    try {
+                        config.setWorkerLimitIntervalMillis(Integer.parseInt(args[i + 1]));
+                        if (config.getWorkerLimitIntervalMillis() > 0) {
+                            break;
+                        }
+                    } catch (NumberFormatException e) {
+                        // Reported below
+                    }
+                    System.out.println("Invalid parameter passed as adaptation interval: " + args[i + 1]);
+                    System.out.println("Adaptation interval has to be a positive integer.");
+                    printHelp();
+                    return null;
+                case DOCKS_FLAG:
+                    try {
+                        config.setLoadingDockCount(Integer.parseInt(args[i + 1]));
+                        break;
+                    } catch (NumberFormatException e) {
+                        System.out.println("Invalid parameter passed as loading dock count: " + args[i + 1]);
+                        System.out.println("Loading dock count has to be an integer.");
+                        printHelp();
+                        return null;
+                    }
+                case FLEET_FLAG:
+                    try {
+                        config.setLorryFleetSize(Integer.parseInt(args[i + 1]));
+                        break;
+                    } catch (NumberFormatException e) {
+                        System.out.println("Invalid parameter passed as lorry fleet size: " + args[i + 1]);
+                        System.out.println("Lorry fleet size has to be an integer.");
+                        printHelp();
+                        return null;
+                    }
+                case STOCKPILE_FLAG:
+                    try {
+                        config.setStockpileCapacity(Integer.parseInt(args[i + 1]));
+                        if (config.getStockpileCapacity() >= 0) {
+                            break;
+                        }
+                    } catch (NumberFormatException e) {
+                        // Reported below
+                    }
+                    System.out.println("Invalid parameter passed as stockpile capacity: " + args[i + 1]);
+                    System.out.println("Stockpile capacity has to be a non-negative integer.");
+                    printHelp();
+                    return null;
+                case LOADERS_FLAG:
+                    try {
+                        config.setLoaderCount(Integer.parseInt(args[i + 1]));
+                        if (config.getLoaderCount() > 0) {
+                            break;
+                        }
+                    } catch (NumberFormatException e) {
+                        // Reported below
                     }
+                    System.out.println("Invalid parameter passed as loader count: " + args[i + 1]);
+                    System.out.println("Loader count has to be a positive integer.");
+                    printHelp();
+                    return null;
+                case FERRIES_FLAG:
+                    try {
+                        config.setFerryCount(Integer.parseInt(args[i + 1]));
+                        break;
+                    } catch (NumberFormatException e) {
+                        System.out.println("Invalid parameter passed as ferry count: " + args[i + 1]);
+                        System.out.println("Ferry count has to be an integer.");
+                        printHelp();
+                        return null;
+                    }
+                case FERRY_WAIT_FLAG:
+                    try {
+                        config.setFerryMaxWaitMillis(Integer.parseInt(args[i + 1]));
+                        break;
+                    } catch (NumberFormatException e) {
+                        System.out.println("Invalid parameter passed as ferry max waiting time: " + args[i + 1]);
+                        System.out.println("Ferry max waiting time has to be an integer.");
+                        printHelp();
+                        return null;
+                    }
+                case SPEEDUP_FLAG:
+                    try {
+                        config.setTimeSpeedup(Double.parseDouble(args[i + 1]));
+                        break;
+                    } catch (NumberFormatException e) {
+                        System.out.println("Invalid parameter passed as time speedup: " + args[i + 1]);
+                        System.out.println("Time speedup has to be a number.");
+                        printHelp();
+                        return null;
+                    }
+                case SEED_FLAG:
+                    try {
+                        config.setRandomSeed(Long.parseLong(args[i + 1]));
+                        break;
+                    } catch (NumberFormatException e) {
+                        System.out.println("Invalid parameter passed as random seed: " + args[i + 1]);
+                        System.out.println("Random seed has to be an integer.");
+                        printHelp();
+                        return null;
+                    }
+                case PROCESSING_DIST_FLAG:
+                    try {
+                        config.setProcessingTimeDistribution(Distribution.parse(args[i + 1]));
+                        break;
+                    } catch (IllegalArgumentException | IOException e) {
+                        System.out.println("Invalid parameter passed as processing time distribution: " + args[i + 1]);
+                        System.out.println(e.getMessage());
+                        printHelp();
+                        return null;
+                    }
+                case TRANSPORT_DIST_FLAG:
+                    try {
+                        config.setTransportTimeDistribution(Distribution.parse(args[i + 1]));
+                        break;
+                    } catch (IllegalArgumentException | IOException e) {
+                        System.out.println("Invalid parameter passed as transport time distribution: " + args[i + 1]);
+                        System.out.println(e.getMessage());
+                        printHelp();
+                        return null;
+                    }
+                case MAP_CACHE_FLAG:
+                    if (!args[i + 1].equalsIgnoreCase("true") && !args[i + 1].equalsIgnoreCase("false")) {
+                        System.out.println("Invalid parameter passed as map cache: " + args[i + 1]);
+                        System.out.println("Map cache has to be true or false.");
+                        printHelp();
+                        return null;
+                    }
+                    config.setMapCacheEnabled(Boolean.parseBoolean(args[i + 1]));
+                    break;
+                case MAP_SIDECAR_FLAG:
+                    if (!args[i + 1].equalsIgnoreCase("true") && !args[i + 1].equalsIgnoreCase("false")) {
+                        System.out.println("Invalid parameter passed as map sidecar: " + args[i + 1]);
+                        System.out.println("Map sidecar has to be true or false.");
+                        printHelp();
+                        return null;
+                    }
+                    config.setMapSidecarEnabled(Boolean.parseBoolean(args[i + 1]));
+                    break;
+                case METRICS_FILE_FLAG:
+                    config.setMetricsFilePath(args[i + 1]);
+                    break;
+                case METRICS_PORT_FLAG:
+                    try {
+                        config.setMetricsPort(Integer.parseInt(args[i + 1]));
+                        if (config.getMetricsPort() >= 0 && config.getMetricsPort() <= 65535) {
+                            break;
+                        }
+                    } catch (NumberFormatException e) {
+                        // Reported below
+                    }
+                    System.out.println("Invalid parameter passed as metrics port: " + args[i + 1]);
+                    System.out.println("Metrics port has to be an integer between 0 and 65535.");
+                    printHelp();
+                    return null;
+                case METRICS_INTERVAL_FLAG:
+                    try {
+                        config.setMetricsIntervalMillis(Long.parseLong(args[i + 1]));
+                        if (config.getMetricsIntervalMillis() > 0) {
+                            break;
+                        }
+                    } catch (NumberFormatException e) {
+                        // Reported below
+                    }
+                    System.out.println("Invalid parameter passed as metrics interval: " + args[i + 1]);
+                    System.out.println("Metrics interval has to be a positive integer.");
+                    printHelp();
+                    return null;
+                case JFR_EVENTS_FLAG:
+                    if (!args[i + 1].equalsIgnoreCase("true") && !args[i + 1].equalsIgnoreCase("false")) {
+                        System.out.println("Invalid parameter passed as JFR events: " + args[i + 1]);
+                        System.out.println("JFR events have to be true or false.");
+                        printHelp();
+                        return null;
+                    }
+                    config.setJfrEventsEnabled(Boolean.parseBoolean(args[i + 1]));
+                    break;
                 default:
                     System.out.println("Unknown switch passed!");
                     printHelp();
-                    return;
+                    return null;
             }
         }
 
-        printPassedParameters(config);
-        Simulation.run(config);
+        return config;
     }
 
     /**
@@ -110,6 +608,51 @@ public class PgsMineApp {
                 LORRY_CAP_FLAG + " <Lorry capacity>\n" +
                 LORRY_TIME_FLAG + " <may Lorry transport time>\n" +
                 FERRY_CAP_FLAG + " <Ferry capacity>\n" +
+                "Optional parameters:\n" +
+                LOG_POLICY_FLAG + " <block|drop|sample> (what to do when the log buffer is full, default block)\n" +
+                LOG_BUFFER_FLAG + " <number of events the log buffer holds>\n" +
+                LOG_FORMAT_FLAG + " <text|binary> (binary log may be decoded by pgs.log.LogDecoder, default text)\n" +
+                EXECUTOR_FLAG + " <cached|virtual> (threads running workers and lorries, virtual needs Java 21+, default cached)\n" +
+                ENGINE_FLAG + " <real_time|discrete_event> (discrete_event runs on a virtual clock, default real_time)\n" +
+                ANALYSIS_THREADS_FLAG + " <number of threads scanning the map, default number of cores>\n" +
+                PIPELINED_FLAG + " <true|false> (workers start while the map is being analysed, default false)\n" +
+                DISPATCH_FLAG + " <foreman|pull|work_stealing> (pull lets workers take blocks by themselves, " +
+                "work_stealing splits long blocks among workers, default foreman)\n" +
+                SPLIT_THRESHOLD_FLAG + " <max resources of a block processed by one worker at once with work_stealing, default 8>\n" +
+                ADAPTIVE_WORKERS_FLAG + " <true|false> (with foreman dispatch, keeps only as many of the " + WORKER_COUNT_FLAG +
+                " workers active as the lorries can take, default false)\n" +
+                MIN_WORKERS_FLAG + " <minimum number of active workers with adaptive workers, default 1>\n" +
+                ADAPT_INTERVAL_FLAG + " <time (ms) between two adjustments of the number of active workers, default 1000>\n" +
+                DOCKS_FLAG + " <number of lorries loaded at the mine entrance at once, default 1>\n" +
+                FLEET_FLAG + " <number of lorries reused for all trips, 0 for as many as needed, " +
+                "default a new lorry for every trip>\n" +
+                STOCKPILE_FLAG + " <max resources on the stockpile, where workers leave their resources for the loaders, " +
+                "default 0 - workers load the lorries themselves>\n" +
+                LOADERS_FLAG + " <number of loaders loading the lorries from the stockpile, default 1>\n" +
+                FERRIES_FLAG + " <number of ferries taking lorries across the river, default 1>\n" +
+                FERRY_WAIT_FLAG + " <max time (ms) a ferry waits after the first lorry boards before shipping out not full, " +
+                "default 0 - waits until full>\n" +
+                SPEEDUP_FLAG + " <how many times faster than real time the simulation runs, 0 for no waiting at all, default 1>\n" +
+                SEED_FLAG + " <seed of all random processing and transport times, default random>\n" +
+                PROCESSING_DIST_FLAG + " <uniform|exponential|empirical:<histogram file>> (distribution of resource processing " +
+                "times, histogram lines are \"<ms> <weight>\", default uniform)\n" +
+                TRANSPORT_DIST_FLAG + " <uniform|exponential|empirical:<histogram file>> (distribution of transport times, " +
+                "default uniform)\n" +
+                MAP_CACHE_FLAG + " <true|false> (repeated simulations of the same map reuse it's analysis, default true with " +
+                SWEEP_FLAG + ", otherwise false)\n" +
+                MAP_SIDECAR_FLAG + " <true|false> (keeps the analysis of the map in a \"<map>" + AnalysedMapCache.SIDECAR_SUFFIX +
+                "\" file, so later runs do not analyse the map at all, used only with the map cache, default false)\n" +
+                METRICS_FILE_FLAG + " <file rewritten with the snapshot of the metrics while the simulation runs>\n" +
+                METRICS_PORT_FLAG + " <local port serving the snapshot of the metrics on " + MetricsReporter.HTTP_PATH +
+                ", 0 for any free port>\n" +
+                METRICS_INTERVAL_FLAG + " <time (ms) between two snapshots written into the metrics file, default 1000>\n" +
+                JFR_EVENTS_FLAG + " <true|false> (records the analysis, processing, loading, trips, ferry boarding " +
+                "and log flushes as events of a running flight recording, default false)\n" +
+                "Sweep parameters:\n" +
+                SWEEP_FLAG + " <grid file> (runs a simulation for every combination of the values in the file, " +
+                "each line is a parameter followed by it's values, e.g. \"-cWorker 2 4 8\")\n" +
+                SWEEP_THREADS_FLAG + " <number of simulations running at once, default number of cores>\n" +
+                SWEEP_SUMMARY_FLAG + " <file to write the summary table of the sweep to, besides the standard output>\n" +
                 "Parameters do not need to be in this order.");
     }
 
@@ -125,6 +668,34 @@ public class PgsMineApp {
                 WORKER_TIME_FLAG + " " + config.getMaxWorkerResourceProcessingTime() + "(ms)\n" +
                 LORRY_CAP_FLAG + " " + config.getLorryCapacity() + "\n" +
                 LORRY_TIME_FLAG + " " + config.getLorryCapacity() + "\n" +
-                FERRY_CAP_FLAG + " " + config.getFerryCapacity());
+                FERRY_CAP_FLAG + " " + config.getFerryCapacity() + "\n" +
+                LOG_POLICY_FLAG + " " + config.getLogOverflowPolicy() + "\n" +
+                LOG_BUFFER_FLAG + " " + config.getLogBufferCapacity() + "\n" +
+                LOG_FORMAT_FLAG + " " + config.getLogFormat() + "\n" +
+                EXECUTOR_FLAG + " " + config.getExecutorMode() + "\n" +
+                ENGINE_FLAG + " " + config.getEngine() + "\n" +
+                ANALYSIS_THREADS_FLAG + " " + config.getAnalysisParallelism() + "\n" +
+                PIPELINED_FLAG + " " + config.isPipelinedStart() + "\n" +
+                DISPATCH_FLAG + " " + config.getDispatchMode() + "\n" +
+                SPLIT_THRESHOLD_FLAG + " " + config.getBlockSplitThreshold() + "\n" +
+                ADAPTIVE_WORKERS_FLAG + " " + config.isAdaptiveWorkers() + "\n" +
+                MIN_WORKERS_FLAG + " " + config.getMinWorkerCount() + "\n" +
+                ADAPT_INTERVAL_FLAG + " " + config.getWorkerLimitIntervalMillis() + "(ms)\n" +
+                DOCKS_FLAG + " " + config.getLoadingDockCount() + "\n" +
+                FLEET_FLAG + " " + config.getLorryFleetSize() + "\n" +
+                STOCKPILE_FLAG + " " + config.getStockpileCapacity() + "\n" +
+                LOADERS_FLAG + " " + config.getLoaderCount() + "\n" +
+                FERRIES_FLAG + " " + config.getFerryCount() + "\n" +
+                FERRY_WAIT_FLAG + " " + config.getFerryMaxWaitMillis() + "(ms)\n" +
+                SPEEDUP_FLAG + " " + config.getTimeSpeedup() + "\n" +
+                SEED_FLAG + " " + config.getRandomSeed() + "\n" +
+                PROCESSING_DIST_FLAG + " " + config.getProcessingTimeDistribution() + "\n" +
+                TRANSPORT_DIST_FLAG + " " + config.getTransportTimeDistribution() + "\n" +
+                MAP_CACHE_FLAG + " " + config.isMapCacheEnabled() + "\n" +
+                MAP_SIDECAR_FLAG + " " + config.isMapSidecarEnabled() + "\n" +
+                METRICS_FILE_FLAG + " " + config.getMetricsFilePath() + "\n" +
+                METRICS_PORT_FLAG + " " + config.getMetricsPort() + "\n" +
+                METRICS_INTERVAL_FLAG + " " + config.getMetricsIntervalMillis() + "(ms)\n" +
+                JFR_EVENTS_FLAG + " " + config.isJfrEventsEnabled());
     }
 }
@@ -2,40 +2,62 @@ package pgs;
 
 import pgs.cargo.Ferry;
 import pgs.cargo.Lorry;
+import pgs.cargo.LorryFleet;
+import pgs.cargo.RiverCrossing;
+import pgs.discrete.DiscreteEventSimulation;
+import pgs.mine.AnalysedMap;
+import pgs.mine.AnalysedMapCache;
+import pgs.mine.LoadingDock;
 import pgs.mine.Map;
 import pgs.mine.Mine;
+import pgs.worker.DispatchMode;
 import pgs.worker.Foreman;
 import pgs.worker.Worker;
 import pgs.worker.WorkerQueue;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Simulation of the resource mining process.
+ * Simulation of the resource mining process. Every simulation runs in it's own {@link SimulationContext},
+ * so more simulations may run in one JVM, one after another or at once.
  *
  * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
  * @since 7.3.2021
  */
 public class Simulation {
     /**
-     * Number of threads that have been created since the start of the simulation
+     * Configuration of this simulation
      */
-    public static int threadCount = 1;
+    private final SimulationConfig config;
 
     /**
-     * Starts the simulation with given configuration.
+     * Prepares the simulation with given configuration.
      * @param config configuration of this simulation
      */
-    public static void run(final SimulationConfig config) {
+    public Simulation(final SimulationConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Runs the simulation and waits until it ends.
+     * @return result of the simulation
+     */
+    public SimulationResult run() {
         if (config == null) {
             System.err.println("No configuration passed! Simulation will not start.");
-            return;
+            return SimulationResult.failed(null);
         }
 
         if (!isConfigValid(config)) {
             System.err.println("Invalid configuration passed! Simulation will not start.");
-            return;
+            return SimulationResult.failed(config);
         }
 
         Map mineMap;
@@ -43,40 +65,190 @@ public class Simulation {
             mineMap = new Map(new File(config.getInputFilePath()));
         } catch (IOException e) {
             System.err.println("Given map input file is invalid!");
-            return;
+            return SimulationResult.failed(config);
         }
 
-        Logger.createInstance(config.getOutputFilePath());
-        Lorry.setDefaultCapacity(config.getLorryCapacity());
-        Lorry.setDefaultMaxTransportTime(config.getMaxLorryTransportTime());
+        long start = System.nanoTime();
+        AnalysedMapCache.Lookup cachedAnalysis = lookupCachedAnalysis();
+        boolean completed;
+        long foundResources;
+        long shippedResources;
+        long simulatedMillis;
+        try (SimulationContext context = new SimulationContext(config)) {   // Closing writes out everything still buffered
+            Mine mine = new Mine(mineMap, config.getLoadingDockCount());
+            context.getMetrics().gauge("mine_unprocessed_blocks", mine::getUnprocessedBlocksCount);
+            context.getMetrics().gauge("mine_unprocessed_resources", mine::getUnprocessedResourcesCount);
+            Foreman foreman = new Foreman(context, context.nextActorId());
+            foreman.setDispatchMode(config.getDispatchMode());
+            foreman.setBlockSplitThreshold(config.getBlockSplitThreshold());
+            foreman.setStockpile(config.getStockpileCapacity(), config.getLoaderCount());
+            if (config.isAdaptiveWorkers()) {
+                foreman.setAdaptiveWorkerLimit(config.getMinWorkerCount(), config.getWorkerLimitIntervalMillis());
+            }
 
-        Mine mine = new Mine(mineMap);
+            MiningOutcome outcome = runMining(context, mine, foreman, cachedAnalysis);
+            completed = outcome != null && outcome.completed;
+            foundResources = foreman.getFoundResourcesCount();
+            shippedResources = outcome != null ? outcome.shippedResources : 0;
+            simulatedMillis = outcome != null ? outcome.simulatedMillis : 0;
+        }
 
-        Foreman foreman = new Foreman(threadCount++);
-        foreman.analyzeMineResources(mine);
+        return new SimulationResult(config, completed, foundResources, shippedResources, simulatedMillis,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
 
-        int lorryCount = mine.getUnprocessedResourcesCount() / config.getLorryCapacity();
-        if (mine.getUnprocessedResourcesCount() % config.getLorryCapacity() != 0) {
-            lorryCount++;
+    /**
+     * Looks up the analysis of the map in the shared cache, if the configuration allows it.
+     * @return lookup of the cached analysis, or null if the cache is not used
+     */
+    private AnalysedMapCache.Lookup lookupCachedAnalysis() {
+        if (!config.isMapCacheEnabled()) {
+            return null;
         }
 
-        if (lorryCount % config.getFerryCapacity() != 0) {
-            System.out.println("Cannot execute this simulation!\n Number of required lorries to carry all resources has to be divisible by Ferry capacity.");
-            return;
+        try {
+            return AnalysedMapCache.SHARED.lookup(Paths.get(config.getInputFilePath()), config.isMapSidecarEnabled());
+        } catch (IOException e) {
+            System.err.println("Map analysis cache cannot be used, the map will be analysed.\n" + e.getMessage());
+            return null;
         }
+    }
 
-        WorkerQueue workerQueue = new WorkerQueue();
-        Worker.setWorkerCount(config.getWorkerCount());
-        for (int i = 0; i < config.getWorkerCount(); i++) {
-            workerQueue.addWorker(new Worker(threadCount++, config.getMaxWorkerResourceProcessingTime()));
+    /**
+     * Analyzes the mine and mines all of it's resources. If the map has been analysed before, the mine is filled
+     * with the cached blocks and the map is not read at all.
+     * @param context context of this simulation
+     * @param mine mine to analyse and mine
+     * @param foreman foreman analysing the mine and delegating the workers
+     * @param cachedAnalysis lookup of the cached analysis of the map, or null if the cache is not used
+     * @return outcome of the mining, or null if the mine could not be analysed
+     */
+    private MiningOutcome runMining(final SimulationContext context, final Mine mine, final Foreman foreman,
+                                    final AnalysedMapCache.Lookup cachedAnalysis) {
+        AnalysedMap analysedMap = cachedAnalysis != null ? cachedAnalysis.getAnalysedMap() : null;
+        AnalysedMap.Builder analysis = analysedMap == null && cachedAnalysis != null
+                ? new AnalysedMap.Builder() : null;     // Collected only when it is going to be cached
+        if (analysedMap != null) {
+            System.out.println("Using the cached analysis of the map.");
+            foreman.loadMineResources(mine, analysedMap);   // Nothing to pipeline, every block is there at once
+        } else if (config.isPipelinedStart() && config.getEngine() == SimulationEngine.REAL_TIME) {
+            return runPipelinedMining(context, mine, foreman, cachedAnalysis, analysis);
+        } else {
+            try {
+                foreman.analyzeMineResources(mine, config.getAnalysisParallelism(), analysis);
+            } catch (IOException e) {
+                System.err.println("Given map input file is invalid!\n" + e.getMessage());
+                return null;
+            }
+
+            if (analysis != null) {
+                cachedAnalysis.store(analysis.build());
+            }
+        }
+
+        if (config.getEngine() == SimulationEngine.DISCRETE_EVENT) {
+            DiscreteEventSimulation simulation = new DiscreteEventSimulation(context, mine);
+            simulation.run();
+            return new MiningOutcome(true, simulation.getShippedResources(), simulation.getSimulatedMillis());
+        }
+
+        WorkerQueue workerQueue = createWorkers(context);
+        RiverCrossing crossing = createRiverCrossing(context);
+        placeLorries(context, mine, crossing, foreman);
+
+        long miningStart = context.getTimeSource().millis();
+        foreman.delegateWorkers(workerQueue, crossing);   // Starting the entire parallel simulation
+        return new MiningOutcome(true, crossing.getShippedResources(), context.getTimeSource().millis() - miningStart);
+    }
+
+    /**
+     * Mines the resources while the mine is still being analysed. Workers take the blocks as soon as the analysis
+     * finds them. If the analysis fails, the simulation is stopped.
+     * @param context context of this simulation
+     * @param mine mine to analyse and mine
+     * @param foreman foreman analysing the mine and delegating the workers
+     * @param cachedAnalysis lookup to store the analysis of the map through, or null if the cache is not used
+     * @param mapAnalysis builder collecting the analysis of the map to store, or null if the cache is not used
+     * @return outcome of the mining
+     */
+    private MiningOutcome runPipelinedMining(final SimulationContext context, final Mine mine, final Foreman foreman,
+                                             final AnalysedMapCache.Lookup cachedAnalysis,
+                                             final AnalysedMap.Builder mapAnalysis) {
+        WorkerQueue workerQueue = createWorkers(context);
+        RiverCrossing crossing = createRiverCrossing(context);
+        placeLorries(context, mine, crossing, foreman);
+
+        CompletableFuture<Void> analysis = foreman.startMineAnalysis(mine, config.getAnalysisParallelism(), mapAnalysis);
+        analysis.whenComplete((result, error) -> {
+            if (error == null) {
+                if (mapAnalysis != null) {
+                    cachedAnalysis.store(mapAnalysis.build());
+                }
+                return;
+            }
+
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            System.err.println("Given map input file is invalid!\n" + cause.getMessage());
+
+            mine.discardUnprocessedBlocks();    // Stopping the simulation - no more work and no more shipping
+            crossing.cancel();
+        });
+
+        long miningStart = context.getTimeSource().millis();
+        foreman.delegateWorkers(workerQueue, crossing);   // Returns once the analysis is over and every found block is mined
+        return new MiningOutcome(!analysis.isCompletedExceptionally(), crossing.getShippedResources(),
+                context.getTimeSource().millis() - miningStart);
+    }
+
+    /**
+     * Places the first steady lorry into every loading dock of the mine. If the configuration sets up a fleet
+     * of lorries, the lorries are taken from the fleet and the foreman will use it as well.
+     * @param context context of this simulation
+     * @param mine mine to place the lorries into
+     * @param crossing river crossing the lorries will travel to
+     * @param foreman foreman replacing the filled lorries
+     */
+    private void placeLorries(final SimulationContext context, final Mine mine, final RiverCrossing crossing,
+                              final Foreman foreman) {
+        LorryFleet fleet = null;
+        if (config.getLorryFleetSize() >= 0) {
+            fleet = new LorryFleet(context, config.getLorryFleetSize(), config.getLorryCapacity(),
+                    config.getMaxLorryTransportTime(), crossing);
+            foreman.setLorryFleet(fleet);
         }
 
-        Ferry ferry = new Ferry(threadCount++, config.getFerryCapacity());
-        mine.replaceSteadyLorry(
-                new Lorry(threadCount++, Lorry.getDefaultCapacity(),
-                        config.getMaxLorryTransportTime(), ferry)); // null, because there is no steady Lorry atm
+        for (LoadingDock dock : mine.getLoadingDocks()) {
+            dock.replaceSteadyLorry(fleet != null ? fleet.acquire() : new Lorry(context, context.nextActorId(),
+                    config.getLorryCapacity(), config.getMaxLorryTransportTime(), crossing));    // There is no steady Lorry to send away atm
+        }
+    }
+
+    /**
+     * Creates the river crossing with the number of ferries described by the configuration.
+     * @param context context of this simulation
+     * @return river crossing
+     */
+    private RiverCrossing createRiverCrossing(final SimulationContext context) {
+        List<Ferry> ferries = new ArrayList<>(config.getFerryCount());
+        for (int i = 0; i < config.getFerryCount(); i++) {
+            ferries.add(new Ferry(context, context.nextActorId(), config.getFerryCapacity(), config.getFerryMaxWaitMillis()));
+        }
+
+        return new RiverCrossing(ferries);
+    }
+
+    /**
+     * Creates the queue of workers described by the configuration.
+     * @param context context of this simulation
+     * @return queue of available workers
+     */
+    private WorkerQueue createWorkers(final SimulationContext context) {
+        WorkerQueue workerQueue = new WorkerQueue(context.getMetrics(), context.getTimeSource());
+        for (int i = 0; i < config.getWorkerCount(); i++) {
+            workerQueue.addWorker(new Worker(context, context.nextActorId(), config.getMaxWorkerResourceProcessingTime()));
+        }
 
-        foreman.delegateWorkers(workerQueue, ferry);   // Starting the entire parallel simulation
+        return workerQueue;
     }
 
     /**
@@ -85,7 +257,25 @@ public class Simulation {
      * @return true, if the configuration is valid, otherwise false
      */
     private static boolean isConfigValid(final SimulationConfig config) {
-        if (config == null) {
+        if (config == null || config.getLoadingDockCount() <= 0 || config.getFerryCount() <= 0
+                || !(config.getTimeSpeedup() >= 0) || Double.isInfinite(config.getTimeSpeedup())) {
+            return false;
+        }
+
+        if (config.getLorryFleetSize() > 0 && config.getFerryMaxWaitMillis() <= Ferry.NO_MAX_WAIT     // Ferries wait until full
+                && config.getLorryFleetSize() < config.getLoadingDockCount() + config.getFerryCount() * config.getFerryCapacity()) {
+            System.err.println("Lorry fleet has to have at least as many lorries as there are loading docks " +
+                    "and places on all ferries together!");
+            return false;
+        }
+
+        if (config.getLorryFleetSize() > 0 && config.getLorryFleetSize() <= config.getLoadingDockCount()) {
+            System.err.println("Lorry fleet has to have more lorries than there are loading docks, " +
+                    "otherwise no lorry is left to carry the material to the ferry!");
+            return false;
+        }
+
+        if (config.getEngine() == SimulationEngine.DISCRETE_EVENT && !isSupportedByDiscreteEngine(config)) {
             return false;
         }
 
@@ -95,4 +285,68 @@ public class Simulation {
                 config.getLorryCapacity() > 0 && config.getMaxLorryTransportTime() > 0 &&
                 config.getFerryCapacity() > 0);
     }
+
+    /**
+     * Checks if the discrete-event engine models every option of passed configuration. An option, that it does not
+     * model, would be silently ignored and the statistics would not match the real-time simulation.
+     * @param config configuration to check
+     * @return true, if the configuration may run on the discrete-event engine, otherwise false
+     */
+    private static boolean isSupportedByDiscreteEngine(final SimulationConfig config) {
+        if (config.getDispatchMode() != DispatchMode.FOREMAN) {
+            System.err.println("Discrete-event engine supports only the foreman dispatch mode!");
+            return false;
+        }
+
+        if (config.getLoadingDockCount() != 1) {
+            System.err.println("Discrete-event engine supports only a single loading dock!");
+            return false;
+        }
+
+        if (config.getLorryFleetSize() >= 0) {
+            System.err.println("Discrete-event engine does not support a fleet of lorries!");
+            return false;
+        }
+
+        if (config.getFerryCount() != 1) {
+            System.err.println("Discrete-event engine supports only a single ferry!");
+            return false;
+        }
+
+        if (config.isAdaptiveWorkers()) {
+            System.err.println("Discrete-event engine does not support the adaptive number of workers!");
+            return false;
+        }
+
+        if (config.getStockpileCapacity() != 0) {
+            System.err.println("Discrete-event engine does not support a stockpile with loaders!");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * What the mining ended with.
+     */
+    private static class MiningOutcome {
+        /**
+         * Flag indicating whether the whole mine was mined
+         */
+        private final boolean completed;
+        /**
+         * Number of resources shipped across the river
+         */
+        private final long shippedResources;
+        /**
+         * Number of milliseconds of the simulated time the mining took
+         */
+        private final long simulatedMillis;
+
+        private MiningOutcome(final boolean completed, final long shippedResources, final long simulatedMillis) {
+            this.completed = completed;
+            this.shippedResources = shippedResources;
+            this.simulatedMillis = simulatedMillis;
+        }
+    }
 }
@@ -1,5 +1,15 @@
 package pgs;
 
+import pgs.cargo.Ferry;
+import pgs.log.LogFormat;
+import pgs.log.OverflowPolicy;
+import pgs.metrics.MetricsReporter;
+import pgs.random.Distribution;
+import pgs.task.ExecutorMode;
+import pgs.worker.DispatchMode;
+
+import java.util.SplittableRandom;
+
 /**
  * Configuration of the resource mining simulation.
  *
@@ -22,6 +32,66 @@ public class SimulationConfig {
 
     private int ferryCapacity;
 
+    private int logBufferCapacity = Logger.DEFAULT_BUFFER_CAPACITY;
+
+    private int logBatchSize = Logger.DEFAULT_BATCH_SIZE;
+
+    private int logFlushIntervalMillis = Logger.DEFAULT_FLUSH_INTERVAL_MILLIS;
+
+    private OverflowPolicy logOverflowPolicy = OverflowPolicy.BLOCK;
+
+    private LogFormat logFormat = LogFormat.TEXT;
+
+    private ExecutorMode executorMode = ExecutorMode.CACHED;
+
+    private SimulationEngine engine = SimulationEngine.REAL_TIME;
+
+    private int analysisParallelism = Runtime.getRuntime().availableProcessors();
+
+    private boolean pipelinedStart = false;
+
+    private DispatchMode dispatchMode = DispatchMode.FOREMAN;
+
+    private int blockSplitThreshold = 0;
+
+    private boolean adaptiveWorkers = false;
+
+    private int minWorkerCount = 1;
+
+    private int workerLimitIntervalMillis = 1000;
+
+    private int loadingDockCount = 1;
+
+    private int lorryFleetSize = -1;    // Negative for a new lorry on every trip
+
+    private int stockpileCapacity = 0;    // Zero for workers loading the lorries themselves
+
+    private int loaderCount = 1;
+
+    private int ferryCount = 1;
+
+    private int ferryMaxWaitMillis = Ferry.NO_MAX_WAIT;
+
+    private double timeSpeedup = 1;     // Zero for no sleeping at all
+
+    private long randomSeed = new SplittableRandom().nextLong();
+
+    private Distribution processingTimeDistribution = Distribution.UNIFORM;
+
+    private Distribution transportTimeDistribution = Distribution.UNIFORM;
+
+    private boolean mapCacheEnabled = false;
+
+    private boolean mapSidecarEnabled = false;
+
+    private String metricsFilePath = null;
+
+    private int metricsPort = MetricsReporter.NO_PORT;
+
+    private long metricsIntervalMillis = 1000;
+
+    private boolean jfrEventsEnabled = false;
+
     public String getInputFilePath() {
         return inputFilePath;
     }
@@ -77,4 +147,244 @@ public class SimulationConfig {
     public void setFerryCapacity(final int ferryCapacity) {
         this.ferryCapacity = ferryCapacity;
     }
+
+    public int getLogBufferCapacity() {
+        return logBufferCapacity;
+    }
+
+    public void setLogBufferCapacity(final int logBufferCapacity) {
+        this.logBufferCapacity = logBufferCapacity;
+    }
+
+    public int getLogBatchSize() {
+        return logBatchSize;
+    }
+
+    public void setLogBatchSize(final int logBatchSize) {
+        this.logBatchSize = logBatchSize;
+    }
+
+    public int getLogFlushIntervalMillis() {
+        return logFlushIntervalMillis;
+    }
+
+    public void setLogFlushIntervalMillis(final int logFlushIntervalMillis) {
+        this.logFlushIntervalMillis = logFlushIntervalMillis;
+    }
+
+    public OverflowPolicy getLogOverflowPolicy() {
+        return logOverflowPolicy;
+    }
+
+    public void setLogOverflowPolicy(final OverflowPolicy logOverflowPolicy) {
+        this.logOverflowPolicy = logOverflowPolicy;
+    }
+
+    public LogFormat getLogFormat() {
+        return logFormat;
+    }
+
+    public void setLogFormat(final LogFormat logFormat) {
+        this.logFormat = logFormat;
+    }
+
+    public ExecutorMode getExecutorMode() {
+        return executorMode;
+    }
+
+    public void setExecutorMode(final ExecutorMode executorMode) {
+        this.executorMode = executorMode;
+    }
+
+    public SimulationEngine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(final SimulationEngine engine) {
+        this.engine = engine;
+    }
+
+    public int getAnalysisParallelism() {
+        return analysisParallelism;
+    }
+
+    public void setAnalysisParallelism(final int analysisParallelism) {
+        this.analysisParallelism = analysisParallelism;
+    }
+
+    public boolean isPipelinedStart() {
+        return pipelinedStart;
+    }
+
+    public void setPipelinedStart(final boolean pipelinedStart) {
+        this.pipelinedStart = pipelinedStart;
+    }
+
+    public DispatchMode getDispatchMode() {
+        return dispatchMode;
+    }
+
+    public void setDispatchMode(final DispatchMode dispatchMode) {
+        this.dispatchMode = dispatchMode;
+    }
+
+    public int getBlockSplitThreshold() {
+        return blockSplitThreshold;
+    }
+
+    public void setBlockSplitThreshold(final int blockSplitThreshold) {
+        this.blockSplitThreshold = blockSplitThreshold;
+    }
+
+    public boolean isAdaptiveWorkers() {
+        return adaptiveWorkers;
+    }
+
+    public void setAdaptiveWorkers(final boolean adaptiveWorkers) {
+        this.adaptiveWorkers = adaptiveWorkers;
+    }
+
+    public int getMinWorkerCount() {
+        return minWorkerCount;
+    }
+
+    public void setMinWorkerCount(final int minWorkerCount) {
+        this.minWorkerCount = minWorkerCount;
+    }
+
+    public int getWorkerLimitIntervalMillis() {
+        return workerLimitIntervalMillis;
+    }
+
+    public void setWorkerLimitIntervalMillis(final int workerLimitIntervalMillis) {
+        this.workerLimitIntervalMillis = workerLimitIntervalMillis;
+    }
+
+    public int getLoadingDockCount() {
+        return loadingDockCount;
+    }
+
+    public void setLoadingDockCount(final int loadingDockCount) {
+        this.loadingDockCount = loadingDockCount;
+    }
+
+    public int getLorryFleetSize() {
+        return lorryFleetSize;
+    }
+
+    public void setLorryFleetSize(final int lorryFleetSize) {
+        this.lorryFleetSize = lorryFleetSize;
+    }
+
+    public int getStockpileCapacity() {
+        return stockpileCapacity;
+    }
+
+    public void setStockpileCapacity(final int stockpileCapacity) {
+        this.stockpileCapacity = stockpileCapacity;
+    }
+
+    public int getLoaderCount() {
+        return loaderCount;
+    }
+
+    public void setLoaderCount(final int loaderCount) {
+        this.loaderCount = loaderCount;
+    }
+
+    public int getFerryCount() {
+        return ferryCount;
+    }
+
+    public void setFerryCount(final int ferryCount) {
+        this.ferryCount = ferryCount;
+    }
+
+    public int getFerryMaxWaitMillis() {
+        return ferryMaxWaitMillis;
+    }
+
+    public void setFerryMaxWaitMillis(final int ferryMaxWaitMillis) {
+        this.ferryMaxWaitMillis = ferryMaxWaitMillis;
+    }
+
+    public double getTimeSpeedup() {
+        return timeSpeedup;
+    }
+
+    public void setTimeSpeedup(final double timeSpeedup) {
+        this.timeSpeedup = timeSpeedup;
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public void setRandomSeed(final long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    public Distribution getProcessingTimeDistribution() {
+        return processingTimeDistribution;
+    }
+
+    public void setProcessingTimeDistribution(final Distribution processingTimeDistribution) {
+        this.processingTimeDistribution = processingTimeDistribution;
+    }
+
+    public Distribution getTransportTimeDistribution() {
+        return transportTimeDistribution;
+    }
+
+    public void setTransportTimeDistribution(final Distribution transportTimeDistribution) {
+        this.transportTimeDistribution = transportTimeDistribution;
+    }
+
+    public boolean isMapCacheEnabled() {
+        return mapCacheEnabled;
+    }
+
+    public void setMapCacheEnabled(final boolean mapCacheEnabled) {
+        this.mapCacheEnabled = mapCacheEnabled;
+    }
+
+    public boolean isMapSidecarEnabled() {
+        return mapSidecarEnabled;
+    }
+
+    public void setMapSidecarEnabled(final boolean mapSidecarEnabled) {
+        this.mapSidecarEnabled = mapSidecarEnabled;
+    }
+
+    public String getMetricsFilePath() {
+        return metricsFilePath;
+    }
+
+    public void setMetricsFilePath(final String metricsFilePath) {
+        this.metricsFilePath = metricsFilePath;
+    }
+
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    public void setMetricsPort(final int metricsPort) {
+        this.metricsPort = metricsPort;
+    }
+
+    public long getMetricsIntervalMillis() {
+        return metricsIntervalMillis;
+    }
+
+    public void setMetricsIntervalMillis(final long metricsIntervalMillis) {
+        this.metricsIntervalMillis = metricsIntervalMillis;
+    }
+
+    public boolean isJfrEventsEnabled() {
+        return jfrEventsEnabled;
+    }
+
+    public void setJfrEventsEnabled(final boolean jfrEventsEnabled) {
+        this.jfrEventsEnabled = jfrEventsEnabled;
+    }
 }
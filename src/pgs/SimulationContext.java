@@ -0,0 +1,180 @@
+package pgs;
+
+import pgs.metrics.MetricsRegistry;
+import pgs.metrics.MetricsReporter;
+import pgs.random.RandomStreams;
+import pgs.task.TaskExecutors;
+import pgs.time.ScaledTimeSource;
+import pgs.time.TimeSource;
+
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Everything shared by the actors of one simulation - the time source, the random streams, the logger,
+ * the metrics, the executors running the workers and the lorries, and the sequence of actor IDs. Every simulation has
+ * it's own context, so more simulations may run in one JVM at once.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class SimulationContext implements AutoCloseable {
+    /**
+     * Number of milliseconds an idle thread of the cached lorry executor is kept alive.
+     */
+    private static final long LORRY_EXECUTOR_KEEP_ALIVE_MILLIS = 1000;
+    /**
+     * Configuration of the simulation
+     */
+    private final SimulationConfig config;
+    /**
+     * Source of the simulated time
+     */
+    private final TimeSource timeSource;
+    /**
+     * Source of the random streams of the actors
+     */
+    private final RandomStreams randomStreams;
+    /**
+     * Logger of the simulation events
+     */
+    private final Logger logger;
+    /**
+     * Metrics of the actors
+     */
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    /**
+     * Reporter of the metrics snapshots, or null if the metrics are not reported while the simulation runs
+     */
+    private final MetricsReporter metricsReporter;
+    /**
+     * Executor the workers process blocks on
+     */
+    private final ExecutorService workerExecutor;
+    /**
+     * Executor the lorries transport cargo on
+     */
+    private final ExecutorService lorryExecutor;
+    /**
+     * Next free ID of an actor
+     */
+    private final AtomicInteger nextActorId = new AtomicInteger(1);
+
+    /**
+     * Creates the context of a simulation with given configuration. The log file is opened right away.
+     * @param config configuration of the simulation
+     */
+    public SimulationContext(final SimulationConfig config) {
+        this.config = config;
+        this.timeSource = createTimeSource(config);
+        this.randomStreams = new RandomStreams(config.getRandomSeed(), config.getProcessingTimeDistribution(),
+                config.getTransportTimeDistribution());
+        this.logger = new Logger(config, timeSource);     // Logger takes the time from the time source as well
+        this.workerExecutor = TaskExecutors.create(config.getExecutorMode(), 0L);
+        this.lorryExecutor = TaskExecutors.create(config.getExecutorMode(), LORRY_EXECUTOR_KEEP_ALIVE_MILLIS);
+
+        if (workerExecutor instanceof ThreadPoolExecutor) {   // Virtual threads are not pooled
+            ((ThreadPoolExecutor) workerExecutor).setCorePoolSize(Math.max(config.getWorkerCount(), 0));
+        }
+
+        metrics.gauge("logger_backlog", logger::getBacklog);
+        metrics.gauge("logger_dropped_events", logger::getDroppedEvents);
+        this.metricsReporter = config.getMetricsFilePath() != null || config.getMetricsPort() != MetricsReporter.NO_PORT
+                ? new MetricsReporter(metrics, config.getMetricsFilePath() != null ? Paths.get(config.getMetricsFilePath()) : null,
+                        config.getMetricsPort(), config.getMetricsIntervalMillis())
+                : null;
+    }
+
+    /**
+     * Returns new ID for an actor of the simulation. IDs are given out in ascending order, starting with one.
+     * @return new actor ID
+     */
+    public int nextActorId() {
+        return nextActorId.getAndIncrement();
+    }
+
+    /**
+     * Returns the configuration of the simulation.
+     * @return configuration
+     */
+    public SimulationConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns the source of the simulated time, used by every actor.
+     * @return time source
+     */
+    public TimeSource getTimeSource() {
+        return timeSource;
+    }
+
+    /**
+     * Returns the source of the random streams of the actors.
+     * @return random streams
+     */
+    public RandomStreams getRandomStreams() {
+        return randomStreams;
+    }
+
+    /**
+     * Returns the logger of the simulation events.
+     * @return logger
+     */
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Returns the metrics of the actors.
+     * @return metrics registry
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the executor the workers process blocks on.
+     * @return worker executor
+     */
+    public ExecutorService getWorkerExecutor() {
+        return workerExecutor;
+    }
+
+    /**
+     * Returns the executor the lorries transport cargo on.
+     * @return lorry executor
+     */
+    public ExecutorService getLorryExecutor() {
+        return lorryExecutor;
+    }
+
+    /**
+     * Sends the workers and the lorries home, writes the last metrics snapshot and writes out everything
+     * that is still buffered by the logger. Tasks already running are finished, but no new one may be started.
+     */
+    @Override
+    public void close() {
+        workerExecutor.shutdown();
+        lorryExecutor.shutdown();
+        if (metricsReporter != null) {
+            metricsReporter.close();
+        }
+        logger.close();
+    }
+
+    /**
+     * Creates the source of the simulated time described by the configuration.
+     * @param config configuration of the simulation
+     * @return time source
+     */
+    private static TimeSource createTimeSource(final SimulationConfig config) {
+        if (config.getTimeSpeedup() == 0) {
+            return TimeSource.NO_SLEEP;
+        }
+
+        return config.getTimeSpeedup() == 1 ? TimeSource.REAL : new ScaledTimeSource(config.getTimeSpeedup());
+    }
+}
@@ -0,0 +1,20 @@
+package pgs;
+
+/**
+ * Engine running the simulation.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public enum SimulationEngine {
+    /**
+     * Workers, lorries and the ferry are parallel tasks and every time cost is paid in wall-clock time.
+     */
+    REAL_TIME,
+    /**
+     * Workers, lorries and the ferry are modelled as events on a virtual clock. Produces the same log events
+     * and statistics as {@link #REAL_TIME} without waiting for any time cost. Options of the simulation, that are
+     * not modelled, are rejected.
+     */
+    DISCRETE_EVENT
+}
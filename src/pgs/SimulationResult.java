@@ -0,0 +1,77 @@
+package pgs;
+
+/**
+ * Outcome of one run of the simulation.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class SimulationResult {
+    /**
+     * Configuration the simulation ran with
+     */
+    private final SimulationConfig config;
+    /**
+     * Flag indicating whether the simulation mined the whole mine
+     */
+    private final boolean completed;
+    /**
+     * Number of resources found by the analysis of the mine
+     */
+    private final long foundResources;
+    /**
+     * Number of resources shipped across the river
+     */
+    private final long shippedResources;
+    /**
+     * Number of milliseconds of the simulated time the mining took, until the last lorry arrived to it's destination
+     */
+    private final long simulatedMillis;
+    /**
+     * Number of milliseconds of the real time the simulation took
+     */
+    private final long elapsedMillis;
+
+    SimulationResult(final SimulationConfig config, final boolean completed, final long foundResources,
+                     final long shippedResources, final long simulatedMillis, final long elapsedMillis) {
+        this.config = config;
+        this.completed = completed;
+        this.foundResources = foundResources;
+        this.shippedResources = shippedResources;
+        this.simulatedMillis = simulatedMillis;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Creates the result of a simulation, that could not start or was stopped before mining the whole mine.
+     * @param config configuration the simulation ran with
+     * @return result of a failed simulation
+     */
+    public static SimulationResult failed(final SimulationConfig config) {
+        return new SimulationResult(config, false, 0, 0, 0, 0);
+    }
+
+    public SimulationConfig getConfig() {
+        return config;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public long getFoundResources() {
+        return foundResources;
+    }
+
+    public long getShippedResources() {
+        return shippedResources;
+    }
+
+    public long getSimulatedMillis() {
+        return simulatedMillis;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
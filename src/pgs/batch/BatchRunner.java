@@ -0,0 +1,122 @@
+package pgs.batch;
+
+import pgs.Simulation;
+import pgs.SimulationConfig;
+import pgs.SimulationResult;
+
+import java.io.IOException;
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a batch of simulations in one JVM, given number of them at once. The simulations share the CPU cores:
+ * every simulation analyses it's map with at most it's share of the cores, so the analyses of simulations
+ * running at once do not use more threads than there are cores.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class BatchRunner {
+    /**
+     * Number of CPU cores shared by the simulations
+     */
+    private static final int CPU_BUDGET = Runtime.getRuntime().availableProcessors();
+    /**
+     * Maximum number of simulations running at once
+     */
+    private final int simulationsAtOnce;
+
+    /**
+     * Creates a runner of given number of simulations at once.
+     * @param simulationsAtOnce maximum number of simulations running at once
+     */
+    public BatchRunner(final int simulationsAtOnce) {
+        if (simulationsAtOnce <= 0) {
+            throw new InvalidParameterException("At least one simulation has to run at once!");
+        }
+
+        this.simulationsAtOnce = simulationsAtOnce;
+    }
+
+    /**
+     * Runs a simulation for every given configuration and waits until all of them end. The analysis parallelism
+     * of the configurations is lowered to their share of the CPU cores. A simulation, that fails with an exception,
+     * is reported as not completed.
+     * @param configs configurations of the simulations
+     * @return results of the simulations, in the order of the configurations
+     */
+    public List<SimulationResult> run(final List<SimulationConfig> configs) {
+        int analysisShare = Math.max(CPU_BUDGET / Math.min(simulationsAtOnce, Math.max(configs.size(), 1)), 1);
+        AtomicInteger startedThreads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(simulationsAtOnce, task -> {
+            Thread thread = new Thread(task, "simulation-" + startedThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<Future<SimulationResult>> runs = new ArrayList<>(configs.size());
+        try {
+            for (SimulationConfig config : configs) {
+                config.setAnalysisParallelism(Math.min(config.getAnalysisParallelism(), analysisShare));
+                runs.add(executor.submit(() -> new Simulation(config).run()));
+            }
+
+            List<SimulationResult> results = new ArrayList<>(configs.size());
+            for (int i = 0; i < runs.size(); i++) {
+                try {
+                    results.add(runs.get(i).get());
+                } catch (ExecutionException e) {
+                    System.err.println("Simulation " + (i + 1) + " of the batch failed!\n" + e.getCause());
+                    results.add(SimulationResult.failed(configs.get(i)));
+                } catch (InterruptedException e) {
+                    System.err.println("Waiting for simulation " + (i + 1) + " of the batch was interrupted!\n" + e.getMessage());
+                    results.add(SimulationResult.failed(configs.get(i)));
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes the results as a table with tab separated columns - the swept parameters of every simulation
+     * and what it ended with. Simulated time of the mining is what the configurations should be compared by,
+     * the elapsed real time only tells how long the run took.
+     * @param results results of the simulations
+     * @param output output of the table
+     * @throws IOException when the table cannot be written
+     */
+    public static void writeSummary(final List<SimulationResult> results, final Appendable output) throws IOException {
+        output.append("run\tworkers\tworkerTime\tlorryCapacity\tlorryTime\tferryCapacity\tferries\tdocks\tfleet\t"
+                + "ferryWait\tengine\tdispatch\tseed\tcompleted\tfound\tshipped\tsimulatedMs\telapsedMs\n");
+        for (int i = 0; i < results.size(); i++) {
+            SimulationResult result = results.get(i);
+            SimulationConfig config = result.getConfig();
+            output.append(String.valueOf(i + 1)).append('\t')
+                    .append(String.valueOf(config.getWorkerCount())).append('\t')
+                    .append(String.valueOf(config.getMaxWorkerResourceProcessingTime())).append('\t')
+                    .append(String.valueOf(config.getLorryCapacity())).append('\t')
+                    .append(String.valueOf(config.getMaxLorryTransportTime())).append('\t')
+                    .append(String.valueOf(config.getFerryCapacity())).append('\t')
+                    .append(String.valueOf(config.getFerryCount())).append('\t')
+                    .append(String.valueOf(config.getLoadingDockCount())).append('\t')
+                    .append(String.valueOf(config.getLorryFleetSize())).append('\t')
+                    .append(String.valueOf(config.getFerryMaxWaitMillis())).append('\t')
+                    .append(String.valueOf(config.getEngine())).append('\t')
+                    .append(String.valueOf(config.getDispatchMode())).append('\t')
+                    .append(String.valueOf(config.getRandomSeed())).append('\t')
+                    .append(String.valueOf(result.isCompleted())).append('\t')
+                    .append(String.valueOf(result.getFoundResources())).append('\t')
+                    .append(String.valueOf(result.getShippedResources())).append('\t')
+                    .append(String.valueOf(result.getSimulatedMillis())).append('\t')
+                    .append(String.valueOf(result.getElapsedMillis())).append('\n');
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package pgs.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Grid of command line parameters swept by a batch of simulations. Every line of a grid file holds a parameter
+ * flag followed by it's values, e.g. {@code -cWorker 2 4 8}. Lines starting with # are comments. The batch
+ * consists of every combination of the values, the first parameter changing the slowest.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class ParameterGrid {
+    /**
+     * Flags of the swept parameters
+     */
+    private final List<String> flags;
+    /**
+     * Values of every swept parameter, in the order of the flags
+     */
+    private final List<String[]> values;
+
+    private ParameterGrid(final List<String> flags, final List<String[]> values) {
+        this.flags = List.copyOf(flags);
+        this.values = List.copyOf(values);
+    }
+
+    /**
+     * Loads the grid from given file.
+     * @param gridFile grid file
+     * @return loaded grid
+     * @throws IOException when the file cannot be read or a line has no values
+     */
+    public static ParameterGrid load(final Path gridFile) throws IOException {
+        List<String> flags = new ArrayList<>();
+        List<String[]> values = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(gridFile)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] columns = line.split("\\s+");
+                if (columns.length < 2) {
+                    throw new IOException("Grid line has no values: " + line);
+                }
+                flags.add(columns[0]);
+                values.add(Arrays.copyOfRange(columns, 1, columns.length));
+            }
+        }
+
+        return new ParameterGrid(flags, values);
+    }
+
+    /**
+     * Returns the command line parameters of every point of the grid. Swept parameters are appended
+     * after the base parameters, so they override them.
+     * @param baseArgs parameters shared by every point
+     * @return parameters of every point
+     */
+    public List<String[]> expand(final String[] baseArgs) {
+        List<String[]> points = new ArrayList<>();
+        points.add(baseArgs.clone());
+        for (int axis = 0; axis < flags.size(); axis++) {
+            List<String[]> expanded = new ArrayList<>(points.size() * values.get(axis).length);
+            for (String[] point : points) {
+                for (String value : values.get(axis)) {
+                    String[] args = Arrays.copyOf(point, point.length + 2);
+                    args[point.length] = flags.get(axis);
+                    args[point.length + 1] = value;
+                    expanded.add(args);
+                }
+            }
+            points = expanded;
+        }
+
+        return points;
+    }
+}
@@ -1,24 +1,65 @@
 package pgs.cargo;
 
-import pgs.Logger;
+import pgs.SimulationContext;
+import pgs.jfr.FerryBoardingEvent;
+import pgs.jfr.FerryDepartureEvent;
+import pgs.jfr.FerryWaitEvent;
+import pgs.log.EventType;
+import pgs.metrics.Histogram;
+import pgs.time.TimeSource;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Ferry is specialized cargo vehicle that can be loaded with Lorries ({@link Lorry}) and transports them
  * across the river.
+ * <p>
+ * Vehicles boarding the ferry between two departures form a cohort. Every cohort waits on it's own condition,
+ * so when the ferry ships out, only the vehicles on board are woken up. Vehicles arriving while the ferry is away
+ * are turned away by {@link #board(CargoVehicle)} and it is up to them where they wait - see {@link RiverCrossing}.
+ * <p>
+ * The ferry ships out once it is full. If it has a maximum waiting time, it also ships out not full, once
+ * the time elapses since the first vehicle of the cohort boarded.
  *
  * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
  * @since 6.3.2021
  */
 public class Ferry extends CargoVehicle<CargoVehicle<?>> {
+    /**
+     * Maximum waiting time meaning, that the ferry always waits until it is full
+     */
+    public static final int NO_MAX_WAIT = 0;
+    /**
+     * Simulation the ferry operates in
+     */
+    private final SimulationContext context;
+    /**
+     * Maximum number of nanoseconds the ferry waits for more vehicles after the first one boards
+     */
+    private final long maxWaitNanos;
     /**
      * Number of shipped resources by a ferry.
      */
     private int shippedResources = 0;
+    /**
+     * Number of times the ferry shipped out.
+     */
+    private int shipments = 0;
+    /**
+     * Number of times the ferry shipped out not full.
+     */
+    private int partialShipments = 0;
+    /**
+     * Total number of milliseconds the ferry waited in the dock to be filled up.
+     */
+    private long totalFillTime = 0;
     /**
      * Time when the ferry has been emptied of created empty.
      */
@@ -31,17 +72,68 @@ public class Ferry extends CargoVehicle<CargoVehicle<?>> {
      * Flag indicating whether the ferry is waiting in dock to be loaded or not.
      */
     private boolean waitingInDock = true;
+    /**
+     * Flag indicating whether the ferry stopped operating. Cancelled ferry does not take any more vehicles.
+     */
+    private boolean cancelled = false;
+    /**
+     * Vehicles on board, waiting for the ferry to ship out.
+     */
+    private Cohort boardingCohort;
+    /**
+     * Task run every time the ferry returns to the dock, may be null.
+     */
+    private volatile Runnable returnListener;
+    /**
+     * Lock guarding loading of vehicles onto the Ferry.
+     */
+    private final Lock dockLock = new ReentrantLock();
+    /**
+     * Condition signalled when the Ferry returns to the dock.
+     */
+    private final Condition returnedToDock = dockLock.newCondition();
+    /**
+     * Histogram of the milliseconds the ferries waited in the dock to be filled up
+     */
+    private final Histogram fillTimes;
+    /**
+     * Histogram of the microseconds the vehicles waited on board for the ferries to ship out
+     */
+    private final Histogram barrierWaitTimes;
+    /**
+     * Flag indicating whether the boarding, waiting and departures are recorded as JFR events
+     */
+    private final boolean jfrEventsEnabled;
+
+    /**
+     * Constructs a Ferry with given capacity, that always waits until it is full
+     * @param context simulation the ferry operates in
+     * @param ferryId identifier of the Ferry
+     * @param capacity maximum capacity
+     */
+    public Ferry(final SimulationContext context, final int ferryId, final int capacity) {
+        this(context, ferryId, capacity, NO_MAX_WAIT);
+    }
 
     /**
-     * Constructs a Ferry with given capacity
+     * Constructs a Ferry with given capacity and maximum waiting time
+     * @param context simulation the ferry operates in
      * @param ferryId identifier of the Ferry
      * @param capacity maximum capacity
+     * @param maxWaitMillis maximum number of milliseconds to wait for more vehicles after the first one boards,
+     *                      {@link #NO_MAX_WAIT} to wait until full
      */
-    public Ferry(final int ferryId, final int capacity) {
+    public Ferry(final SimulationContext context, final int ferryId, final int capacity, final int maxWaitMillis) {
         super(ferryId, capacity);
 
+        this.context = context;
+        maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxWaitMillis, NO_MAX_WAIT));
         loadedVehicles = new ArrayList<>();
-        timeWhenEmptied = System.currentTimeMillis();
+        timeWhenEmptied = context.getTimeSource().millis();
+        boardingCohort = new Cohort();
+        jfrEventsEnabled = context.getConfig().isJfrEventsEnabled();
+        fillTimes = context.getMetrics().histogram("ferry_fill_ms");
+        barrierWaitTimes = context.getMetrics().histogram("ferry_barrier_wait_us");
     }
 
     @Override
@@ -50,49 +142,160 @@ public class Ferry extends CargoVehicle<CargoVehicle<?>> {
     }
 
     /**
-     * Loads given cargo vehicle to the Ferry. If the ferry is already full, returns false.
+     * Loads given cargo vehicle to the Ferry. If the ferry is away, waits until it returns to the dock.
+     * The ferry ships out once it is full, when the maximum waiting time elapses, or when told to by {@link #shipOut()}.
+     * If the ferry is cancelled before the vehicle is shipped, returns false.
      * @param cargoVehicle cargo vehicle to load
-     * @return true if successfully loaded, otherwise false
+     * @return true if successfully loaded and shipped, otherwise false
      */
     @Override
-    public synchronized boolean loadCargo(final CargoVehicle<?> cargoVehicle) {
-        while (!waitingInDock) {
+    public boolean loadCargo(final CargoVehicle<?> cargoVehicle) {
+        while (true) {
+            Cohort cohort;
+            dockLock.lock();
             try {
-                Ferry.this.wait();
-            } catch (InterruptedException e) {
-                System.err.println("Waiting on ferry to arrive to the dock was interrupted!\n" + e.getMessage());
+                while (!waitingInDock && !cancelled) {
+                    try {
+                        returnedToDock.await();
+                    } catch (InterruptedException e) {
+                        System.err.println("Waiting on ferry to arrive to the dock was interrupted!\n" + e.getMessage());
+                    }
+                }
+
+                if (cancelled) {
+                    return false;
+                }
+                cohort = board(cargoVehicle);
+            } finally {
+                dockLock.unlock();
+            }
+
+            if (cohort != null) {
+                return cohort.awaitCrossing(cargoVehicle);
             }
         }
+    }
 
-        loadedVehicles.add(cargoVehicle);
-        if (loadedVehicles.size() < getCapacity()) {
-            while (waitingInDock) {
-                try {
-                    Ferry.this.wait();     // Acting as a barrier - everyone who loads has to wait until Ferry is filled
-                } catch (InterruptedException e) {
-                    System.err.println("Waiting thread was unexpectedly interrupted!\n" + e.getMessage());
-                }
+    /**
+     * Boards given vehicle onto the ferry, if the ferry is in the dock. If the vehicle fills the ferry up, the ferry
+     * ships out. Does not wait for anything - the returned cohort is used to wait for the crossing.
+     * @param cargoVehicle vehicle to board
+     * @return cohort of the vehicle, or null if the ferry is not in the dock or is cancelled
+     */
+    public Cohort board(final CargoVehicle<?> cargoVehicle) {
+        FerryBoardingEvent event = jfrEventsEnabled ? new FerryBoardingEvent() : null;
+        if (event != null) {
+            event.begin();     // Before locking, so the contention for the dock is a part of the event
+        }
+
+        dockLock.lock();
+        try {
+            boolean boarded = waitingInDock && !cancelled;
+            if (event != null) {
+                event.ferryId = getId();
+                event.vehicleId = cargoVehicle.getId();
+                event.boarded = boarded;
+                event.commit();
+            }
+            if (!boarded) {
+                return null;
             }
 
+            Cohort cohort = boardingCohort;
+            if (cohort.members == 0) {
+                cohort.firstBoardedAt = context.getTimeSource().nanoTime();
+            }
+            loadedVehicles.add(cargoVehicle);
+            cohort.members++;
+            if (loadedVehicles.size() >= getCapacity()) {
+                shipCohort();
+            }
+
+            return cohort;
+        } finally {
+            dockLock.unlock();
+        }
+    }
+
+    /**
+     * Ships out with the vehicles on board, even if the ferry is not full. If there is no vehicle on board,
+     * or the ferry is away, nothing happens.
+     * @return true, if the ferry shipped out
+     */
+    public boolean shipOut() {
+        dockLock.lock();
+        try {
+            if (!waitingInDock || cancelled || loadedVehicles.isEmpty()) {
+                return false;
+            }
+
+            shipCohort();
+            return true;
+        } finally {
+            dockLock.unlock();
+        }
+    }
+
+    /**
+     * Ships out the boarding cohort and wakes up only it's vehicles. Has to be called with the dock lock held.
+     */
+    private void shipCohort() {
+        long millisToFull = context.getTimeSource().millis() - timeWhenEmptied;
+        if (loadedVehicles.size() < getCapacity()) {
+            context.getLogger().logEvent(this, EventType.FERRY_SHIPPED_PARTIAL, loadedVehicles.size(), (int) millisToFull);
+            partialShipments++;
         } else {
-            long millisToFull = System.currentTimeMillis() - timeWhenEmptied;
-            Logger.getInstance().logEvent(this, "Ferry shipped out! Filled in " + millisToFull + " ms.");
-            unloadCargo();
-            Ferry.this.notifyAll();
+            context.getLogger().logEvent(this, EventType.FERRY_SHIPPED, (int) millisToFull);
         }
+        shipments++;
+        totalFillTime += millisToFull;
+        fillTimes.record(millisToFull);
+        if (jfrEventsEnabled) {
+            FerryDepartureEvent event = new FerryDepartureEvent();
+            event.ferryId = getId();
+            event.vehicles = loadedVehicles.size();
+            event.partial = loadedVehicles.size() < getCapacity();
+            event.fillMillis = millisToFull;
+            event.commit();
+        }
+        unloadCargo();
 
-        loadedVehicles.remove(cargoVehicle);
-        if (loadedVehicles.isEmpty()) {
-            waitingInDock = true;   // All vehicles unloaded, going back to the dock
-            Ferry.this.notifyAll();
+        boardingCohort.shipped = true;
+        boardingCohort.crossed.signalAll();
+        boardingCohort = new Cohort();  // Vehicles arriving after the return form a new cohort
+    }
+
+    /**
+     * Stops the ferry. Every vehicle waiting in the dock leaves without being shipped and no more vehicles
+     * are accepted. Used when the simulation cannot be finished.
+     */
+    public void cancel() {
+        dockLock.lock();
+        try {
+            cancelled = true;
+            boardingCohort.crossed.signalAll();
+            returnedToDock.signalAll();
+        } finally {
+            dockLock.unlock();
         }
+    }
 
-        return true;
+    /**
+     * Sets the task to run every time the ferry returns to the dock.
+     * @param returnListener task to run, may be null
+     */
+    public void setReturnListener(final Runnable returnListener) {
+        this.returnListener = returnListener;
     }
 
     @Override
     public int getCurrentLoad() {
-        return loadedVehicles.size();
+        dockLock.lock();
+        try {
+            return loadedVehicles.size();
+        } finally {
+            dockLock.unlock();
+        }
     }
 
     /**
@@ -105,7 +308,7 @@ public class Ferry extends CargoVehicle<CargoVehicle<?>> {
         System.out.println("Ferry shipped out!");
         waitingInDock = false;
         shippedResources += loadedVehicles.stream().mapToInt(CargoVehicle::getCurrentLoad).sum();
-        timeWhenEmptied = System.currentTimeMillis();
+        timeWhenEmptied = context.getTimeSource().millis();
         return new FutureTask<>(() -> null);
     }
 
@@ -114,6 +317,137 @@ public class Ferry extends CargoVehicle<CargoVehicle<?>> {
      * @return number of shipped resources
      */
     public int getShippedResources() {
-        return shippedResources;
+        dockLock.lock();
+        try {
+            return shippedResources;
+        } finally {
+            dockLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of times this ferry shipped out.
+     * @return number of shipments
+     */
+    public int getShipments() {
+        dockLock.lock();
+        try {
+            return shipments;
+        } finally {
+            dockLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of times this ferry shipped out not full.
+     * @return number of partial shipments
+     */
+    public int getPartialShipments() {
+        dockLock.lock();
+        try {
+            return partialShipments;
+        } finally {
+            dockLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the average number of milliseconds this ferry waited in the dock to be filled up.
+     * @return average fill time, zero if the ferry never shipped out
+     */
+    public long getAverageFillTime() {
+        dockLock.lock();
+        try {
+            return shipments == 0 ? 0 : totalFillTime / shipments;
+        } finally {
+            dockLock.unlock();
+        }
+    }
+
+    /**
+     * Vehicles boarded onto the ferry for the same crossing.
+     */
+    public class Cohort {
+        /**
+         * Condition signalled when the cohort crosses the river
+         */
+        private final Condition crossed = dockLock.newCondition();
+        /**
+         * Number of vehicles in the cohort, that did not leave the ferry yet
+         */
+        private int members = 0;
+        /**
+         * Flag indicating, that the cohort has been shipped
+         */
+        private boolean shipped = false;
+        /**
+         * Value of {@link TimeSource#nanoTime()} when the first vehicle of the cohort boarded
+         */
+        private long firstBoardedAt;
+
+        private Cohort() {
+        }
+
+        /**
+         * Waits until the ferry crosses the river with the cohort, then leaves the ferry with given vehicle.
+         * The last vehicle to leave sends the ferry back to the dock. If the ferry has a maximum waiting time
+         * and it elapses, the vehicle sends the ferry out not full.
+         * @param cargoVehicle vehicle leaving the ferry
+         * @return true if the vehicle crossed the river, false if the ferry was cancelled
+         */
+        public boolean awaitCrossing(final CargoVehicle<?> cargoVehicle) {
+            boolean returned;
+            boolean crossedRiver;
+            long waitStart = context.getTimeSource().nanoTime();
+            FerryWaitEvent event = jfrEventsEnabled ? new FerryWaitEvent() : null;
+            if (event != null) {
+                event.begin();
+            }
+
+            dockLock.lock();
+            try {
+                while (!shipped && !cancelled) {
+                    try {
+                        if (maxWaitNanos == NO_MAX_WAIT) {
+                            crossed.await();     // Acting as a barrier - everyone who boards has to wait until Ferry is filled
+                            continue;
+                        }
+
+                        long remainingNanos = firstBoardedAt + maxWaitNanos - context.getTimeSource().nanoTime();
+                        if (remainingNanos > 0) {
+                            crossed.awaitNanos(Math.max(context.getTimeSource().toRealNanos(remainingNanos), 1));
+                        } else {
+                            shipCohort();   // Not shipped yet, so this is still the boarding cohort
+                        }
+                    } catch (InterruptedException e) {
+                        System.err.println("Waiting thread was unexpectedly interrupted!\n" + e.getMessage());
+                    }
+                }
+
+                crossedRiver = shipped;
+                barrierWaitTimes.record(TimeUnit.NANOSECONDS.toMicros(context.getTimeSource().nanoTime() - waitStart));
+                if (event != null) {
+                    event.ferryId = getId();
+                    event.vehicleId = cargoVehicle.getId();
+                    event.crossed = crossedRiver;
+                    event.commit();
+                }
+                loadedVehicles.remove(cargoVehicle);
+                members--;
+                returned = shipped && members == 0;
+                if (returned) {
+                    waitingInDock = true;   // All vehicles unloaded, going back to the dock
+                    returnedToDock.signalAll();
+                }
+            } finally {
+                dockLock.unlock();
+            }
+
+            Runnable listener = returnListener;
+            if (returned && listener != null) {
+                listener.run();     // Outside of the lock, the listener may look at other ferries
+            }
+            return crossedRiver;
+        }
     }
 }
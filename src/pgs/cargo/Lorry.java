@@ -1,167 +1,232 @@
 package pgs.cargo;
 
-import pgs.Logger;
+import pgs.SimulationContext;
+import pgs.jfr.LorryLoadEvent;
+import pgs.log.EventType;
+import pgs.metrics.Counter;
+import pgs.metrics.Histogram;
+import pgs.random.DurationSampler;
 import pgs.task.UnloadCargoTask;
 
 import java.security.InvalidParameterException;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Lorry is a cargo vehicle, that can be loaded up with some amount of material. Loaded material may be unloaded
  * onto another cargo vehicle or onto the ground.
+ * <p>
+ * Multiple workers may load the lorry at once. A worker first reserves space for his material
+ * ({@link #reserveCargo(int)}), then loads it without blocking anyone else and finally reports the loaded amount
+ * ({@link #finishLoading(int)}).
  *
  * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
  * @since 7.3.2021
  */
 public class Lorry extends CargoVehicle<Integer> {
-    /**
-     * Executor for submitting parallel tasks.
-     */
-    private static final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
-    static {
-        executor.allowCoreThreadTimeOut(true);  // Lorry tasks will be executed in new cached threads, which will be created on the run, if needed
-        executor.setKeepAliveTime(1, TimeUnit.SECONDS);
-    }
     /**
      * Number of milliseconds it takes to load material into the Lorry.
      */
     private static final int RESOURCE_LOADING_TIME_MILLIS = 1000;
     /**
-     * Default capacity of lorries.
-     */
-    private static int defaultCapacity;
-    /**
-     * Default maximum transport time of lorries.
+     * Simulation the lorry drives in.
      */
-    private static int defaultMaxTransportTime;
+    private final SimulationContext context;
     /**
      * Number of currently loaded resources.
      */
-    private int currentLoad;
+    private final AtomicInteger currentLoad = new AtomicInteger();
     /**
-     * Maximum number of milliseconds it will take to transport the vehicle.
+     * Number of resources, that are loaded or that someone reserved the space for.
      */
-    private final int maxTransportTime;
+    private final AtomicInteger reservedLoad = new AtomicInteger();
     /**
-     * Flag indicating, that there is material already being loaded.
+     * Sampler of the times it takes to transport the vehicle, at most the maximum transport time.
      */
-    private boolean loadingInProgress = false;
+    private final DurationSampler transportTimes;
     /**
      * Time when the lorry has been emptied of created empty.
      */
-    private long timeWhenEmptied;
+    private volatile long timeWhenEmptied;
+    /**
+     * River crossing on the way to unload the cargo.
+     */
+    private final RiverCrossing crossingOnTheWay;
     /**
-     * Ferry on the way to unload the cargo.
+     * Fleet the lorry returns to after it's trip, or null if the lorry is used for a single trip only.
      */
-    private final Ferry ferryOnTheWay;
+    private final LorryFleet fleet;
+    /**
+     * Histogram of the milliseconds it took to fill the lorries up
+     */
+    private final Histogram fillTimes;
+    /**
+     * Counter of the attempts to reserve space, that had to be repeated because someone else reserved space at once
+     */
+    private final Counter reservationRetries;
 
     /**
      * Constructs new Lorry with given maximum capacity. Transport will take maximum of {@code maxTransportTime} milliseconds.
+     * @param context simulation the lorry drives in
+     * @param lorryId ID of the lorry
+     * @param capacity maximum capacity of this Lorry
+     * @param maxTransportTime maximum number of milliseconds it must take to transport somewhere
+     * @param crossing river crossing to travel through on the way to unload the cargo
+     */
+    public Lorry(final SimulationContext context, final int lorryId, final int capacity, final int maxTransportTime,
+                 final RiverCrossing crossing) {
+        this(context, lorryId, capacity, maxTransportTime, crossing, null);
+    }
+
+    /**
+     * Constructs new Lorry belonging to given fleet. After every trip, the lorry returns to the fleet.
+     * @param context simulation the lorry drives in
+     * @param lorryId ID of the lorry
      * @param capacity maximum capacity of this Lorry
      * @param maxTransportTime maximum number of milliseconds it must take to transport somewhere
-     * @param ferry ferry to travel to on the way to unload the cargo
+     * @param crossing river crossing to travel through on the way to unload the cargo
+     * @param fleet fleet the lorry belongs to, may be null
      */
-    public Lorry(final int lorryId, final int capacity, final int maxTransportTime, final Ferry ferry) {
+    Lorry(final SimulationContext context, final int lorryId, final int capacity, final int maxTransportTime,
+          final RiverCrossing crossing, final LorryFleet fleet) {
         super(lorryId, capacity);
 
         if (maxTransportTime <= 0) {
             throw new InvalidParameterException("Maximum transport time has to be positive!");
         }
 
-        this.ferryOnTheWay = ferry;
-        this.maxTransportTime = maxTransportTime;
-        this.timeWhenEmptied = System.currentTimeMillis();
+        this.context = context;
+        this.crossingOnTheWay = crossing;
+        this.transportTimes = context.getRandomStreams().transportTimes(lorryId, maxTransportTime);
+        this.fleet = fleet;
+        this.timeWhenEmptied = context.getTimeSource().millis();
+        this.fillTimes = context.getMetrics().histogram("lorry_fill_ms");
+        this.reservationRetries = context.getMetrics().counter("lorry_reservation_retries");
     }
 
     /**
-     * Sets default capacity of every lorry. This capacity may then be used as a constructor parameter.
-     * @param defaultCapacity default capacity
+     * Empties the lorry before it is used for another trip.
      */
-    public static void setDefaultCapacity(final int defaultCapacity) {
-        if (defaultCapacity <= 0) {
-            return;
-        }
-
-        Lorry.defaultCapacity = defaultCapacity;
+    void prepareForLoading() {
+        currentLoad.set(0);
+        reservedLoad.set(0);
+        taskInProgress = false;
+        timeWhenEmptied = context.getTimeSource().millis();
     }
 
     /**
-     * Returns the default capacity of all lorries.
-     * @return default lorry capacity
+     * Loads given amount of material into the lorry. If there is not enough free space for all of it, nothing
+     * is loaded and returns false. The lorry is not sent away, when it fills up.
+     * @param cargoAmount amount of material to load
+     * @return true, if the material was loaded, otherwise false
      */
-    public static int getDefaultCapacity() {
-        return defaultCapacity;
-    }
+    @Override
+    public boolean loadCargo(final Integer cargoAmount) {
+        if (taskInProgress) {
+            return false;   // Unloading cargo, cannot load at the same time
+        }
 
-    /**
-     * Sets default max transport time of every lorry. This value may then be used as a constructor parameter.
-     * @param maxLorryTransportTime default maximum transport time
-     */
-    public static void setDefaultMaxTransportTime(final int maxLorryTransportTime) {
-        if (maxLorryTransportTime <= 0) {
-            return;
+        while (true) {
+            int reserved = reservedLoad.get();
+            if (reserved + cargoAmount > getCapacity()) {
+                return false; // Cannot load so many cargo
+            }
+            if (reservedLoad.compareAndSet(reserved, reserved + cargoAmount)) {
+                break;
+            }
+            reservationRetries.increment();
         }
 
-        Lorry.defaultMaxTransportTime = maxLorryTransportTime;
+        loadReservedCargo(cargoAmount);
+        finishLoading(cargoAmount);
+        return true;
     }
 
     /**
-     * Returns the default maximum transport time of all lorries.
-     * @return default lorry max transport time
+     * Reserves space for up to given amount of material. Returns the amount that fits into the lorry, which has
+     * to be loaded by the caller and reported by {@link #finishLoading(int)}. Returns zero, if the whole lorry
+     * is already reserved.
+     * @param cargoAmount amount of material to load
+     * @return amount of material, that the space was reserved for
      */
-    public static int getDefaultMaxTransportTime() {
-        return defaultMaxTransportTime;
-    }
-
-    @Override
-    public synchronized boolean loadCargo(final Integer cargoAmount) {
-        if (taskInProgress) {
-            return false;   // Unloading cargo, cannot load at the same time
-        }
-
-        while (loadingInProgress) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                System.err.println("Waiting for material loading was interrupted!\n" + e.getMessage());
+    public int reserveCargo(final int cargoAmount) {
+        while (true) {
+            int reserved = reservedLoad.get();
+            int granted = Math.min(cargoAmount, getCapacity() - reserved);
+            if (granted <= 0) {
+                return 0;
             }
+            if (reservedLoad.compareAndSet(reserved, reserved + granted)) {
+                return granted;
+            }
+            reservationRetries.increment();
         }
+    }
 
-        if ((currentLoad + cargoAmount) > getCapacity()) {
-            return false; // Cannot load so many cargo
+    /**
+     * Simulates loading of given amount of reserved material. Does not block anyone else loading the lorry.
+     * @param cargoAmount amount of loaded material
+     */
+    public void loadReservedCargo(final int cargoAmount) {
+        LorryLoadEvent event = context.getConfig().isJfrEventsEnabled() ? new LorryLoadEvent() : null;
+        if (event != null) {
+            event.begin();
         }
 
-        loadingInProgress = true;
-
         try {
-            Thread.sleep((long) cargoAmount * RESOURCE_LOADING_TIME_MILLIS);
+            context.getTimeSource().sleep((long) cargoAmount * RESOURCE_LOADING_TIME_MILLIS);
         } catch (InterruptedException e) {
             System.err.println("Loading of material into the lorry was interrupted!\n" + e.getMessage());
         }
 
-        currentLoad += cargoAmount;
-        if (currentLoad == getCapacity()) {
-            long millisToFull = System.currentTimeMillis() - timeWhenEmptied;
-            Logger.getInstance().logEvent(this, "Lorry is full. Filled in " + millisToFull + " ms.");
+        if (event != null) {
+            event.lorryId = getId();
+            event.resources = cargoAmount;
+            event.commit();
         }
+    }
 
-        loadingInProgress = false;  // Resetting so others may load
-        notify();
+    /**
+     * Reports, that given amount of reserved material has been loaded. Returns true to exactly one caller -
+     * the one whose material filled up the lorry.
+     * @param cargoAmount amount of loaded material
+     * @return true, if the lorry has been filled up by this material
+     */
+    public boolean finishLoading(final int cargoAmount) {
+        if (currentLoad.addAndGet(cargoAmount) != getCapacity()) {
+            return false;
+        }
 
+        long millisToFull = context.getTimeSource().millis() - timeWhenEmptied;
+        fillTimes.record(millisToFull);
+        context.getLogger().logEvent(this, EventType.LORRY_FULL, (int) millisToFull);
         return true;
     }
 
+    /**
+     * Returns the amount of material, that the space may still be reserved for.
+     * @return unreserved capacity
+     */
+    public int getUnreservedCapacity() {
+        return getCapacity() - reservedLoad.get();
+    }
+
+    /**
+     * Checks if the space for all material is already reserved - nothing more may be loaded.
+     * @return true, if the whole lorry is reserved
+     */
+    public boolean isFullyReserved() {
+        return reservedLoad.get() == getCapacity();
+    }
+
     @Override
     public int getCurrentLoad() {
-        return currentLoad;
+        return currentLoad.get();
     }
 
     @Override
     public boolean isFilledUp() {
-        return currentLoad == getCapacity();
+        return currentLoad.get() == getCapacity();
     }
 
     @Override
@@ -171,8 +236,19 @@ public class Lorry extends CargoVehicle<Integer> {
         }
 
         taskInProgress = true;
-        timeWhenEmptied = System.currentTimeMillis();
-        return executor.submit(
-                new UnloadCargoTask(this, this.maxTransportTime, ferryOnTheWay));
+        timeWhenEmptied = context.getTimeSource().millis();
+        return context.getLorryExecutor().submit(
+                new UnloadCargoTask(context, this, transportTimes, crossingOnTheWay));
+    }
+
+    /**
+     * Finishes the trip of the lorry. If the lorry belongs to a fleet, it returns there to be used again.
+     */
+    @Override
+    public void setTaskDone() {
+        super.setTaskDone();
+        if (fleet != null) {
+            fleet.release(this);
+        }
     }
 }
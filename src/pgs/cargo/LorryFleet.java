@@ -0,0 +1,187 @@
+package pgs.cargo;
+
+import pgs.SimulationContext;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fleet of lorries, that are reused for multiple trips. A lorry returns into the fleet once it finishes it's trip
+ * and is emptied before it is used again. The fleet may be limited in size - when every lorry is on the way,
+ * whoever needs a lorry has to wait until some returns.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class LorryFleet {
+    /**
+     * Size of a fleet, that buys a new lorry whenever there is none available
+     */
+    public static final int UNLIMITED = 0;
+    /**
+     * Simulation the fleet serves in
+     */
+    private final SimulationContext context;
+    /**
+     * Maximum number of lorries in the fleet, or {@link #UNLIMITED}
+     */
+    private final int fleetSize;
+    /**
+     * Capacity of every lorry
+     */
+    private final int lorryCapacity;
+    /**
+     * Maximum transport time of every lorry
+     */
+    private final int maxTransportTime;
+    /**
+     * River crossing the lorries travel through
+     */
+    private final RiverCrossing crossing;
+    /**
+     * Lorries waiting to be used
+     */
+    private final Deque<Lorry> availableLorries = new ArrayDeque<>();
+    /**
+     * Number of lorries the fleet consists of
+     */
+    private int createdLorries = 0;
+    /**
+     * Number of times a lorry was taken from the fleet
+     */
+    private int trips = 0;
+    /**
+     * Lock guarding the fleet
+     */
+    private final Lock fleetLock = new ReentrantLock();
+    /**
+     * Condition signalled when a lorry returns into the fleet
+     */
+    private final Condition lorryReturned = fleetLock.newCondition();
+
+    /**
+     * Creates an empty fleet. Lorries are bought as they are needed, until there is {@code fleetSize} of them.
+     * New lorries are given the next free actor ID of the simulation.
+     * @param context simulation the fleet serves in
+     * @param fleetSize maximum number of lorries, or {@link #UNLIMITED}
+     * @param lorryCapacity capacity of every lorry
+     * @param maxTransportTime maximum transport time of every lorry
+     * @param crossing river crossing the lorries travel through
+     */
+    public LorryFleet(final SimulationContext context, final int fleetSize, final int lorryCapacity,
+                      final int maxTransportTime, final RiverCrossing crossing) {
+        if (fleetSize < 0) {
+            throw new InvalidParameterException("Fleet size cannot be negative!");
+        }
+
+        this.context = context;
+        this.fleetSize = fleetSize;
+        this.lorryCapacity = lorryCapacity;
+        this.maxTransportTime = maxTransportTime;
+        this.crossing = crossing;
+    }
+
+    /**
+     * Takes an empty lorry from the fleet. If there is none and the fleet is at it's maximum size, waits until
+     * some lorry returns.
+     * @return empty lorry
+     */
+    public Lorry acquire() {
+        fleetLock.lock();
+        try {
+            while (isEveryLorryAway()) {
+                try {
+                    lorryReturned.await();
+                } catch (InterruptedException e) {
+                    System.err.println("Waiting for a lorry to return was interrupted!\n" + e.getMessage());
+                }
+            }
+
+            return takeLorry();
+        } finally {
+            fleetLock.unlock();
+        }
+    }
+
+    /**
+     * Takes an empty lorry from the fleet, if there is one or the fleet may still grow. Never waits.
+     * @return empty lorry, or null if every lorry is on the way
+     */
+    public Lorry tryAcquire() {
+        fleetLock.lock();
+        try {
+            return isEveryLorryAway() ? null : takeLorry();
+        } finally {
+            fleetLock.unlock();
+        }
+    }
+
+    /**
+     * Checks if there is no lorry to take and the fleet is at it's maximum size. Has to be called with the fleet
+     * lock held.
+     * @return true, if whoever needs a lorry has to wait until some returns
+     */
+    private boolean isEveryLorryAway() {
+        return availableLorries.isEmpty() && fleetSize != UNLIMITED && createdLorries >= fleetSize;
+    }
+
+    /**
+     * Takes an available lorry, or buys a new one, and empties it. Has to be called with the fleet lock held.
+     * @return empty lorry
+     */
+    private Lorry takeLorry() {
+        Lorry lorry = availableLorries.poll();
+        if (lorry == null) {
+            lorry = new Lorry(context, context.nextActorId(), lorryCapacity, maxTransportTime, crossing, this);
+            createdLorries++;
+        }
+
+        trips++;
+        lorry.prepareForLoading();
+        return lorry;
+    }
+
+    /**
+     * Returns given lorry into the fleet, after it finished it's trip.
+     * @param lorry returning lorry
+     */
+    void release(final Lorry lorry) {
+        fleetLock.lock();
+        try {
+            availableLorries.push(lorry);  // Most recently used lorry goes first
+            lorryReturned.signal();
+        } finally {
+            fleetLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of lorries the fleet consists of.
+     * @return number of lorries
+     */
+    public int getCreatedLorries() {
+        fleetLock.lock();
+        try {
+            return createdLorries;
+        } finally {
+            fleetLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of times a lorry was taken from the fleet.
+     * @return number of trips
+     */
+    public int getTrips() {
+        fleetLock.lock();
+        try {
+            return trips;
+        } finally {
+            fleetLock.unlock();
+        }
+    }
+}
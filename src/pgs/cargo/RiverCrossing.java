@@ -0,0 +1,193 @@
+package pgs.cargo;
+
+import java.security.InvalidParameterException;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * River crossing served by one or more ferries. An arriving vehicle boards the first ferry waiting in the dock.
+ * If every ferry is away, the vehicle waits until any of them returns.
+ * <p>
+ * The crossing also counts arriving vehicles. Once it knows how many vehicles will arrive in total
+ * ({@link #shipRemaining(int)}) and the last of them arrives, every ferry with vehicles on board ships out,
+ * even if it is not full.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class RiverCrossing {
+    /**
+     * Ferries serving the crossing
+     */
+    private final List<Ferry> ferries;
+    /**
+     * Number of vehicles, that arrived to the crossing so far
+     */
+    private int arrivedVehicles = 0;
+    /**
+     * Total number of vehicles, that will arrive to the crossing, or -1 if not known yet
+     */
+    private int expectedVehicles = -1;
+    /**
+     * Number of times any ferry returned to the dock. Lets vehicles notice a return, that happened before they
+     * started waiting.
+     */
+    private long ferryReturns = 0;
+    /**
+     * Flag indicating whether the crossing stopped operating
+     */
+    private boolean cancelled = false;
+    /**
+     * Lock guarding the state of the crossing
+     */
+    private final Lock crossingLock = new ReentrantLock();
+    /**
+     * Condition signalled when any ferry returns to the dock
+     */
+    private final Condition ferryReturned = crossingLock.newCondition();
+
+    /**
+     * Creates a crossing served by given ferries.
+     * @param ferries ferries serving the crossing
+     */
+    public RiverCrossing(final List<Ferry> ferries) {
+        if (ferries == null || ferries.isEmpty()) {
+            throw new InvalidParameterException("River crossing has to have at least one ferry!");
+        }
+
+        this.ferries = List.copyOf(ferries);
+        for (Ferry ferry : this.ferries) {
+            ferry.setReturnListener(this::onFerryReturned);
+        }
+    }
+
+    /**
+     * Takes given vehicle across the river. Boards the vehicle onto the first ferry in the dock and waits
+     * until the ferry crosses the river.
+     * @param vehicle vehicle crossing the river
+     * @return true if the vehicle crossed the river, false if the crossing was cancelled
+     */
+    public boolean cross(final CargoVehicle<?> vehicle) {
+        Ferry.Cohort cohort = null;
+        while (cohort == null) {
+            long returnsBefore;
+            crossingLock.lock();
+            try {
+                if (cancelled) {
+                    return false;
+                }
+                returnsBefore = ferryReturns;
+            } finally {
+                crossingLock.unlock();
+            }
+
+            for (Ferry ferry : ferries) {
+                cohort = ferry.board(vehicle);
+                if (cohort != null) {
+                    break;
+                }
+            }
+
+            if (cohort == null) {
+                awaitFerryReturn(returnsBefore);
+            }
+        }
+
+        vehicleArrived();
+        return cohort.awaitCrossing(vehicle);
+    }
+
+    /**
+     * Lets the crossing know the total number of vehicles, that will arrive. Once all of them arrive, every ferry
+     * with vehicles on board ships out, so the last vehicles do not wait forever. If all of them already arrived,
+     * the ferries ship out right away.
+     * @param totalVehicles total number of vehicles sent to the crossing
+     */
+    public void shipRemaining(final int totalVehicles) {
+        crossingLock.lock();
+        try {
+            expectedVehicles = totalVehicles;
+            if (arrivedVehicles == expectedVehicles) {
+                ferries.forEach(Ferry::shipOut);
+            }
+        } finally {
+            crossingLock.unlock();
+        }
+    }
+
+    /**
+     * Stops every ferry. Vehicles waiting at the crossing leave without crossing the river.
+     */
+    public void cancel() {
+        crossingLock.lock();
+        try {
+            cancelled = true;
+            ferries.forEach(Ferry::cancel);
+            ferryReturned.signalAll();
+        } finally {
+            crossingLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the ferries serving the crossing.
+     * @return ferries
+     */
+    public List<Ferry> getFerries() {
+        return ferries;
+    }
+
+    /**
+     * Returns the number of resources shipped by all ferries.
+     * @return number of shipped resources
+     */
+    public int getShippedResources() {
+        return ferries.stream().mapToInt(Ferry::getShippedResources).sum();
+    }
+
+    /**
+     * Counts an arrived vehicle. If it is the last expected vehicle, ships out every ferry with vehicles on board.
+     */
+    private void vehicleArrived() {
+        crossingLock.lock();
+        try {
+            arrivedVehicles++;
+            if (arrivedVehicles == expectedVehicles) {
+                ferries.forEach(Ferry::shipOut);
+            }
+        } finally {
+            crossingLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until any ferry returns to the dock, unless it already happened since given number of returns.
+     * @param returnsBefore number of returns seen before looking for a ferry
+     */
+    private void awaitFerryReturn(final long returnsBefore) {
+        crossingLock.lock();
+        try {
+            while (ferryReturns == returnsBefore && !cancelled) {
+                try {
+                    ferryReturned.await();
+                } catch (InterruptedException e) {
+                    System.err.println("Waiting on a ferry to return was interrupted!\n" + e.getMessage());
+                }
+            }
+        } finally {
+            crossingLock.unlock();
+        }
+    }
+
+    private void onFerryReturned() {
+        crossingLock.lock();
+        try {
+            ferryReturns++;
+            ferryReturned.signalAll();
+        } finally {
+            crossingLock.unlock();
+        }
+    }
+}
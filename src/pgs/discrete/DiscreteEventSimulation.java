@@ -0,0 +1,451 @@
+package pgs.discrete;
+
+import pgs.HasId;
+import pgs.SimulationConfig;
+import pgs.SimulationContext;
+import pgs.cargo.Ferry;
+import pgs.cargo.Lorry;
+import pgs.log.EventType;
+import pgs.mine.Block;
+import pgs.mine.Mine;
+import pgs.random.DurationSampler;
+import pgs.time.TimeSource;
+import pgs.worker.Worker;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Discrete-event engine of the mining simulation. Workers, lorries and the ferry follow the same rules as in
+ * the real-time simulation, but every time cost only moves a virtual clock forward. Events are processed
+ * in the order of their virtual time by a single thread, so the whole simulation takes just the CPU time
+ * needed to process them.
+ * <p>
+ * Modelled rules:
+ * <ul>
+ *     <li>idle workers are given blocks in the order they became idle</li>
+ *     <li>processing of each resource takes random time up to the maximum worker processing time</li>
+ *     <li>after processing a block, the worker reserves as much of it as fits into the steady lorry and loads it,
+ *     which takes {@value #RESOURCE_LOADING_TIME_MILLIS} ms per resource, the rest goes into the next lorry</li>
+ *     <li>many workers may be loading the same lorry at once</li>
+ *     <li>fully reserved lorry is immediately replaced by an empty one, once it's reserved resources are loaded,
+ *     it drives to the ferry</li>
+ *     <li>ferry ships out once it is full, or not full once the max waiting time since the first lorry boarded
+ *     elapses, and every lorry then drives to it's destination</li>
+ *     <li>lorries left on the ferry once nothing else happens are shipped out not full</li>
+ *     <li>once every block is loaded, partially filled steady lorry is sent away</li>
+ * </ul>
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class DiscreteEventSimulation {
+    /**
+     * Number of milliseconds it takes to load one resource into a lorry
+     */
+    private static final int RESOURCE_LOADING_TIME_MILLIS = 1000;
+    /**
+     * Events waiting to happen, ordered by their virtual time
+     */
+    private final PriorityQueue<ScheduledEvent> events = new PriorityQueue<>();
+    /**
+     * Simulation the events happen in
+     */
+    private final SimulationContext context;
+    /**
+     * Configuration of the simulation
+     */
+    private final SimulationConfig config;
+    /**
+     * Mine with the blocks to process
+     */
+    private final Mine mine;
+    /**
+     * Ferry transporting lorries across the river
+     */
+    private final Ferry ferry;
+    /**
+     * Every worker of the simulation
+     */
+    private final List<SimulatedWorker> workers = new ArrayList<>();
+    /**
+     * Workers waiting to be given a block, in the order they became idle
+     */
+    private final Deque<SimulatedWorker> idleWorkers = new ArrayDeque<>();
+    /**
+     * Lorries loaded on the ferry
+     */
+    private final List<SimulatedLorry> boardedLorries = new ArrayList<>();
+    /**
+     * Value of {@link TimeSource#nanoTime()} corresponding to the virtual time zero
+     */
+    private long startNanos;
+    /**
+     * Current virtual time in milliseconds
+     */
+    private long now = 0;
+    /**
+     * Number of scheduled events, used to keep the order of events happening at the same time
+     */
+    private long scheduledEvents = 0;
+    /**
+     * Lorry waiting at the mine entrance to be filled up
+     */
+    private SimulatedLorry steadyLorry;
+    /**
+     * Virtual time when the ferry was emptied
+     */
+    private long ferryEmptiedAt = 0;
+    /**
+     * Number of resources shipped by the ferry
+     */
+    private int shippedResources = 0;
+    /**
+     * Number of times the ferry shipped out
+     */
+    private int ferryShipments = 0;
+    /**
+     * Number of times the ferry shipped out not full
+     */
+    private int partialFerryShipments = 0;
+    /**
+     * Sum of the virtual times the ferry took to fill up, in milliseconds
+     */
+    private long totalFerryFillTime = 0;
+
+    /**
+     * Prepares the simulation of given, already analyzed, mine. Workers, the ferry and the first lorry are given
+     * IDs in the same order as in the real-time simulation.
+     * @param context simulation the events happen in
+     * @param mine analyzed mine
+     */
+    public DiscreteEventSimulation(final SimulationContext context, final Mine mine) {
+        this.context = context;
+        this.config = context.getConfig();
+        this.mine = mine;
+
+        for (int i = 0; i < config.getWorkerCount(); i++) {
+            Worker identity = new Worker(context, context.nextActorId(), config.getMaxWorkerResourceProcessingTime());
+            SimulatedWorker worker = new SimulatedWorker(identity, context.getRandomStreams()
+                    .processingTimes(identity.getId(), config.getMaxWorkerResourceProcessingTime()));
+            workers.add(worker);
+            idleWorkers.add(worker);
+        }
+
+        this.ferry = new Ferry(context, context.nextActorId(), config.getFerryCapacity());
+        this.steadyLorry = createLorry();
+    }
+
+    /**
+     * Runs the simulation until there are no more events and prints the final statistics.
+     */
+    public void run() {
+        long realStart = System.currentTimeMillis();
+        startNanos = context.getTimeSource().nanoTime();
+
+        delegateWorkers();
+        finishLoadingIfDone();
+        do {
+            while (!events.isEmpty()) {
+                ScheduledEvent event = events.poll();
+                now = event.time;
+                event.action.run();
+            }
+
+            if (!boardedLorries.isEmpty()) {
+                shipOut();  // No more lorries will come, the last ones are shipped out not full
+            }
+        } while (!events.isEmpty());
+
+        informAboutState();
+        System.out.println("Simulated " + now + " ms in " + (System.currentTimeMillis() - realStart) + " ms.");
+    }
+
+    /**
+     * Returns the number of resources shipped by the ferry.
+     * @return number of shipped resources
+     */
+    public int getShippedResources() {
+        return shippedResources;
+    }
+
+    /**
+     * Returns the virtual time of the last event - the number of milliseconds the mining took.
+     * @return simulated duration of the mining in milliseconds
+     */
+    public long getSimulatedMillis() {
+        return now;
+    }
+
+    /**
+     * Schedules given action to happen after given number of milliseconds.
+     * @param delay delay in milliseconds
+     * @param action action to perform
+     */
+    private void schedule(final long delay, final Runnable action) {
+        events.add(new ScheduledEvent(now + delay, scheduledEvents++, action));
+    }
+
+    /**
+     * Logs an event at the current virtual time.
+     * @param source object that logs the event
+     * @param type type of the event
+     * @param firstPayload first payload
+     * @param secondPayload second payload
+     */
+    private void log(final HasId source, final EventType type, final int firstPayload, final int secondPayload) {
+        context.getLogger().logEventAt(startNanos + now * 1_000_000L, source, type, firstPayload, secondPayload);
+    }
+
+    /**
+     * Gives blocks to idle workers, while there are any blocks and idle workers.
+     */
+    private void delegateWorkers() {
+        while (!idleWorkers.isEmpty() && mine.hasUnprocessedBlocks()) {
+            SimulatedWorker worker = idleWorkers.poll();
+            Block block = mine.pollUnprocessedBlock();
+
+            worker.processedResources += block.getLength();
+            worker.unprocessedResources = block.getLength();
+            worker.unloadedResources = block.getLength();
+            worker.blockProcessingTime = 0;
+            processNextResource(worker);
+        }
+    }
+
+    /**
+     * Schedules processing of the next resource of the worker's block.
+     * @param worker worker processing the block
+     */
+    private void processNextResource(final SimulatedWorker worker) {
+        int processingTime = worker.processingTimes.next();
+        schedule(processingTime, () -> {
+            log(worker.identity, EventType.RESOURCE_PROCESSED, processingTime, 0);
+            worker.blockProcessingTime += processingTime;
+            worker.unprocessedResources--;
+
+            if (worker.unprocessedResources > 0) {
+                processNextResource(worker);
+            } else {
+                log(worker.identity, EventType.BLOCK_PROCESSED, worker.blockProcessingTime, 0);
+                loadNextBatch(worker);
+            }
+        });
+    }
+
+    /**
+     * Reserves as much of the worker's unloaded resources as fits into the steady lorry and schedules their loading.
+     * Fully reserved lorry is replaced right away, so the other workers do not wait for it to be loaded.
+     * @param worker worker loading his block
+     */
+    private void loadNextBatch(final SimulatedWorker worker) {
+        SimulatedLorry lorry = steadyLorry;
+        int reserved = Math.min(worker.unloadedResources, lorry.identity.getCapacity() - lorry.reservedLoad);
+        lorry.reservedLoad += reserved;
+        if (lorry.reservedLoad == lorry.identity.getCapacity()) {
+            steadyLorry = createLorry();
+        }
+
+        schedule((long) reserved * RESOURCE_LOADING_TIME_MILLIS, () -> {
+            lorry.load += reserved;
+            if (lorry.load == lorry.identity.getCapacity()) {
+                log(lorry.identity, EventType.LORRY_FULL, (int) (now - lorry.emptiedAt), 0);
+                sendToFerry(lorry);
+            }
+
+            worker.unloadedResources -= reserved;
+            if (worker.unloadedResources > 0) {
+                loadNextBatch(worker);
+            } else {
+                idleWorkers.add(worker);
+                delegateWorkers();
+                finishLoadingIfDone();
+            }
+        });
+    }
+
+    /**
+     * Sends away the partially filled steady lorry, once every block is processed and loaded.
+     */
+    private void finishLoadingIfDone() {
+        if (mine.hasUnprocessedBlocks() || idleWorkers.size() < workers.size() || steadyLorry == null) {
+            return;
+        }
+
+        if (steadyLorry.load != 0) {
+            sendToFerry(steadyLorry);
+        }
+        steadyLorry = null;
+    }
+
+    /**
+     * Schedules the lorry's arrival to the ferry and it's boarding.
+     * @param lorry lorry to send
+     */
+    private void sendToFerry(final SimulatedLorry lorry) {
+        int transportTime = lorry.transportTimes.next();
+        schedule(transportTime, () -> {
+            log(lorry.identity, EventType.VEHICLE_AT_FERRY, transportTime, 0);
+            boardedLorries.add(lorry);
+            if (boardedLorries.size() == ferry.getCapacity()) {
+                shipOut();
+            } else if (boardedLorries.size() == 1 && config.getFerryMaxWaitMillis() > Ferry.NO_MAX_WAIT) {
+                int shipment = ferryShipments;
+                schedule(config.getFerryMaxWaitMillis(), () -> {
+                    if (ferryShipments == shipment) {   // Still waiting with the same lorries
+                        shipOut();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Ships out the ferry and schedules the arrival of every carried lorry to it's destination.
+     */
+    private void shipOut() {
+        if (boardedLorries.size() < ferry.getCapacity()) {
+            log(ferry, EventType.FERRY_SHIPPED_PARTIAL, boardedLorries.size(), (int) (now - ferryEmptiedAt));
+            partialFerryShipments++;
+        } else {
+            log(ferry, EventType.FERRY_SHIPPED, (int) (now - ferryEmptiedAt), 0);
+        }
+        System.out.println("Ferry shipped out!");
+        ferryShipments++;
+        totalFerryFillTime += now - ferryEmptiedAt;
+        ferryEmptiedAt = now;
+
+        for (SimulatedLorry lorry : boardedLorries) {
+            shippedResources += lorry.load;
+            int transportTime = lorry.transportTimes.next();
+            schedule(transportTime, () -> log(lorry.identity, EventType.VEHICLE_AT_DESTINATION, transportTime, 0));
+        }
+        boardedLorries.clear();
+    }
+
+    /**
+     * Creates new empty lorry at the current virtual time.
+     * @return new lorry
+     */
+    private SimulatedLorry createLorry() {
+        Lorry identity = new Lorry(context, context.nextActorId(), config.getLorryCapacity(),
+                config.getMaxLorryTransportTime(), null);   // Lorry is only an identity here, it never crosses by itself
+        return new SimulatedLorry(identity,
+                context.getRandomStreams().transportTimes(identity.getId(), config.getMaxLorryTransportTime()), now);
+    }
+
+    /**
+     * Prints the final statistics in the same form as the real-time simulation.
+     */
+    private void informAboutState() {
+        for (SimulatedWorker worker : idleWorkers) {
+            System.out.println("Worker " + worker.identity.getId() + " processed " + worker.processedResources + " resources.");
+        }
+
+        long averageFillTime = ferryShipments == 0 ? 0 : totalFerryFillTime / ferryShipments;
+        System.out.println("Ferry " + ferry.getId() + " shipped " + shippedResources + " resources in "
+                + ferryShipments + " shipments (" + partialFerryShipments + " not full), average fill time "
+                + averageFillTime + " ms.");
+        System.out.println("Total number of shipped resources: " + shippedResources);
+    }
+
+    /**
+     * Event scheduled to happen at a virtual time.
+     */
+    private static class ScheduledEvent implements Comparable<ScheduledEvent> {
+        /**
+         * Virtual time of the event in milliseconds
+         */
+        private final long time;
+        /**
+         * Order in which the event was scheduled
+         */
+        private final long sequence;
+        /**
+         * Action to perform when the event happens
+         */
+        private final Runnable action;
+
+        private ScheduledEvent(final long time, final long sequence, final Runnable action) {
+            this.time = time;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(final ScheduledEvent other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * State of a worker during the simulation.
+     */
+    private static class SimulatedWorker {
+        /**
+         * Worker, that the events are logged for
+         */
+        private final Worker identity;
+        /**
+         * Sampler of the worker's resource processing times
+         */
+        private final DurationSampler processingTimes;
+        /**
+         * Number of resources processed by the worker
+         */
+        private int processedResources = 0;
+        /**
+         * Number of resources of the current block, that were not processed yet
+         */
+        private int unprocessedResources;
+        /**
+         * Number of resources of the current block, that were not loaded yet
+         */
+        private int unloadedResources;
+        /**
+         * Time spent processing the current block
+         */
+        private int blockProcessingTime;
+
+        private SimulatedWorker(final Worker identity, final DurationSampler processingTimes) {
+            this.identity = identity;
+            this.processingTimes = processingTimes;
+        }
+    }
+
+    /**
+     * State of a lorry during the simulation.
+     */
+    private static class SimulatedLorry {
+        /**
+         * Lorry, that the events are logged for
+         */
+        private final Lorry identity;
+        /**
+         * Sampler of the lorry's transport times
+         */
+        private final DurationSampler transportTimes;
+        /**
+         * Virtual time when the lorry was emptied
+         */
+        private final long emptiedAt;
+        /**
+         * Number of loaded resources
+         */
+        private int load = 0;
+        /**
+         * Number of resources, that are loaded or that someone reserved the space for
+         */
+        private int reservedLoad = 0;
+
+        private SimulatedLorry(final Lorry identity, final DurationSampler transportTimes, final long emptiedAt) {
+            this.identity = identity;
+            this.transportTimes = transportTimes;
+            this.emptiedAt = emptiedAt;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package pgs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Processing of a block of resources by a worker. When a block is split between workers, every worker records
+ * an event for the part of the block it processed.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+@Name("pgs.BlockProcessing")
+@Label("Block Processing")
+@Category("PGS Mine")
+@StackTrace(false)
+public class BlockProcessingEvent extends Event {
+    @Label("Worker ID")
+    public int workerId;
+
+    @Label("Resources")
+    @Description("Number of resources processed by the worker")
+    public int resources;
+
+    @Label("Simulated Time (ms)")
+    @Description("Simulated time the processing of the resources took")
+    public int processingMillis;
+}
@@ -0,0 +1,30 @@
+package pgs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Attempt of a vehicle to board a ferry. The duration includes waiting for the lock of the dock.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+@Name("pgs.FerryBoarding")
+@Label("Ferry Boarding")
+@Category("PGS Mine")
+@StackTrace(false)
+public class FerryBoardingEvent extends Event {
+    @Label("Ferry ID")
+    public int ferryId;
+
+    @Label("Vehicle ID")
+    public int vehicleId;
+
+    @Label("Boarded")
+    @Description("The ferry was in the dock and took the vehicle")
+    public boolean boarded;
+}
@@ -0,0 +1,34 @@
+package pgs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Departure of a ferry from the dock.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+@Name("pgs.FerryDeparture")
+@Label("Ferry Departure")
+@Category("PGS Mine")
+@StackTrace(false)
+public class FerryDepartureEvent extends Event {
+    @Label("Ferry ID")
+    public int ferryId;
+
+    @Label("Vehicles")
+    public int vehicles;
+
+    @Label("Partial")
+    @Description("The ferry shipped out not full")
+    public boolean partial;
+
+    @Label("Fill Time (ms)")
+    @Description("Simulated time the ferry waited in the dock to be filled up")
+    public long fillMillis;
+}
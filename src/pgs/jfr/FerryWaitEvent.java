@@ -0,0 +1,30 @@
+package pgs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Wait of a vehicle on board of a ferry, until the ferry crosses the river with it.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+@Name("pgs.FerryWait")
+@Label("Ferry Wait")
+@Category("PGS Mine")
+@StackTrace(false)
+public class FerryWaitEvent extends Event {
+    @Label("Ferry ID")
+    public int ferryId;
+
+    @Label("Vehicle ID")
+    public int vehicleId;
+
+    @Label("Crossed")
+    @Description("The vehicle crossed the river, it did not leave a cancelled ferry")
+    public boolean crossed;
+}
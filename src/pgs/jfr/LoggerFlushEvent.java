@@ -0,0 +1,28 @@
+package pgs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flush of a batch of logged events into the log file.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+@Name("pgs.LoggerFlush")
+@Label("Logger Flush")
+@Category("PGS Mine")
+@StackTrace(false)
+public class LoggerFlushEvent extends Event {
+    @Label("Events")
+    @Description("Number of logged events written out")
+    public int events;
+
+    @Label("Backlog")
+    @Description("Number of logged events still waiting in the buffer after the flush")
+    public int backlog;
+}
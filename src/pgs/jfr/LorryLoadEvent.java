@@ -0,0 +1,25 @@
+package pgs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Loading of the material of one worker into a lorry.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+@Name("pgs.LorryLoad")
+@Label("Lorry Load")
+@Category("PGS Mine")
+@StackTrace(false)
+public class LorryLoadEvent extends Event {
+    @Label("Lorry ID")
+    public int lorryId;
+
+    @Label("Resources")
+    public int resources;
+}
@@ -0,0 +1,38 @@
+package pgs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Trip of a full vehicle from the mine to the destination, including the crossing of the river.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+@Name("pgs.LorryTrip")
+@Label("Lorry Trip")
+@Category("PGS Mine")
+@StackTrace(false)
+public class LorryTripEvent extends Event {
+    @Label("Vehicle ID")
+    public int vehicleId;
+
+    @Label("Resources")
+    public int resources;
+
+    @Label("To Ferry (ms)")
+    @Description("Simulated time of the transport to the ferry, or to the destination if there is no river to cross")
+    public int toFerryMillis;
+
+    @Label("To Destination (ms)")
+    @Description("Simulated time of the transport from the ferry to the destination")
+    public int toDestinationMillis;
+
+    @Label("Delivered")
+    @Description("The cargo reached the destination")
+    public boolean delivered;
+}
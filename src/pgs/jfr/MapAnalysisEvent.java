@@ -0,0 +1,38 @@
+package pgs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Analysis of the mine's map by the foreman, or loading of an earlier analysis of it. The duration of the event
+ * is the time the foreman spent on it.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+@Name("pgs.MapAnalysis")
+@Label("Map Analysis")
+@Category("PGS Mine")
+@StackTrace(false)
+public class MapAnalysisEvent extends Event {
+    @Label("Foreman ID")
+    public int foremanId;
+
+    @Label("Threads")
+    @Description("Maximum number of threads scanning the map")
+    public int parallelism;
+
+    @Label("Cached")
+    @Description("The blocks were loaded from an earlier analysis of the map")
+    public boolean cached;
+
+    @Label("Blocks")
+    public int blocks;
+
+    @Label("Resources")
+    public long resources;
+}
@@ -0,0 +1,137 @@
+package pgs.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sink writing events as fixed-width binary records into a reused direct buffer. The file starts with a header:
+ * <pre>
+ * int magic, short version, long start time (ms since the epoch), short zone length, zone ID bytes
+ * </pre>
+ * followed by records of {@value #RECORD_SIZE} bytes:
+ * <pre>
+ * byte event type (ordinal + 1), byte reserved, short object name index, int object ID,
+ * long nanoseconds since the start, int first payload, int second payload
+ * </pre>
+ * Name of every object class is written once, before the first record referencing it, as a name definition:
+ * <pre>
+ * byte {@value #NAME_DEFINITION}, byte reserved, short name index, short name length, name bytes
+ * </pre>
+ * Use {@link LogDecoder} to turn the file into the text format.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class BinaryEventSink implements EventSink {
+    /**
+     * First bytes of every binary log ("PGSL")
+     */
+    static final int MAGIC = 0x5047534C;
+    /**
+     * Version of the binary format
+     */
+    static final short VERSION = 1;
+    /**
+     * Size of one event record in bytes
+     */
+    static final int RECORD_SIZE = 24;
+    /**
+     * Type byte marking a name definition instead of an event record
+     */
+    static final byte NAME_DEFINITION = 0;
+    /**
+     * Maximum length of a stored object name in bytes
+     */
+    private static final int MAX_NAME_LENGTH = 1024;
+    /**
+     * Minimal size of the write buffer
+     */
+    private static final int MIN_BUFFER_SIZE = 1 << 16;
+    /**
+     * Channel of the log file
+     */
+    private final FileChannel channel;
+    /**
+     * Value of {@link pgs.time.TimeSource#nanoTime()} when the logger started
+     */
+    private final long startNanos;
+    /**
+     * Buffer of records waiting to be written
+     */
+    private final ByteBuffer buffer;
+    /**
+     * Indexes of already defined object names
+     */
+    private final Map<Class<?>, Short> nameIndexes = new HashMap<>();
+
+    /**
+     * Creates new binary sink and writes the header of the file.
+     * @param channel channel of the log file
+     * @param startMillis time in milliseconds since the epoch, that corresponds to {@code startNanos}
+     * @param startNanos value of {@link pgs.time.TimeSource#nanoTime()} when the logger started
+     * @param batchSize number of records, that the sink should be able to buffer
+     * @throws IOException when writing the header fails
+     */
+    public BinaryEventSink(final FileChannel channel, final long startMillis, final long startNanos, final int batchSize) throws IOException {
+        this.channel = channel;
+        this.startNanos = startNanos;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(batchSize * RECORD_SIZE, MIN_BUFFER_SIZE));
+
+        byte[] zone = ZoneId.systemDefault().getId().getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(MAGIC).putShort(VERSION).putLong(startMillis).putShort((short) zone.length).put(zone);
+        flush();
+    }
+
+    @Override
+    public void write(final LogEntry entry) throws IOException {
+        Class<?> sourceClass = entry.getSource().getClass();
+        Short nameIndex = nameIndexes.get(sourceClass);
+        if (nameIndex == null) {
+            nameIndex = defineName(sourceClass);
+        }
+
+        if (buffer.remaining() < RECORD_SIZE) {
+            flush();
+        }
+        buffer.put((byte) (entry.getType().ordinal() + 1))
+                .put((byte) 0)
+                .putShort(nameIndex)
+                .putInt(entry.getSource().getId())
+                .putLong(entry.getNanoTime() - startNanos)
+                .putInt(entry.getFirstPayload())
+                .putInt(entry.getSecondPayload());
+    }
+
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the definition of the name of given class and assigns it a new index.
+     * @param sourceClass class of the logging object
+     * @return index of the name
+     * @throws IOException when the buffer had to be written out and writing failed
+     */
+    private Short defineName(final Class<?> sourceClass) throws IOException {
+        byte[] name = sourceClass.getSimpleName().getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(name.length, MAX_NAME_LENGTH);
+        Short nameIndex = (short) nameIndexes.size();
+
+        if (buffer.remaining() < 6 + length) {
+            flush();
+        }
+        buffer.put(NAME_DEFINITION).put((byte) 0).putShort(nameIndex).putShort((short) length).put(name, 0, length);
+        nameIndexes.put(sourceClass, nameIndex);
+        return nameIndex;
+    }
+}
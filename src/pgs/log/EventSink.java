@@ -0,0 +1,26 @@
+package pgs.log;
+
+import java.io.IOException;
+
+/**
+ * Destination of the logged events. Events are buffered by the sink and written out on {@link #flush()}.
+ * Sinks are used by a single writer thread only.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public interface EventSink {
+
+    /**
+     * Adds given event to the current batch. Entry may be reused after the call, so the sink must not keep it.
+     * @param entry logged event
+     * @throws IOException when the batch had to be written out and writing failed
+     */
+    void write(LogEntry entry) throws IOException;
+
+    /**
+     * Writes the current batch out.
+     * @throws IOException when writing failed
+     */
+    void flush() throws IOException;
+}
@@ -0,0 +1,119 @@
+package pgs.log;
+
+/**
+ * Type of an event logged during the simulation. Each type knows how to describe itself in the text log,
+ * so the description does not have to be built by the thread logging the event.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public enum EventType {
+    MINE_ANALYZED("Mine analysis completed. Found ", " resources and ", " blocks."),
+    RESOURCE_PROCESSED("Resource processing finished (took ", " ms)"),
+    BLOCK_PROCESSED("Block processing finished (took ", " ms)"),
+    LORRY_FULL("Lorry is full. Filled in ", " ms."),
+    VEHICLE_UNLOADED("Vehicle arrived to the unload destination and unloaded cargo. It took ", " ms."),
+    VEHICLE_AT_FERRY("Vehicle arrived to the Ferry to cross the river. It took ", " ms."),
+    VEHICLE_AT_DESTINATION("Vehicle arrived to it's destination. It took ", " ms."),
+    FERRY_SHIPPED("Ferry shipped out! Filled in ", " ms."),
+    FERRY_SHIPPED_PARTIAL("Ferry shipped out not full, with ", " vehicles on board! Waited ", " ms."),
+    WORKER_LIMIT_CHANGED("Limit of active workers changed to ", ", they were blocked ", "% of the time.");
+
+    /**
+     * All types, indexed by their ordinal
+     */
+    private static final EventType[] VALUES = values();
+    /**
+     * Parts of the description, that surround the payloads of the event
+     */
+    private final String[] descriptionParts;
+
+    EventType(final String... descriptionParts) {
+        this.descriptionParts = descriptionParts;
+    }
+
+    /**
+     * Returns the event type with given ordinal.
+     * @param ordinal ordinal of the type
+     * @return event type
+     * @throws IllegalArgumentException if there is no type with given ordinal
+     */
+    public static EventType fromOrdinal(final int ordinal) {
+        if (ordinal < 0 || ordinal >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown event type: " + ordinal);
+        }
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Parses the description of an event, as appended by {@link #appendDescription(StringBuilder, int, int)},
+     * from given offset to the end of the text.
+     * @param text text containing the description
+     * @param offset index of the first character of the description
+     * @param payloads array of at least two elements, filled with the payloads of the event
+     * @return type of the event, or null if the text does not describe any event
+     */
+    public static EventType parseDescription(final String text, final int offset, final int[] payloads) {
+        for (EventType type : VALUES) {
+            if (type.matchesDescription(text, offset, payloads)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if the text from given offset to it's end is the description of this event and reads the payloads.
+     */
+    private boolean matchesDescription(final String text, final int offset, final int[] payloads) {
+        int position = offset;
+        for (int part = 0; part < descriptionParts.length; part++) {
+            if (!text.startsWith(descriptionParts[part], position)) {
+                return false;
+            }
+            position += descriptionParts[part].length();
+            if (part == descriptionParts.length - 1) {
+                break;
+            }
+
+            int payloadStart = position;
+            if (position < text.length() && text.charAt(position) == '-') {
+                position++;
+            }
+            int digitsStart = position;
+            while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                position++;
+            }
+            if (position == digitsStart) {
+                return false;
+            }
+            payloads[part] = Integer.parseInt(text, payloadStart, position, 10);
+        }
+
+        return position == text.length();
+    }
+
+    /**
+     * Returns the number of payloads, that are part of the description of this event.
+     * @return number of payloads
+     */
+    public int getPayloadCount() {
+        return descriptionParts.length - 1;
+    }
+
+    /**
+     * Appends the description of this event with given payloads to the builder.
+     * @param builder builder to append to
+     * @param firstPayload first payload of the event
+     * @param secondPayload second payload of the event - ignored, if the event has only one
+     */
+    public void appendDescription(final StringBuilder builder, final int firstPayload, final int secondPayload) {
+        builder.append(descriptionParts[0]);
+        if (getPayloadCount() > 0) {
+            builder.append(firstPayload).append(descriptionParts[1]);
+        }
+        if (getPayloadCount() > 1) {
+            builder.append(secondPayload).append(descriptionParts[2]);
+        }
+    }
+}
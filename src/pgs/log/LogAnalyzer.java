@@ -0,0 +1,558 @@
+package pgs.log;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tool telling, which stage of the simulation limited it's throughput, from the log of the simulation.
+ * <pre>
+ * java pgs.log.LogAnalyzer &lt;log file&gt; [&lt;report file&gt;]
+ * </pre>
+ * Both the text and the binary log are accepted. The log is streamed and only the state of the actors, that are
+ * active at the moment, is kept - the memory does not grow with the length of the log.
+ * <p>
+ * The report consists of the time spent in every stage - processing resources, filling lorries, transporting
+ * them to the ferry, waiting on board for the ferry to ship out, filling ferries and transporting the cargo
+ * to the destination - the utilisation of the workers and the ferries, and the critical path, which determined
+ * when the last cargo arrived to it's destination. The critical path follows the last delivered lorry back
+ * through the lorries filled before it, every lorry continuing the path of the lorry it replaced in the dock.
+ * If no report file is given, the report is printed to the standard output.
+ * <p>
+ * Text logs are appended to, so a log may contain several runs of the simulation. A run is recognised by the event
+ * of the completed mine analysis and only the last run is analysed. In a pipelined run the analysis completes while
+ * the workers already mine, so the few events logged before it are not part of the analysed run.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class LogAnalyzer implements LogDecoder.EventHandler {
+    /**
+     * Number of the latest full lorries kept to find the lorry, that a new lorry replaced in the dock
+     */
+    private static final int REPLACED_LORRY_WINDOW = 1024;
+    /**
+     * Length of the timestamp of a text log line up to whole seconds
+     */
+    private static final int TIMESTAMP_SECONDS_LENGTH = 19;
+    /**
+     * Length of the whole timestamp of a text log line, including milliseconds
+     */
+    private static final int TIMESTAMP_LENGTH = 23;
+
+    /**
+     * Stage of the mining, whose time is measured.
+     */
+    private enum Stage {
+        PROCESSING("processing resources"),
+        LORRY_FILL("filling lorries"),
+        TRANSPORT_TO_FERRY("transport to the ferry"),
+        FERRY_BARRIER("waiting on board of a ferry"),
+        FERRY_FILL("filling ferries"),
+        TRANSPORT_TO_DESTINATION("transport to the destination");
+
+        /**
+         * Description in the report
+         */
+        private final String description;
+
+        Stage(final String description) {
+            this.description = description;
+        }
+    }
+
+    /**
+     * Part of the critical path.
+     */
+    private enum Segment {
+        BEFORE_FIRST_LORRY("until the first lorry of the path started filling"),
+        LORRY_FILL("filling lorries"),
+        DOCK_GAP("loading docks waiting for a new lorry"),
+        DISPATCH("full lorry waiting to depart"),
+        TRANSPORT_TO_FERRY("transport to the ferry"),
+        FERRY_BARRIER("waiting on board of a ferry"),
+        TRANSPORT_TO_DESTINATION("transport to the destination");
+
+        /**
+         * Description in the report
+         */
+        private final String description;
+
+        Segment(final String description) {
+            this.description = description;
+        }
+    }
+
+    /**
+     * Number of activities, total and largest duration of the activities of every stage
+     */
+    private final long[] stageCounts = new long[Stage.values().length];
+
+    private final long[] stageTotals = new long[Stage.values().length];
+
+    private final long[] stageMaximums = new long[Stage.values().length];
+    /**
+     * Statistics of every worker by his ID
+     */
+    private final Map<Integer, WorkerTimeline> workers = new HashMap<>();
+    /**
+     * Number of shipments of every ferry by it's ID
+     */
+    private final Map<Integer, Integer> ferryShipments = new HashMap<>();
+    /**
+     * Trips of the lorries, that have not arrived to the destination yet, by the IDs of the lorries
+     */
+    private final Map<Integer, Trip> tripsInProgress = new HashMap<>();
+    /**
+     * Latest trips, whose lorries filled up, by the time they did
+     */
+    private final TreeMap<Long, Trip> latestFullLorries = new TreeMap<>();
+    /**
+     * Trip of the lorry, that arrived to the destination last
+     */
+    private Trip lastDeliveredTrip;
+    /**
+     * Number of read events
+     */
+    private long eventCount = 0;
+    /**
+     * Time of the start of the earliest activity in the log, in milliseconds
+     */
+    private long runStart = Long.MAX_VALUE;
+    /**
+     * Time of the latest event in the log, in milliseconds
+     */
+    private long runEnd = Long.MIN_VALUE;
+    /**
+     * Number of lorries delivered to the destination
+     */
+    private long deliveredTrips = 0;
+    /**
+     * Flag indicating whether the analysed run already completed the analysis of the mine
+     */
+    private boolean mineAnalyzed = false;
+    /**
+     * Number of runs of the simulation in the log
+     */
+    private int runCount = 1;
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage: LogAnalyzer <log file> [<report file>]");
+            return;
+        }
+
+        try {
+            LogAnalyzer analyzer = analyze(Paths.get(args[0]));
+            if (args.length == 2) {
+                try (Writer output = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+                    analyzer.writeReport(output);
+                }
+            } else {
+                Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+                analyzer.writeReport(output);
+                output.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Error while analysing the log!\n" + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every event of given log, text or binary.
+     * @param logFile log file
+     * @return analyzer holding the results
+     * @throws IOException when the log is not valid or cannot be read
+     */
+    public static LogAnalyzer analyze(final Path logFile) throws IOException {
+        LogAnalyzer analyzer = new LogAnalyzer();
+        if (LogDecoder.isBinaryLog(logFile)) {
+            LogDecoder.read(logFile, analyzer);
+        } else {
+            readTextLog(logFile, analyzer);
+        }
+        return analyzer;
+    }
+
+    /**
+     * Reads given text log and passes every event to the handler, in the order they were written. Lines, that
+     * do not describe any event, are skipped.
+     * @param textLog text log file
+     * @param handler handler of the events
+     * @throws IOException when the log cannot be read
+     */
+    public static void readTextLog(final Path textLog, final LogDecoder.EventHandler handler) throws IOException {
+        int[] payloads = new int[2];
+        String cachedSeconds = null;
+        long cachedSecondsMillis = 0;
+        try (BufferedReader reader = Files.newBufferedReader(textLog, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int nameStart = TIMESTAMP_LENGTH + 1;
+                if (line.length() <= nameStart || line.charAt(TIMESTAMP_SECONDS_LENGTH) != '.') {
+                    continue;
+                }
+                int nameEnd = line.indexOf(' ', nameStart);
+                int idEnd = nameEnd < 0 ? -1 : line.indexOf(' ', nameEnd + 1);
+                if (idEnd < 0) {
+                    continue;
+                }
+
+                try {
+                    if (cachedSeconds == null || !line.startsWith(cachedSeconds)) {
+                        cachedSeconds = line.substring(0, TIMESTAMP_SECONDS_LENGTH);   // Consecutive lines mostly share it
+                        cachedSecondsMillis = LocalDateTime.parse(cachedSeconds)
+                                .atZone(ZoneId.systemDefault()).toEpochSecond() * 1000;    // Written in the local time
+                    }
+                    long timestamp = cachedSecondsMillis
+                            + Integer.parseInt(line, TIMESTAMP_SECONDS_LENGTH + 1, TIMESTAMP_LENGTH, 10);
+                    int objectId = Integer.parseInt(line, nameEnd + 1, idEnd, 10);
+                    EventType type = EventType.parseDescription(line, idEnd + 1, payloads);
+                    if (type != null) {
+                        handler.onEvent(timestamp, line.substring(nameStart, nameEnd), objectId, type,
+                                payloads[0], payloads[1]);
+                    }
+                } catch (RuntimeException e) {
+                    cachedSeconds = null;   // Not a line of the log
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onEvent(final long timestamp, final String objectName, final int objectId, final EventType type,
+                        final int firstPayload, final int secondPayload) {
+        if (type == EventType.MINE_ANALYZED) {
+            if (mineAnalyzed) {
+                startNextRun();     // Another run was appended to the log
+            }
+            mineAnalyzed = true;
+        }
+
+        eventCount++;
+        runEnd = Math.max(runEnd, timestamp);
+        runStart = Math.min(runStart, timestamp);
+        switch (type) {
+            case RESOURCE_PROCESSED:
+                record(Stage.PROCESSING, timestamp, firstPayload);
+                workers.computeIfAbsent(objectId, id -> new WorkerTimeline()).resourceProcessed(timestamp, firstPayload);
+                break;
+            case BLOCK_PROCESSED:
+                workers.computeIfAbsent(objectId, id -> new WorkerTimeline()).blockProcessed(timestamp);
+                break;
+            case LORRY_FULL:
+                record(Stage.LORRY_FILL, timestamp, firstPayload);
+                lorryFull(objectId, timestamp, firstPayload);
+                break;
+            case VEHICLE_AT_FERRY:
+                record(Stage.TRANSPORT_TO_FERRY, timestamp, firstPayload);
+                lorryAtFerry(objectId, timestamp, firstPayload);
+                break;
+            case VEHICLE_AT_DESTINATION:
+            case VEHICLE_UNLOADED:
+                record(Stage.TRANSPORT_TO_DESTINATION, timestamp, firstPayload);
+                lorryAtDestination(objectId, timestamp, firstPayload);
+                break;
+            case FERRY_SHIPPED:
+                record(Stage.FERRY_FILL, timestamp, firstPayload);
+                ferryShipments.merge(objectId, 1, Integer::sum);
+                break;
+            case FERRY_SHIPPED_PARTIAL:
+                record(Stage.FERRY_FILL, timestamp, secondPayload);
+                ferryShipments.merge(objectId, 1, Integer::sum);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Forgets everything read so far, so that only the run starting now is analysed.
+     */
+    private void startNextRun() {
+        runCount++;
+        Arrays.fill(stageCounts, 0);
+        Arrays.fill(stageTotals, 0);
+        Arrays.fill(stageMaximums, 0);
+        workers.clear();
+        ferryShipments.clear();
+        tripsInProgress.clear();
+        latestFullLorries.clear();
+        lastDeliveredTrip = null;
+        eventCount = 0;
+        runStart = Long.MAX_VALUE;
+        runEnd = Long.MIN_VALUE;
+        deliveredTrips = 0;
+    }
+
+    /**
+     * Records an activity of given stage, that ended at given time.
+     */
+    private void record(final Stage stage, final long end, final long duration) {
+        stageCounts[stage.ordinal()]++;
+        stageTotals[stage.ordinal()] += duration;
+        stageMaximums[stage.ordinal()] = Math.max(stageMaximums[stage.ordinal()], duration);
+        runStart = Math.min(runStart, end - duration);
+    }
+
+    /**
+     * Starts the trip of a lorry, that filled up. The lorry continues the critical path of the lorry,
+     * that filled up last before it started filling.
+     */
+    private void lorryFull(final int lorryId, final long timestamp, final int fillTime) {
+        long fillStart = timestamp - fillTime;
+        Trip trip = continuePath(fillStart);
+        trip.segments[Segment.LORRY_FILL.ordinal()] += fillTime;
+        trip.full = timestamp;
+        tripsInProgress.put(lorryId, trip);
+
+        latestFullLorries.put(timestamp, trip);
+        if (latestFullLorries.size() > REPLACED_LORRY_WINDOW) {
+            latestFullLorries.pollFirstEntry();
+        }
+    }
+
+    /**
+     * Moves the trip of a lorry to the ferry. A lorry sent away not full has no trip yet - it's filling is taken
+     * to end when it departed.
+     */
+    private void lorryAtFerry(final int lorryId, final long timestamp, final int transportTime) {
+        long departure = timestamp - transportTime;
+        Trip trip = tripsInProgress.get(lorryId);
+        if (trip == null || trip.atFerry != Long.MIN_VALUE) {
+            trip = continuePath(departure);
+            trip.full = departure;
+            tripsInProgress.put(lorryId, trip);
+        }
+
+        trip.segments[Segment.DISPATCH.ordinal()] += Math.max(departure - trip.full, 0);
+        trip.segments[Segment.TRANSPORT_TO_FERRY.ordinal()] += transportTime;
+        trip.atFerry = timestamp;
+    }
+
+    /**
+     * Ends the trip of a lorry. The time between the arrival to the ferry and the departure to the destination
+     * is the time on board of the ferry.
+     */
+    private void lorryAtDestination(final int lorryId, final long timestamp, final int transportTime) {
+        Trip trip = tripsInProgress.remove(lorryId);
+        if (trip == null) {
+            return;     // Trip started before the log did
+        }
+
+        long leftFerry = timestamp - transportTime;
+        if (trip.atFerry != Long.MIN_VALUE) {
+            long onBoard = Math.max(leftFerry - trip.atFerry, 0);
+            record(Stage.FERRY_BARRIER, leftFerry, onBoard);
+            trip.segments[Segment.FERRY_BARRIER.ordinal()] += onBoard;
+        }
+        trip.segments[Segment.TRANSPORT_TO_DESTINATION.ordinal()] += transportTime;
+        trip.end = timestamp;
+        deliveredTrips++;
+
+        if (lastDeliveredTrip == null || timestamp >= lastDeliveredTrip.end) {
+            lastDeliveredTrip = trip;
+        }
+    }
+
+    /**
+     * Creates a trip of a lorry, that started filling at given time, continuing the critical path of the lorry
+     * filled up last before.
+     */
+    private Trip continuePath(final long fillStart) {
+        Trip trip = new Trip();
+        Map.Entry<Long, Trip> replaced = latestFullLorries.floorEntry(fillStart);
+        if (replaced == null) {
+            trip.pathStart = fillStart;
+            return trip;
+        }
+
+        Trip previous = replaced.getValue();
+        trip.pathStart = previous.pathStart;
+        System.arraycopy(previous.segments, 0, trip.segments, 0, trip.segments.length);
+        trip.segments[Segment.DISPATCH.ordinal()] = 0;  // Only the part until the previous lorry filled up is on the path
+        trip.segments[Segment.TRANSPORT_TO_FERRY.ordinal()] = 0;
+        trip.segments[Segment.FERRY_BARRIER.ordinal()] = 0;
+        trip.segments[Segment.TRANSPORT_TO_DESTINATION.ordinal()] = 0;
+        trip.segments[Segment.DOCK_GAP.ordinal()] += fillStart - previous.full;
+        return trip;
+    }
+
+    /**
+     * Writes the report of the analysed log.
+     * @param output output of the report
+     * @throws IOException when the report cannot be written
+     */
+    public void writeReport(final Appendable output) throws IOException {
+        if (eventCount == 0) {
+            output.append("The log contains no events.\n");
+            return;
+        }
+
+        if (runCount > 1) {
+            output.append(String.format("The log contains %d runs, only the last one is analysed.%n", runCount));
+        }
+        long makespan = Math.max(runEnd - runStart, 1);
+        output.append(String.format("Events: %d, makespan: %d ms, delivered lorries: %d%n%n", eventCount, makespan, deliveredTrips));
+
+        output.append(String.format("%-30s %10s %12s %10s %10s %12s%n",
+                "Stage", "Count", "Total ms", "Mean ms", "Max ms", "Avg active"));
+        for (Stage stage : Stage.values()) {
+            long count = stageCounts[stage.ordinal()];
+            long total = stageTotals[stage.ordinal()];
+            output.append(String.format("%-30s %10d %12d %10.1f %10d %12.2f%n", stage.description, count, total,
+                    count == 0 ? 0.0 : (double) total / count, stageMaximums[stage.ordinal()], (double) total / makespan));
+        }
+
+        output.append(String.format("%nWorkers: %d, utilisation %.1f %%%n", workers.size(),
+                workers.isEmpty() ? 0.0 : 100.0 * stageTotals[Stage.PROCESSING.ordinal()] / ((double) makespan * workers.size())));
+        for (Map.Entry<Integer, WorkerTimeline> worker : new TreeMap<>(workers).entrySet()) {
+            WorkerTimeline timeline = worker.getValue();
+            output.append(String.format("  Worker %d: %d resources in %d blocks, processing %d ms (%.1f %%), "
+                            + "loading and waiting between blocks %d ms, idle before the first and after the last block %d ms%n",
+                    worker.getKey(), timeline.resources, timeline.blocks, timeline.busy, 100.0 * timeline.busy / makespan,
+                    timeline.betweenBlocks,
+                    Math.max(timeline.firstStart - runStart, 0) + Math.max(runEnd - timeline.lastEnd, 0)));
+        }
+        output.append(String.format("Ferries: %d, shipments %d, utilisation %.1f %% (share of the time filling in the dock)%n",
+                ferryShipments.size(), stageCounts[Stage.FERRY_FILL.ordinal()],
+                ferryShipments.isEmpty() ? 0.0 : 100.0 * stageTotals[Stage.FERRY_FILL.ordinal()] / ((double) makespan * ferryShipments.size())));
+
+        writeCriticalPath(output, makespan);
+    }
+
+    /**
+     * Writes the segments of the critical path and the stage, that took most of it.
+     */
+    private void writeCriticalPath(final Appendable output, final long makespan) throws IOException {
+        output.append("\nCritical path (last delivered lorry and the lorries it replaced):\n");
+        if (lastDeliveredTrip == null) {
+            output.append("  No lorry was delivered.\n");
+            return;
+        }
+
+        long[] segments = lastDeliveredTrip.segments.clone();
+        segments[Segment.BEFORE_FIRST_LORRY.ordinal()] = Math.max(lastDeliveredTrip.pathStart - runStart, 0);
+        Segment longest = Segment.BEFORE_FIRST_LORRY;
+        long pathLength = 0;
+        for (Segment segment : Segment.values()) {
+            pathLength += segments[segment.ordinal()];
+            if (segments[segment.ordinal()] > segments[longest.ordinal()]) {
+                longest = segment;
+            }
+            output.append(String.format("  %-50s %10d ms %6.1f %%%n", segment.description, segments[segment.ordinal()],
+                    100.0 * segments[segment.ordinal()] / makespan));
+        }
+        output.append(String.format("  %-50s %10d ms %6.1f %%%n", "total", pathLength, 100.0 * pathLength / makespan));
+        output.append("Bottleneck: ").append(longest.description).append(" - ").append(hintFor(longest)).append('\n');
+    }
+
+    /**
+     * Returns the parameters, that may shorten given segment of the critical path.
+     */
+    private static String hintFor(final Segment segment) {
+        switch (segment) {
+            case BEFORE_FIRST_LORRY:
+            case LORRY_FILL:
+                return "lorries are filled as fast as the workers process and load resources, "
+                        + "try more workers (-cWorker), smaller lorries (-cLorry) or more loading docks (-docks)";
+            case DOCK_GAP:
+                return "workers wait for a new lorry in the dock, try a bigger fleet (-fleet) or more loading docks (-docks)";
+            case DISPATCH:
+                return "full lorries wait for a free driver, try a bigger fleet (-fleet)";
+            case TRANSPORT_TO_FERRY:
+            case TRANSPORT_TO_DESTINATION:
+                return "lorries spend the time on the road, try shorter transport times (-tLorry) or bigger lorries (-cLorry)";
+            case FERRY_BARRIER:
+            default:
+                return "lorries wait for the ferries to fill up, try smaller ferries (-cFerry), more ferries (-ferries) "
+                        + "or a maximum waiting time (-ferryWait)";
+        }
+    }
+
+    /**
+     * Activity of one worker.
+     */
+    private static class WorkerTimeline {
+        /**
+         * Number of processed resources and blocks
+         */
+        private long resources = 0;
+
+        private long blocks = 0;
+        /**
+         * Total time of processing resources
+         */
+        private long busy = 0;
+        /**
+         * Total time between the end of a block and the start of the next one
+         */
+        private long betweenBlocks = 0;
+        /**
+         * Start of the first processed resource and the end of the last one
+         */
+        private long firstStart = Long.MAX_VALUE;
+
+        private long lastEnd = Long.MIN_VALUE;
+        /**
+         * End of the last processed block, or {@link Long#MIN_VALUE} if the worker is processing a block
+         */
+        private long lastBlockEnd = Long.MIN_VALUE;
+
+        private void resourceProcessed(final long timestamp, final int processingTime) {
+            long start = timestamp - processingTime;
+            if (lastBlockEnd != Long.MIN_VALUE) {
+                betweenBlocks += Math.max(start - lastBlockEnd, 0);
+                lastBlockEnd = Long.MIN_VALUE;
+            }
+            resources++;
+            busy += processingTime;
+            firstStart = Math.min(firstStart, start);
+            lastEnd = Math.max(lastEnd, timestamp);
+        }
+
+        private void blockProcessed(final long timestamp) {
+            blocks++;
+            lastBlockEnd = timestamp;
+            lastEnd = Math.max(lastEnd, timestamp);
+        }
+    }
+
+    /**
+     * Trip of one lorry, from the moment it started filling, with the critical path leading to it.
+     */
+    private static class Trip {
+        /**
+         * Milliseconds of the critical path spent in every segment
+         */
+        private final long[] segments = new long[Segment.values().length];
+        /**
+         * Time when the first lorry of the critical path started filling
+         */
+        private long pathStart;
+        /**
+         * Time when the lorry filled up or departed not full
+         */
+        private long full;
+        /**
+         * Time when the lorry arrived to the ferry, or {@link Long#MIN_VALUE} if it has not arrived yet
+         */
+        private long atFerry = Long.MIN_VALUE;
+        /**
+         * Time when the lorry arrived to the destination
+         */
+        private long end;
+    }
+}
@@ -0,0 +1,163 @@
+package pgs.log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Tool turning a binary log written by {@link BinaryEventSink} back into the text format of the log.
+ * <pre>
+ * java pgs.log.LogDecoder &lt;binary log file&gt; [&lt;output text file&gt;]
+ * </pre>
+ * If the output file is not given, decoded log is printed to the standard output.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class LogDecoder {
+
+    /**
+     * Handler of events read from the binary log.
+     */
+    public interface EventHandler {
+        /**
+         * Handles single event read from the log.
+         * @param timestamp time of the event in milliseconds since the epoch
+         * @param objectName name of the object that logged the event
+         * @param objectId ID of the object that logged the event
+         * @param type type of the event
+         * @param firstPayload first payload of the event
+         * @param secondPayload second payload of the event
+         * @throws IOException when handling of the event fails
+         */
+        void onEvent(long timestamp, String objectName, int objectId, EventType type,
+                     int firstPayload, int secondPayload) throws IOException;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage: LogDecoder <binary log file> [<output text file>]");
+            return;
+        }
+
+        try {
+            if (args.length == 2) {
+                try (Writer output = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+                    decode(Paths.get(args[0]), output);
+                }
+            } else {
+                Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+                decode(Paths.get(args[0]), output);
+                output.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Error while decoding the binary log!\n" + e.getMessage());
+        }
+    }
+
+    /**
+     * Checks if given file starts like a binary log.
+     * @param logFile file to check
+     * @return true, if the file is a binary log
+     * @throws IOException when the file cannot be read
+     */
+    public static boolean isBinaryLog(final Path logFile) throws IOException {
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(logFile))) {
+            return input.readInt() == BinaryEventSink.MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Decodes given binary log into the text format.
+     * @param binaryLog binary log file
+     * @param output writer of the text log
+     * @throws IOException when the log is not valid or cannot be read or written
+     */
+    public static void decode(final Path binaryLog, final Writer output) throws IOException {
+        StringBuilder line = new StringBuilder();
+        LogLineFormat[] lineFormat = new LogLineFormat[1];
+        read(binaryLog, zone -> lineFormat[0] = new LogLineFormat(zone),
+                (timestamp, objectName, objectId, type, firstPayload, secondPayload) -> {
+                    line.setLength(0);
+                    lineFormat[0].appendLine(line, timestamp, objectName, objectId, type, firstPayload, secondPayload);
+                    output.append(line);
+                });
+    }
+
+    /**
+     * Reads given binary log and passes every event to the handler, in the order they were written.
+     * @param binaryLog binary log file
+     * @param handler handler of the events
+     * @throws IOException when the log is not valid or cannot be read
+     */
+    public static void read(final Path binaryLog, final EventHandler handler) throws IOException {
+        read(binaryLog, zone -> { }, handler);
+    }
+
+    /**
+     * Reads given binary log, passes it's time zone to the zone handler and every event to the event handler.
+     * @param binaryLog binary log file
+     * @param zoneHandler handler of the time zone of the log
+     * @param handler handler of the events
+     * @throws IOException when the log is not valid or cannot be read
+     */
+    private static void read(final Path binaryLog, final Consumer<ZoneId> zoneHandler,
+                             final EventHandler handler) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(binaryLog), 1 << 16))) {
+            if (input.readInt() != BinaryEventSink.MAGIC) {
+                throw new IOException("Passed file is not a binary log!");
+            }
+            short version = input.readShort();
+            if (version != BinaryEventSink.VERSION) {
+                throw new IOException("Unsupported binary log version: " + version);
+            }
+
+            long startMillis = input.readLong();
+            byte[] zone = new byte[input.readUnsignedShort()];
+            input.readFully(zone);
+            zoneHandler.accept(ZoneId.of(new String(zone, StandardCharsets.UTF_8)));
+
+            List<String> names = new ArrayList<>();
+            int type;
+            while ((type = input.read()) != -1) {
+                input.readByte();   // Reserved
+                if (type == BinaryEventSink.NAME_DEFINITION) {
+                    int nameIndex = input.readShort();
+                    byte[] name = new byte[input.readUnsignedShort()];
+                    input.readFully(name);
+                    while (names.size() <= nameIndex) {
+                        names.add(null);
+                    }
+                    names.set(nameIndex, new String(name, StandardCharsets.UTF_8));
+                    continue;
+                }
+
+                int nameIndex = input.readShort();
+                int objectId = input.readInt();
+                long nanos = input.readLong();
+                int firstPayload = input.readInt();
+                int secondPayload = input.readInt();
+                if (nameIndex < 0 || nameIndex >= names.size() || names.get(nameIndex) == null) {
+                    throw new IOException("Binary log references undefined object name: " + nameIndex);
+                }
+
+                handler.onEvent(startMillis + nanos / 1_000_000, names.get(nameIndex), objectId,
+                        EventType.fromOrdinal(type - 1), firstPayload, secondPayload);
+            }
+        }
+    }
+}
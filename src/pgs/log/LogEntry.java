@@ -0,0 +1,96 @@
+package pgs.log;
+
+import pgs.HasId;
+
+/**
+ * Single slot of the {@link LogRingBuffer}. Entries are allocated once with the buffer and reused for every
+ * logged event, so logging does not allocate new objects.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class LogEntry {
+    /**
+     * Value of {@link pgs.time.TimeSource#nanoTime()} at the moment of the event
+     */
+    private long nanoTime;
+    /**
+     * Object that logged the event
+     */
+    private HasId source;
+    /**
+     * Type of the event
+     */
+    private EventType type;
+    /**
+     * First payload of the event
+     */
+    private int firstPayload;
+    /**
+     * Second payload of the event
+     */
+    private int secondPayload;
+
+    /**
+     * Fills this entry with given event.
+     * @param nanoTime time of the event
+     * @param source object that logged the event
+     * @param type type of the event
+     * @param firstPayload first payload of the event
+     * @param secondPayload second payload of the event
+     */
+    void set(final long nanoTime, final HasId source, final EventType type, final int firstPayload, final int secondPayload) {
+        this.nanoTime = nanoTime;
+        this.source = source;
+        this.type = type;
+        this.firstPayload = firstPayload;
+        this.secondPayload = secondPayload;
+    }
+
+    /**
+     * Releases references held by this entry, so the logged objects may be garbage collected.
+     */
+    void clear() {
+        this.source = null;
+    }
+
+    /**
+     * Returns the value of {@link pgs.time.TimeSource#nanoTime()} at the moment of the event.
+     * @return time of the event
+     */
+    public long getNanoTime() {
+        return nanoTime;
+    }
+
+    /**
+     * Returns the object that logged the event.
+     * @return source of the event
+     */
+    public HasId getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the type of the event.
+     * @return type of the event
+     */
+    public EventType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the first payload of the event.
+     * @return first payload
+     */
+    public int getFirstPayload() {
+        return firstPayload;
+    }
+
+    /**
+     * Returns the second payload of the event.
+     * @return second payload
+     */
+    public int getSecondPayload() {
+        return secondPayload;
+    }
+}
@@ -0,0 +1,19 @@
+package pgs.log;
+
+/**
+ * Format of the log file.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public enum LogFormat {
+    /**
+     * Human readable lines, one per event. Existing log file is appended to.
+     */
+    TEXT,
+    /**
+     * Compact fixed-width binary records. Existing log file is overwritten. May be turned into the text format
+     * by {@link LogDecoder}.
+     */
+    BINARY
+}
@@ -0,0 +1,82 @@
+package pgs.log;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formats events into lines of the text log. Resulting line is in following format:
+ * "timestamp with millisecond precision" "object name" "object ID" "event description"
+ * Instances are not thread safe, every writing thread needs it's own.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class LogLineFormat {
+    /**
+     * Format of the timestamp up to whole seconds, milliseconds are appended separately
+     */
+    private static final DateTimeFormatter SECONDS_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    /**
+     * Time zone of the timestamps
+     */
+    private final ZoneId zone;
+    /**
+     * Epoch second of the last formatted timestamp
+     */
+    private long cachedSecond = Long.MIN_VALUE;
+    /**
+     * Formatted last timestamp up to whole seconds - consecutive events mostly share it
+     */
+    private String cachedSecondText;
+
+    /**
+     * Creates new formatter of log lines.
+     * @param zone time zone of the timestamps
+     */
+    public LogLineFormat(final ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Appends a log line describing given event, including the line separator.
+     * @param builder builder to append to
+     * @param timestamp time of the event in milliseconds since the epoch
+     * @param objectName name of the object that logged the event
+     * @param objectId ID of the object that logged the event
+     * @param type type of the event
+     * @param firstPayload first payload of the event
+     * @param secondPayload second payload of the event
+     */
+    public void appendLine(final StringBuilder builder, final long timestamp, final String objectName, final int objectId,
+                           final EventType type, final int firstPayload, final int secondPayload) {
+        appendTimestamp(builder, timestamp);
+        builder.append(' ').append(objectName).append(' ').append(objectId).append(' ');
+        type.appendDescription(builder, firstPayload, secondPayload);
+        builder.append('\n');
+    }
+
+    /**
+     * Appends given timestamp with millisecond precision.
+     * @param builder builder to append to
+     * @param timestamp milliseconds since the epoch
+     */
+    private void appendTimestamp(final StringBuilder builder, final long timestamp) {
+        long second = Math.floorDiv(timestamp, 1000);
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedSecondText = SECONDS_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zone));
+        }
+
+        int millis = Math.floorMod(timestamp, 1000);
+        builder.append(cachedSecondText).append('.');
+        if (millis < 100) {
+            builder.append('0');
+        }
+        if (millis < 10) {
+            builder.append('0');
+        }
+        builder.append(millis);
+    }
+}
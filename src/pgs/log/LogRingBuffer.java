@@ -0,0 +1,143 @@
+package pgs.log;
+
+import pgs.HasId;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded ring buffer of log entries. Any number of threads may offer events at once without taking a lock,
+ * events are drained by a single consumer thread in the order their slots were claimed.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class LogRingBuffer {
+    /**
+     * Preallocated entries of the buffer
+     */
+    private final LogEntry[] entries;
+    /**
+     * Sequence number of each slot. A slot is free for the producer at position p when its sequence equals p,
+     * and readable for the consumer at position p when its sequence equals p + 1.
+     */
+    private final AtomicLongArray sequences;
+    /**
+     * Mask used to turn a position into an index of a slot
+     */
+    private final int mask;
+    /**
+     * Next position to be claimed by producers
+     */
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * Next position to be read by the consumer. Written by the consumer thread only.
+     */
+    private volatile long head = 0;
+
+    /**
+     * Creates new ring buffer. Capacity is rounded up to the nearest power of two.
+     * @param capacity minimal capacity of the buffer
+     */
+    public LogRingBuffer(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Log buffer capacity has to be positive!");
+        }
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+
+        this.entries = new LogEntry[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            entries[i] = new LogEntry();
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Places given event into the buffer. Never blocks.
+     * @param nanoTime time of the event
+     * @param source object that logged the event
+     * @param type type of the event
+     * @param firstPayload first payload of the event
+     * @param secondPayload second payload of the event
+     * @return true, if the event was placed into the buffer, false if the buffer is full
+     */
+    public boolean offer(final long nanoTime, final HasId source, final EventType type,
+                         final int firstPayload, final int secondPayload) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    entries[index].set(nanoTime, source, type, firstPayload, secondPayload);
+                    sequences.lazySet(index, position + 1);    // Publishing the entry to the consumer
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;   // Consumer did not free this slot yet - buffer is full
+            } else {
+                position = tail.get();  // Someone else claimed this position in the meantime
+            }
+        }
+    }
+
+    /**
+     * Passes up to {@code maxEntries} published entries to given handler, in order. Entry passed to the handler
+     * is valid only for the duration of the call. May be called by a single consumer thread only.
+     * @param handler handler of drained entries
+     * @param maxEntries maximum number of entries to drain
+     * @return number of drained entries
+     */
+    public int drain(final Consumer<LogEntry> handler, final int maxEntries) {
+        long position = head;
+        int drained = 0;
+        while (drained < maxEntries) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;  // Nothing more published yet
+            }
+
+            LogEntry entry = entries[index];
+            handler.accept(entry);
+            entry.clear();
+            sequences.lazySet(index, position + entries.length);   // Freeing the slot for the next lap
+            position++;
+            drained++;
+        }
+
+        head = position;
+        return drained;
+    }
+
+    /**
+     * Checks if there are any claimed entries, that have not been drained yet.
+     * @return true, if there are pending entries
+     */
+    public boolean hasPendingEntries() {
+        return tail.get() > head;
+    }
+
+    /**
+     * Returns the approximate number of entries waiting in the buffer.
+     * @return number of waiting entries
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * Returns the capacity of this buffer.
+     * @return capacity
+     */
+    public int getCapacity() {
+        return entries.length;
+    }
+}
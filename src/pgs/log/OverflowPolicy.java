@@ -0,0 +1,22 @@
+package pgs.log;
+
+/**
+ * Policy deciding what happens with a logged event, when the log buffer is full.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public enum OverflowPolicy {
+    /**
+     * Logging thread waits until there is free space in the buffer. No event is ever lost.
+     */
+    BLOCK,
+    /**
+     * Event is dropped, if there is no free space in the buffer.
+     */
+    DROP,
+    /**
+     * When the buffer is getting full, only every n-th event is accepted. Events that still do not fit are dropped.
+     */
+    SAMPLE
+}
@@ -0,0 +1,65 @@
+package pgs.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+
+/**
+ * Sink writing events as human readable lines.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class TextEventSink implements EventSink {
+    /**
+     * Channel of the log file
+     */
+    private final FileChannel channel;
+    /**
+     * Time in milliseconds since the epoch, that corresponds to {@code startNanos}
+     */
+    private final long startMillis;
+    /**
+     * Value of {@link pgs.time.TimeSource#nanoTime()} when the logger started
+     */
+    private final long startNanos;
+    /**
+     * Formatter of the lines
+     */
+    private final LogLineFormat lineFormat = new LogLineFormat(ZoneId.systemDefault());
+    /**
+     * Lines waiting to be written
+     */
+    private final StringBuilder batch = new StringBuilder();
+
+    /**
+     * Creates new text sink.
+     * @param channel channel of the log file
+     * @param startMillis time in milliseconds since the epoch, that corresponds to {@code startNanos}
+     * @param startNanos value of {@link pgs.time.TimeSource#nanoTime()} when the logger started
+     */
+    public TextEventSink(final FileChannel channel, final long startMillis, final long startNanos) {
+        this.channel = channel;
+        this.startMillis = startMillis;
+        this.startNanos = startNanos;
+    }
+
+    @Override
+    public void write(final LogEntry entry) {
+        long timestamp = startMillis + (entry.getNanoTime() - startNanos) / 1_000_000;
+        lineFormat.appendLine(batch, timestamp, entry.getSource().getClass().getSimpleName(),
+                entry.getSource().getId(), entry.getType(), entry.getFirstPayload(), entry.getSecondPayload());
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(batch));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        batch.setLength(0);
+    }
+}
@@ -0,0 +1,44 @@
+package pgs.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter. Backed by a striped {@link LongAdder}, so actors incrementing it at once do not contend
+ * on a single memory location. Reading the value is more expensive than incrementing and only happens
+ * when a snapshot is taken.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class Counter {
+    /**
+     * Counted value
+     */
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    /**
+     * Increments the counter by one.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Increments the counter by given amount.
+     * @param amount amount to add, not negative
+     */
+    public void add(final long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * Returns the current value of the counter.
+     * @return counted value
+     */
+    public long get() {
+        return value.sum();
+    }
+}
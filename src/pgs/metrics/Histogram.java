@@ -0,0 +1,177 @@
+package pgs.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative values with buckets of logarithmically growing width, like HdrHistogram. Every power
+ * of two is split into {@value #SUB_BUCKET_COUNT} buckets, so a recorded value is known with a relative error
+ * of at most 1/{@value #SUB_BUCKET_COUNT}, whatever it's magnitude. Recording a value is a few atomic additions
+ * and never allocates or blocks.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class Histogram {
+    /**
+     * Number of bits of a value kept exactly
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+    /**
+     * Number of buckets every power of two is split into
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /**
+     * Number of buckets covering every non-negative long value
+     */
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+    /**
+     * Quantiles written into the snapshots
+     */
+    private static final double[] REPORTED_QUANTILES = {0.5, 0.9, 0.99};
+    /**
+     * Number of recorded values in every bucket
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    /**
+     * Number of recorded values
+     */
+    private final LongAdder count = new LongAdder();
+    /**
+     * Sum of recorded values
+     */
+    private final LongAdder sum = new LongAdder();
+    /**
+     * Largest recorded value
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram() {
+    }
+
+    /**
+     * Records given value. Negative values are recorded as zero.
+     * @param value recorded value
+     */
+    public void record(final long value) {
+        long recorded = Math.max(value, 0);
+        buckets.incrementAndGet(bucketOf(recorded));
+        count.increment();
+        sum.add(recorded);
+
+        long currentMax;
+        while (recorded > (currentMax = max.get()) && !max.compareAndSet(currentMax, recorded)) {
+            // Someone else recorded a new maximum, trying again
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     * @return number of values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the largest recorded value.
+     * @return largest value, zero if nothing was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value, that given fraction of the recorded values does not exceed. The value is the highest
+     * value of the bucket the quantile falls into, but never more than the largest recorded value.
+     * @param quantile fraction of the values, between 0 and 1
+     * @return value at the quantile, zero if nothing was recorded
+     */
+    public long getValueAtQuantile(final double quantile) {
+        long[] counts = copyBuckets();
+        return valueAtQuantile(counts, counts[BUCKET_COUNT], quantile);
+    }
+
+    /**
+     * Writes the count, sum, largest value and the quantiles of the histogram in the text format
+     * of {@link MetricsRegistry#writeSnapshot(Appendable)}.
+     * @param name name of the histogram
+     * @param output output to write to
+     * @throws IOException when the output cannot be written
+     */
+    void writeTo(final String name, final Appendable output) throws IOException {
+        long[] counts = copyBuckets();
+        long total = counts[BUCKET_COUNT];
+
+        for (double quantile : REPORTED_QUANTILES) {
+            output.append(name).append("{quantile=\"").append(String.valueOf(quantile)).append("\"} ")
+                    .append(String.valueOf(valueAtQuantile(counts, total, quantile))).append('\n');
+        }
+        output.append(name).append("_max ").append(String.valueOf(max.get())).append('\n');
+        output.append(name).append("_sum ").append(String.valueOf(sum.sum())).append('\n');
+        output.append(name).append("_count ").append(String.valueOf(total)).append('\n');
+    }
+
+    /**
+     * Copies the counts of the buckets, while values may still be recorded. The total of the copied counts
+     * is stored after the last bucket.
+     */
+    private long[] copyBuckets() {
+        long[] counts = new long[BUCKET_COUNT + 1];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            counts[BUCKET_COUNT] += counts[i];
+        }
+        return counts;
+    }
+
+    /**
+     * Finds the value at given quantile in a copy of the bucket counts.
+     */
+    private long valueAtQuantile(final long[] counts, final long total, final double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max((long) Math.ceil(Math.min(Math.max(quantile, 0), 1) * total), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Returns the index of the bucket given value belongs to.
+     * @param value non-negative value
+     * @return bucket index
+     */
+    static int bucketOf(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >>> shift) - SUB_BUCKET_COUNT);
+    }
+
+    /**
+     * Returns the highest value belonging to given bucket.
+     * @param bucket bucket index
+     * @return highest value of the bucket
+     */
+    static long highestValueOf(final int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKET_COUNT - 1;
+        long lowest = (long) (bucket % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
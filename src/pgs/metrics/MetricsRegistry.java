@@ -0,0 +1,89 @@
+package pgs.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Metrics of one simulation - counters, histograms and gauges, registered by their names. A name may carry
+ * labels telling the actors apart, e.g. {@code worker_resources_processed{worker="3"}}, see {@link #labelled}.
+ * Asking for a metric, that is already registered, returns the registered one, so the actors may ask for their
+ * metrics whenever they need them, though they are expected to keep them.
+ * <p>
+ * Snapshots are written in the text format of Prometheus, so they are readable by a human as well as scrapeable.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class MetricsRegistry {
+    /**
+     * Registered counters by their names
+     */
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    /**
+     * Registered histograms by their names
+     */
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    /**
+     * Registered gauges by their names, reading the current value of something
+     */
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the counter with given name, registering it if there is none.
+     * @param name name of the counter
+     * @return counter
+     */
+    public Counter counter(final String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Returns the histogram with given name, registering it if there is none.
+     * @param name name of the histogram
+     * @return histogram
+     */
+    public Histogram histogram(final String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * Registers a gauge with given name, replacing the gauge registered with the same name before.
+     * The gauge is read whenever a snapshot is taken, from the thread taking it.
+     * @param name name of the gauge
+     * @param gauge reader of the current value
+     */
+    public void gauge(final String name, final LongSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Writes the current value of every metric, one per line, sorted by their names.
+     * @param output output to write to
+     * @throws IOException when the output cannot be written
+     */
+    public void writeSnapshot(final Appendable output) throws IOException {
+        for (Map.Entry<String, Counter> counter : new TreeMap<>(counters).entrySet()) {
+            output.append(counter.getKey()).append(' ').append(String.valueOf(counter.getValue().get())).append('\n');
+        }
+        for (Map.Entry<String, LongSupplier> gauge : new TreeMap<>(gauges).entrySet()) {
+            output.append(gauge.getKey()).append(' ').append(String.valueOf(gauge.getValue().getAsLong())).append('\n');
+        }
+        for (Map.Entry<String, Histogram> histogram : new TreeMap<>(histograms).entrySet()) {
+            histogram.getValue().writeTo(histogram.getKey(), output);
+        }
+    }
+
+    /**
+     * Returns the name of a metric with given label, e.g. {@code labelled("worker_resources_processed", "worker", 3)}.
+     * @param name name of the metric
+     * @param label name of the label
+     * @param value value of the label
+     * @return labelled name
+     */
+    public static String labelled(final String name, final String label, final Object value) {
+        return name + "{" + label + "=\"" + value + "\"}";
+    }
+}
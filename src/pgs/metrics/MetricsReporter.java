@@ -0,0 +1,148 @@
+package pgs.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the snapshots of a metrics registry while the simulation runs - by rewriting a file periodically,
+ * by serving them on {@code http://localhost:<port>/metrics}, or both. The file is replaced at once, so a reader
+ * never sees a partially written snapshot. The last snapshot is written when the reporter is closed.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class MetricsReporter implements AutoCloseable {
+    /**
+     * Path the snapshots are served on
+     */
+    public static final String HTTP_PATH = "/metrics";
+    /**
+     * Port meaning, that the snapshots are not served at all
+     */
+    public static final int NO_PORT = -1;
+    /**
+     * Reported registry
+     */
+    private final MetricsRegistry registry;
+    /**
+     * File the snapshots are written to, or null
+     */
+    private final Path snapshotFile;
+    /**
+     * Thread writing the snapshots into the file, or null
+     */
+    private final ScheduledExecutorService fileWriter;
+    /**
+     * Server serving the snapshots, or null
+     */
+    private final HttpServer server;
+
+    /**
+     * Starts reporting given registry. If the snapshots cannot be served on given port, the reporter only writes
+     * them into the file.
+     * @param registry reported registry
+     * @param snapshotFile file to rewrite with the snapshots, null to write no file
+     * @param port local port to serve the snapshots on, {@link #NO_PORT} to serve nothing
+     * @param intervalMillis number of milliseconds between two snapshots written into the file
+     */
+    public MetricsReporter(final MetricsRegistry registry, final Path snapshotFile, final int port,
+                           final long intervalMillis) {
+        this.registry = registry;
+        this.snapshotFile = snapshotFile;
+        this.fileWriter = snapshotFile != null ? startFileWriter(Math.max(intervalMillis, 1)) : null;
+        this.server = port != NO_PORT ? startServer(port) : null;
+    }
+
+    /**
+     * Starts rewriting the snapshot file periodically.
+     */
+    private ScheduledExecutorService startFileWriter(final long intervalMillis) {
+        ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::writeSnapshotFile, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return writer;
+    }
+
+    /**
+     * Starts serving the snapshots on given local port.
+     * @return started server, or null if it cannot be started
+     */
+    private HttpServer startServer(final int port) {
+        try {
+            HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            httpServer.createContext(HTTP_PATH, exchange -> {
+                StringBuilder snapshot = new StringBuilder();
+                registry.writeSnapshot(snapshot);
+                byte[] body = snapshot.toString().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream responseBody = exchange.getResponseBody()) {
+                    responseBody.write(body);
+                }
+            });
+            httpServer.start();
+            System.out.println("Serving metrics on http://localhost:" + httpServer.getAddress().getPort() + HTTP_PATH);
+            return httpServer;
+        } catch (IOException e) {
+            System.err.println("Metrics cannot be served on port " + port + "!\n" + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the snapshot file with the current snapshot. Failures are reported and the next snapshot
+     * is tried again.
+     */
+    private void writeSnapshotFile() {
+        try {
+            Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                registry.writeSnapshot(writer);
+            }
+
+            try {
+                Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Metrics snapshot cannot be written to " + snapshotFile + "!\n" + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the reporting and writes the last snapshot into the file.
+     */
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+
+        if (fileWriter != null) {
+            fileWriter.shutdownNow();
+            try {
+                fileWriter.awaitTermination(1, TimeUnit.SECONDS);   // A snapshot being written would overwrite the last one
+            } catch (InterruptedException e) {
+                System.err.println("Waiting for the metrics writer was interrupted!\n" + e.getMessage());
+            }
+            writeSnapshotFile();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package pgs.mine;
+
+import java.nio.IntBuffer;
+import java.util.function.IntConsumer;
+
+/**
+ * Result of the analysis of a map - the lengths of every block of resources, in the order they appear in the map,
+ * and the totals. The analysed map is immutable, so it may be shared by any number of simulations of the same map.
+ * The lengths are held in a primitive buffer, which is either on the heap or mapped from a sidecar file,
+ * see {@link AnalysedMapCache}.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class AnalysedMap {
+    /**
+     * Lengths of the blocks, read only
+     */
+    private final IntBuffer blockLengths;
+    /**
+     * Total number of resources in all blocks
+     */
+    private final long resourceCount;
+
+    /**
+     * Creates the analysed map from given lengths of the blocks.
+     * @param blockLengths lengths of the blocks, no longer modified by anyone
+     * @param resourceCount total number of resources in all blocks
+     */
+    AnalysedMap(final IntBuffer blockLengths, final long resourceCount) {
+        this.blockLengths = blockLengths.asReadOnlyBuffer();
+        this.resourceCount = resourceCount;
+    }
+
+    /**
+     * Passes the length of every block to given consumer, in the order they appear in the map.
+     * @param consumer consumer of the lengths
+     */
+    public void forEachBlock(final IntConsumer consumer) {
+        for (int i = 0; i < blockLengths.limit(); i++) {
+            consumer.accept(blockLengths.get(i));
+        }
+    }
+
+    /**
+     * Returns the number of blocks in the map.
+     * @return number of blocks
+     */
+    public int getBlockCount() {
+        return blockLengths.limit();
+    }
+
+    /**
+     * Returns the total number of resources in the map.
+     * @return number of resources
+     */
+    public long getResourceCount() {
+        return resourceCount;
+    }
+
+    /**
+     * Returns the lengths of the blocks. The returned buffer is read only and positioned at the first block.
+     * @return lengths of the blocks
+     */
+    IntBuffer getBlockLengths() {
+        return blockLengths.duplicate();
+    }
+
+    /**
+     * Collects the lengths of the blocks while the map is being scanned. Has to be used by one thread at a time.
+     */
+    public static class Builder implements IntConsumer {
+        /**
+         * Collected lengths
+         */
+        private final BlockLengths lengths = new BlockLengths();
+        /**
+         * Total number of resources in collected blocks
+         */
+        private long resourceCount = 0;
+
+        @Override
+        public void accept(final int length) {
+            lengths.accept(length);
+            resourceCount += length;
+        }
+
+        /**
+         * Creates the analysed map of every collected block.
+         * @return analysed map
+         */
+        public AnalysedMap build() {
+            return new AnalysedMap(IntBuffer.wrap(lengths.toArray()), resourceCount);
+        }
+    }
+}
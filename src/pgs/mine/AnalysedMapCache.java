@@ -0,0 +1,330 @@
+package pgs.mine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Cache of analysed maps, so a map simulated repeatedly is scanned only once. A map is identified by it's path,
+ * size, time of the last modification and a checksum of it's beginning and end - if any of them changes,
+ * the cached analysis is not used any more.
+ * <p>
+ * Besides the memory, the analysis may be kept in a sidecar file next to the map (with {@value #SIDECAR_SUFFIX}
+ * appended to the name), so it survives the JVM. The sidecar is a small header followed by the block lengths
+ * as little-endian integers, and it is memory mapped when loaded, so the lengths are never copied to the heap.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class AnalysedMapCache {
+    /**
+     * Cache shared by every simulation in the JVM
+     */
+    public static final AnalysedMapCache SHARED = new AnalysedMapCache();
+    /**
+     * Suffix of the sidecar file name
+     */
+    public static final String SIDECAR_SUFFIX = ".blocks";
+    /**
+     * First four bytes of a sidecar file, "PGSB"
+     */
+    private static final int SIDECAR_MAGIC = 0x50475342;
+    /**
+     * Version of the sidecar format
+     */
+    private static final int SIDECAR_VERSION = 1;
+    /**
+     * Number of bytes of the sidecar header - magic, version, map size, map modification time, map checksum,
+     * resource count, block count and padding
+     */
+    private static final int SIDECAR_HEADER_SIZE = 48;
+    /**
+     * Number of bytes at the beginning and at the end of the map covered by the checksum
+     */
+    private static final int CHECKSUM_SAMPLE_SIZE = 1 << 16;
+    /**
+     * Number of bytes written into the sidecar at once
+     */
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    /**
+     * Analysed maps by the absolute paths of the map files
+     */
+    private final ConcurrentHashMap<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Looks up the analysis of given map file, in the memory first and in the sidecar file then, if allowed.
+     * The returned lookup is used to store the analysis, if it was not found.
+     * @param mapFile map file
+     * @param useSidecar true to read the sidecar file and to write it when the analysis is stored
+     * @return lookup of the analysis
+     * @throws IOException when the map file cannot be read
+     */
+    public Lookup lookup(final Path mapFile, final boolean useSidecar) throws IOException {
+        Path key = mapFile.toAbsolutePath().normalize();
+        Signature signature = Signature.of(key);
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.signature.equals(signature)) {
+            return new Lookup(key, signature, entry.analysedMap, useSidecar);
+        }
+
+        AnalysedMap analysedMap = useSidecar ? readSidecar(key, signature) : null;
+        if (analysedMap != null) {
+            entries.put(key, new Entry(signature, analysedMap));
+        }
+        return new Lookup(key, signature, analysedMap, useSidecar);
+    }
+
+    /**
+     * Forgets every analysis kept in the memory. Sidecar files are kept.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Reads the analysis from the sidecar file of given map, if there is one matching the map.
+     * @param mapFile absolute path of the map file
+     * @param signature signature of the map file
+     * @return analysed map, or null if there is no valid sidecar for the map
+     */
+    private static AnalysedMap readSidecar(final Path mapFile, final Signature signature) {
+        Path sidecar = sidecarOf(mapFile);
+        if (!Files.isRegularFile(sidecar)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(sidecar, StandardOpenOption.READ)) {
+            long sidecarSize = channel.size();
+            if (sidecarSize < SIDECAR_HEADER_SIZE || sidecarSize > Integer.MAX_VALUE) {
+                return null;
+            }
+
+            MappedByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, sidecarSize);
+            content.order(ByteOrder.LITTLE_ENDIAN);
+            if (content.getInt(0) != SIDECAR_MAGIC || content.getInt(4) != SIDECAR_VERSION
+                    || !signature.equals(new Signature(content.getLong(8), content.getLong(16), content.getLong(24)))) {
+                return null;    // Sidecar of another map, or of an older version of this one
+            }
+
+            long resourceCount = content.getLong(32);
+            int blockCount = content.getInt(40);
+            if (blockCount < 0 || SIDECAR_HEADER_SIZE + 4L * blockCount != sidecarSize) {
+                return null;
+            }
+
+            IntBuffer blockLengths = content.position(SIDECAR_HEADER_SIZE).slice()
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();  // Mapping stays valid after the channel is closed
+            return new AnalysedMap(blockLengths, resourceCount);
+        } catch (IOException e) {
+            System.err.println("Map sidecar " + sidecar + " cannot be read, the map will be analysed.\n" + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the analysis into the sidecar file of given map. The sidecar is written into a temporary file first
+     * and then moved in place, so a reader never sees a partially written sidecar.
+     * @param mapFile absolute path of the map file
+     * @param signature signature of the map file, when the analysis started
+     * @param analysedMap analysis of the map
+     * @throws IOException when the sidecar cannot be written
+     */
+    private static void writeSidecar(final Path mapFile, final Signature signature, final AnalysedMap analysedMap)
+            throws IOException {
+        Path sidecar = sidecarOf(mapFile);
+        Path temporary = Files.createTempFile(sidecar.toAbsolutePath().getParent(), sidecar.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(SIDECAR_MAGIC).putInt(SIDECAR_VERSION)
+                        .putLong(signature.size).putLong(signature.lastModifiedMillis).putLong(signature.checksum)
+                        .putLong(analysedMap.getResourceCount()).putInt(analysedMap.getBlockCount()).putInt(0);
+
+                IntBuffer blockLengths = analysedMap.getBlockLengths();
+                while (blockLengths.hasRemaining()) {
+                    while (blockLengths.hasRemaining() && buffer.remaining() >= Integer.BYTES) {
+                        buffer.putInt(blockLengths.get());
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {     // Header of a map without blocks
+                    channel.write(buffer);
+                }
+            }
+
+            try {
+                Files.move(temporary, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, sidecar, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Returns the path of the sidecar file of given map.
+     * @param mapFile map file
+     * @return path of the sidecar file
+     */
+    static Path sidecarOf(final Path mapFile) {
+        return mapFile.resolveSibling(mapFile.getFileName() + SIDECAR_SUFFIX);
+    }
+
+    /**
+     * Result of looking up the analysis of a map. If the analysis was not found, the map has to be analysed
+     * and the analysis stored through the lookup.
+     */
+    public class Lookup {
+        /**
+         * Absolute path of the map file
+         */
+        private final Path mapFile;
+        /**
+         * Signature of the map file at the time of the lookup
+         */
+        private final Signature signature;
+        /**
+         * Found analysis, or null
+         */
+        private final AnalysedMap analysedMap;
+        /**
+         * Flag indicating whether the stored analysis is written into the sidecar file as well
+         */
+        private final boolean useSidecar;
+
+        private Lookup(final Path mapFile, final Signature signature, final AnalysedMap analysedMap,
+                       final boolean useSidecar) {
+            this.mapFile = mapFile;
+            this.signature = signature;
+            this.analysedMap = analysedMap;
+            this.useSidecar = useSidecar;
+        }
+
+        /**
+         * Returns the found analysis of the map.
+         * @return analysed map, or null if the map has to be analysed
+         */
+        public AnalysedMap getAnalysedMap() {
+            return analysedMap;
+        }
+
+        /**
+         * Stores the analysis of the map, that started after this lookup. If the sidecar cannot be written,
+         * the analysis is kept in the memory only.
+         * @param analysedMap analysis of the map
+         */
+        public void store(final AnalysedMap analysedMap) {
+            entries.put(mapFile, new Entry(signature, analysedMap));
+            if (!useSidecar) {
+                return;
+            }
+
+            try {
+                writeSidecar(mapFile, signature, analysedMap);
+            } catch (IOException e) {
+                System.err.println("Map sidecar of " + mapFile + " cannot be written!\n" + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Analysed map kept in the memory, with the signature of the map file it was analysed from.
+     */
+    private static class Entry {
+
+        private final Signature signature;
+
+        private final AnalysedMap analysedMap;
+
+        private Entry(final Signature signature, final AnalysedMap analysedMap) {
+            this.signature = signature;
+            this.analysedMap = analysedMap;
+        }
+    }
+
+    /**
+     * What a map file is recognized by - it's size, time of the last modification and a checksum
+     * of it's beginning and end.
+     */
+    private static class Signature {
+
+        private final long size;
+
+        private final long lastModifiedMillis;
+
+        private final long checksum;
+
+        private Signature(final long size, final long lastModifiedMillis, final long checksum) {
+            this.size = size;
+            this.lastModifiedMillis = lastModifiedMillis;
+            this.checksum = checksum;
+        }
+
+        /**
+         * Reads the signature of given map file. Only the sampled beginning and end of the file are read.
+         * @param mapFile map file
+         * @return signature of the file
+         * @throws IOException when the file cannot be read
+         */
+        private static Signature of(final Path mapFile) throws IOException {
+            try (FileChannel channel = FileChannel.open(mapFile, StandardOpenOption.READ)) {
+                long size = channel.size();
+                CRC32C checksum = new CRC32C();
+                ByteBuffer sample = ByteBuffer.allocate(CHECKSUM_SAMPLE_SIZE);
+                readSample(channel, 0, sample);
+                checksum.update(sample.flip());
+                if (size > CHECKSUM_SAMPLE_SIZE) {
+                    readSample(channel, Math.max(size - CHECKSUM_SAMPLE_SIZE, CHECKSUM_SAMPLE_SIZE), sample.clear());
+                    checksum.update(sample.flip());
+                }
+
+                return new Signature(size, Files.getLastModifiedTime(mapFile).toMillis(), checksum.getValue());
+            }
+        }
+
+        /**
+         * Fills given buffer with the bytes of the file starting at given position, until the buffer is full
+         * or the file ends.
+         */
+        private static void readSample(final FileChannel channel, long position, final ByteBuffer sample)
+                throws IOException {
+            int read;
+            while (sample.hasRemaining() && (read = channel.read(sample, position)) > 0) {
+                position += read;
+            }
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Signature)) {
+                return false;
+            }
+
+            Signature signature = (Signature) other;
+            return size == signature.size && lastModifiedMillis == signature.lastModifiedMillis
+                    && checksum == signature.checksum;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(checksum);
+        }
+    }
+}
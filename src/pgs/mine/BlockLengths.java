@@ -0,0 +1,59 @@
+package pgs.mine;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Growable list of block lengths, stored as primitive integers.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+class BlockLengths implements IntConsumer {
+    /**
+     * Initial capacity of the list
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * Stored lengths
+     */
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    /**
+     * Number of stored lengths
+     */
+    private int size = 0;
+
+    @Override
+    public void accept(final int length) {
+        if (size == lengths.length) {
+            lengths = Arrays.copyOf(lengths, size * 2);
+        }
+        lengths[size++] = length;
+    }
+
+    /**
+     * Passes every stored length to given consumer, in the order they were added.
+     * @param consumer consumer of the lengths
+     */
+    void forEach(final IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(lengths[i]);
+        }
+    }
+
+    /**
+     * Returns a copy of the stored lengths, in the order they were added.
+     * @return stored lengths
+     */
+    int[] toArray() {
+        return Arrays.copyOf(lengths, size);
+    }
+
+    /**
+     * Returns the number of stored lengths.
+     * @return number of lengths
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,149 @@
+package pgs.mine;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queue of block lengths stored as primitive integers in a growable array, so a stored block takes 4 bytes
+ * instead of a {@link Block} object and a list node. Blocks are added by a single writer at a time and may be
+ * taken by any number of threads - a reader claims the next block by moving an atomic read cursor.
+ * The total length of the blocks not taken yet is maintained while adding and taking.
+ * <p>
+ * Taken blocks are not removed from the array, it holds every block that has been added.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+class BlockStore {
+    /**
+     * Initial capacity of the store
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * Value returned when there is no block to take
+     */
+    static final int NO_BLOCK = -1;
+    /**
+     * Stored lengths. Replaced by a bigger copy when full.
+     */
+    private volatile int[] lengths = new int[INITIAL_CAPACITY];
+    /**
+     * Number of added blocks. Written after the length is stored, so readers never see an unwritten length.
+     */
+    private volatile int size = 0;
+    /**
+     * Index of the next block to take
+     */
+    private final AtomicInteger readCursor = new AtomicInteger();
+    /**
+     * Total length of the blocks, that have not been taken yet
+     */
+    private final AtomicLong remainingLength = new AtomicLong();
+
+    /**
+     * Adds a block with given length to the end of the store.
+     * @param length length of the block
+     */
+    synchronized void add(final int length) {
+        int[] current = lengths;
+        if (size == current.length) {
+            if (size == Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Block store is full!");
+            }
+            current = Arrays.copyOf(current, (int) Math.min((long) size * 2, Integer.MAX_VALUE - 8));
+            lengths = current;
+        }
+
+        current[size] = length;
+        remainingLength.addAndGet(length);
+        size = size + 1;    // Publishing the block
+    }
+
+    /**
+     * Adds every remaining block of given buffer to the end of the store at once.
+     * @param blockLengths lengths of the blocks, the position of the buffer is not moved
+     * @param totalLength total length of the added blocks
+     */
+    synchronized void addAll(final IntBuffer blockLengths, final long totalLength) {
+        int count = blockLengths.remaining();
+        int[] current = lengths;
+        if ((long) size + count > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Block store is full!");
+        }
+        if (size + count > current.length) {
+            current = Arrays.copyOf(current, (int) Math.min(Math.max((long) current.length * 2, (long) size + count),
+                    Integer.MAX_VALUE - 8));
+            lengths = current;
+        }
+
+        blockLengths.duplicate().get(current, size, count);
+        remainingLength.addAndGet(totalLength);
+        size = size + count;    // Publishing the blocks
+    }
+
+    /**
+     * Takes the first block, that has not been taken yet.
+     * @return length of the block, or {@link #NO_BLOCK} if there is no block to take
+     */
+    int poll() {
+        while (true) {
+            int index = readCursor.get();
+            if (index >= size) {
+                return NO_BLOCK;
+            }
+
+            if (readCursor.compareAndSet(index, index + 1)) {
+                int length = lengths[index];    // Array read after size, so it already contains the index
+                remainingLength.addAndGet(-length);
+                return length;
+            }
+        }
+    }
+
+    /**
+     * Takes every block, that has not been taken yet, and throws it away.
+     */
+    void clear() {
+        int end = size;
+        int index;
+        do {
+            index = readCursor.get();
+            if (index >= end) {
+                return;
+            }
+        } while (!readCursor.compareAndSet(index, end));
+
+        int[] current = lengths;
+        long discarded = 0;
+        for (int i = index; i < end; i++) {
+            discarded += current[i];
+        }
+        remainingLength.addAndGet(-discarded);
+    }
+
+    /**
+     * Checks if there is any block to take.
+     * @return true, if the store is empty
+     */
+    boolean isEmpty() {
+        return readCursor.get() >= size;
+    }
+
+    /**
+     * Returns the number of blocks, that have not been taken yet.
+     * @return number of remaining blocks
+     */
+    int size() {
+        return Math.max(size - readCursor.get(), 0);
+    }
+
+    /**
+     * Returns the total length of the blocks, that have not been taken yet.
+     * @return total remaining length
+     */
+    long getRemainingLength() {
+        return remainingLength.get();
+    }
+}
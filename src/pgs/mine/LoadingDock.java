@@ -0,0 +1,133 @@
+package pgs.mine;
+
+import pgs.cargo.Lorry;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Loading dock at the mine entrance. A single steady lorry waits in the dock to be loaded. Lorries in different
+ * docks are loaded and replaced independently of each other.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class LoadingDock {
+    /**
+     * Number of the dock
+     */
+    private final int dockNumber;
+    /**
+     * Lorry, waiting in the dock to be filled up.
+     */
+    private volatile Lorry steadyLorry;
+    /**
+     * Lock guarding the replacement of the steady lorry.
+     */
+    private final Lock lorryLock = new ReentrantLock();
+    /**
+     * Condition signalled when the steady lorry is replaced.
+     */
+    private final Condition steadyLorryReplaced = lorryLock.newCondition();
+
+    /**
+     * Constructs an empty loading dock.
+     * @param dockNumber number of the dock
+     */
+    public LoadingDock(final int dockNumber) {
+        this.dockNumber = dockNumber;
+    }
+
+    /**
+     * Returns the number of this dock.
+     * @return number of the dock
+     */
+    public int getDockNumber() {
+        return dockNumber;
+    }
+
+    /**
+     * Returns currently steady Lorry in the dock.
+     * @return steady Lorry
+     */
+    public Lorry getSteadyLorry() {
+        return steadyLorry;
+    }
+
+    /**
+     * Returns the amount of material, that may still be reserved in the steady lorry.
+     * @return free space in the steady lorry, zero if there is no lorry
+     */
+    public int getFreeSpace() {
+        Lorry lorry = steadyLorry;
+        return lorry != null ? lorry.getUnreservedCapacity() : 0;
+    }
+
+    /**
+     * Places new steady lorry into the dock. If there is a steady lorry in the dock, it will be sent
+     * to unload it's cargo.
+     * @param newSteadyLorry new steady Lorry
+     * @return future result of lorry unloading or null
+     */
+    public Future<?> replaceSteadyLorry(final Lorry newSteadyLorry) {
+        lorryLock.lock();
+        try {
+            Lorry previousLorry = this.steadyLorry;
+            this.steadyLorry = newSteadyLorry;
+            steadyLorryReplaced.signalAll();
+            return previousLorry != null ? previousLorry.unloadCargo() : new FutureTask<>(() -> null);
+        } finally {
+            lorryLock.unlock();
+        }
+    }
+
+    /**
+     * Places new steady lorry into the dock instead of given lorry, whose space is already fully reserved.
+     * The reserved lorry is not sent away - it leaves once the reserved material is loaded. If given lorry is not
+     * the steady lorry anymore, it has already been replaced and nothing is done. If there is no lorry to place
+     * right now, the dock is left empty and the caller has to bring a lorry later.
+     * @param reservedLorry fully reserved lorry
+     * @param lorrySupplier supplier of the new steady lorry, called only if the lorry is replaced. It may return null,
+     *                      if there is no lorry to place right now
+     * @return false, if the dock was left empty, true otherwise
+     */
+    public boolean replaceReservedLorry(final Lorry reservedLorry, final Supplier<Lorry> lorrySupplier) {
+        lorryLock.lock();
+        try {
+            if (this.steadyLorry != reservedLorry) {
+                return true;
+            }
+
+            this.steadyLorry = lorrySupplier.get();
+            steadyLorryReplaced.signalAll();
+            return this.steadyLorry != null;
+        } finally {
+            lorryLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until given lorry is no longer the steady lorry in the dock, or has free space again, because it has
+     * already returned from it's trip and was placed into the dock again. If null is passed, waits until any lorry
+     * is placed into the empty dock.
+     * @param lorry lorry, that has to be replaced, or null
+     */
+    public void awaitLorryReplacement(final Lorry lorry) {
+        lorryLock.lock();
+        try {
+            while (this.steadyLorry == lorry && (lorry == null || lorry.isFullyReserved())) {
+                try {
+                    steadyLorryReplaced.await();
+                } catch (InterruptedException e) {
+                    System.err.println("Waiting for a new lorry was interrupted!\n" + e.getMessage());
+                }
+            }
+        } finally {
+            lorryLock.unlock();
+        }
+    }
+}
@@ -1,15 +1,24 @@
 package pgs.mine;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
 
 /**
- * Map represents input file with sources to mine. Valid input file consists of "x", "space" and line-separator
- * characters only.
+ * Map represents input file with sources to mine. Valid input file consists of "X", "space" and line-separator
+ * characters only. The file is read through memory mapping in a single pass, which validates it and finds
+ * the blocks of resources at the same time, so the size of the map is not limited by the heap. Large files
+ * may be scanned in parallel, split into chunks at line boundaries.
  *
  * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
  * @since 6.3.2021
@@ -17,53 +26,203 @@ import java.util.List;
 public class Map {
 
     /**
-     * Set of illegal characters that should not be located in the input file
+     * Character representing a resource
      */
-    private static final String ILLEGAL_CHARACTERS = "[^X ]+";
+    private static final byte RESOURCE = 'X';
+    /**
+     * Character representing free space
+     */
+    private static final byte FREE_SPACE = ' ';
+    /**
+     * Maximum number of bytes mapped into the memory at once
+     */
+    private static final long MAPPED_REGION_SIZE = 1L << 30;
+    /**
+     * Minimal number of bytes scanned by one parallel task
+     */
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    /**
+     * Number of chunks per thread when scanning in parallel, so threads finishing early can take more work
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+    /**
+     * Number of bytes read at once while looking for the end of a line
+     */
+    private static final int LINE_END_SEARCH_SIZE = 1 << 12;
     /**
      * Input map file
      */
     private final File mapFile;
 
     /**
-     * Creates an instance of input map file and validates it's content. Input map file has to contain only characters
-     * of "x", " " and line-separators. If the input file contains any different character, throws {@link IOException}.
+     * Creates an instance of input map file. Content of the file is validated while it is scanned
+     * by {@link #scanBlocks(IntConsumer)}. If the file does not exist, throws {@link IOException}.
      *
      * @param mapFile input map file
-     * @throws IOException when input map file contains not allowed characters
+     * @throws IOException when input map file does not exist or cannot be read
      */
     public Map(final File mapFile) throws IOException {
-        BufferedReader reader = new BufferedReader(new FileReader(mapFile));
-        String line;
-        while ((line = reader.readLine()) != null) {
-            if (line.matches(ILLEGAL_CHARACTERS)){
-                throw new IOException("Passed file is not valid input map file!");
-            }
+        if (mapFile == null || !mapFile.isFile() || !mapFile.canRead()) {
+            throw new IOException("Passed file is not a readable input map file!");
         }
 
         this.mapFile = mapFile;
     }
 
     /**
-     * Returns all lines in created input map file.
-     * @return list of input map file lines
+     * Scans the whole map file and passes the length of every found block of resources to given consumer,
+     * in the order they appear in the file. A block is a sequence of resources on a single line. Input map file
+     * has to contain only characters of "X", " " and line-separators, if it contains any different character,
+     * throws {@link IOException}. Blocks found before the illegal character may have already been passed
+     * to the consumer.
+     *
+     * @param blockConsumer consumer of the lengths of found blocks
+     * @throws IOException when input map file contains not allowed characters or cannot be read
+     */
+    public void scanBlocks(final IntConsumer blockConsumer) throws IOException {
+        scanBlocks(blockConsumer, 1);
+    }
+
+    /**
+     * Scans the map file like {@link #scanBlocks(IntConsumer)}, using up to {@code parallelism} threads. The file
+     * is split into line-aligned chunks, that are scanned in parallel, and their blocks are passed to the consumer
+     * in file order, from the calling thread. Files too small to be worth splitting are scanned sequentially.
+     *
+     * @param blockConsumer consumer of the lengths of found blocks
+     * @param parallelism maximum number of threads scanning the file
+     * @throws IOException when input map file contains not allowed characters or cannot be read
+     */
+    public void scanBlocks(final IntConsumer blockConsumer, final int parallelism) throws IOException {
+        try (FileChannel channel = FileChannel.open(mapFile.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (parallelism <= 1 || fileSize < 2 * MIN_CHUNK_SIZE) {
+                scanRange(channel, 0, fileSize, blockConsumer);
+                return;
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<ForkJoinTask<BlockLengths>> chunkScans = new ArrayList<>();
+                long chunkSize = Math.max(MIN_CHUNK_SIZE, fileSize / ((long) parallelism * CHUNKS_PER_THREAD));
+                long chunkStart = 0;
+                while (chunkStart < fileSize) {
+                    long chunkEnd = findLineEnd(channel, Math.min(chunkStart + chunkSize, fileSize));
+                    chunkScans.add(pool.submit(new ChunkScan(channel, chunkStart, chunkEnd)));
+                    chunkStart = chunkEnd;
+                }
+
+                for (ForkJoinTask<BlockLengths> chunkScan : chunkScans) {   // Merging in file order
+                    chunkScan.join().forEach(blockConsumer);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Scans given range of the file and passes found blocks to the consumer. Block at the end of the range
+     * is passed as well, so the range has to end at a line boundary or at the end of the file.
+     * @param channel channel of the map file
+     * @param start position of the first scanned byte
+     * @param end position after the last scanned byte
+     * @param blockConsumer consumer of the lengths of found blocks
+     * @throws IOException when the range contains not allowed characters or cannot be read
+     */
+    private static void scanRange(final FileChannel channel, final long start, final long end,
+                                  final IntConsumer blockConsumer) throws IOException {
+        int currentBlockSize = 0;
+
+        for (long regionStart = start; regionStart < end; regionStart += MAPPED_REGION_SIZE) {
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY,
+                    regionStart, Math.min(MAPPED_REGION_SIZE, end - regionStart));
+
+            for (int i = 0; i < region.limit(); i++) {
+                byte character = region.get(i);
+                if (character == RESOURCE) {    // Found resource, incrementing size of the block
+                    currentBlockSize++;
+                    continue;
+                }
+
+                if (character != FREE_SPACE && character != '\n' && character != '\r') {
+                    throw new IOException("Passed file is not valid input map file! Illegal character at position "
+                            + (regionStart + i) + ".");
+                }
+
+                if (currentBlockSize > 0) {  // Found free space or end of line, if there was block, create it
+                    blockConsumer.accept(currentBlockSize);
+                    currentBlockSize = 0;
+                }
+            }
+        }
+
+        if (currentBlockSize > 0) { // If range ended with block, create it
+            blockConsumer.accept(currentBlockSize);
+        }
+    }
+
+    /**
+     * Finds the position right after the first line separator at or after given position.
+     * @param channel channel of the map file
+     * @param position position to start searching from
+     * @return position of the next line start, or the size of the file, if there is no more line separator
+     * @throws IOException when the file cannot be read
+     */
+    private static long findLineEnd(final FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(LINE_END_SEARCH_SIZE);
+        while (position < channel.size()) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+
+        return channel.size();
+    }
+
+    /**
+     * Parallel scan of a line-aligned chunk of the map file.
      */
-    public List<String> getLines() {
-        if (mapFile == null) {
-            return null;
+    private static class ChunkScan extends RecursiveTask<BlockLengths> {
+        private static final long serialVersionUID = 1L;
+        /**
+         * Channel of the map file
+         */
+        private final FileChannel channel;
+        /**
+         * Position of the first byte of the chunk
+         */
+        private final long start;
+        /**
+         * Position after the last byte of the chunk
+         */
+        private final long end;
+
+        private ChunkScan(final FileChannel channel, final long start, final long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
         }
 
-        List<String> lines = new ArrayList<>();
-        String line;
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader(mapFile));
-            while ((line = reader.readLine()) != null) {
-                lines.add(line);
+        @Override
+        protected BlockLengths compute() {
+            BlockLengths blocks = new BlockLengths();
+            try {
+                scanRange(channel, start, end, blocks);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-            return lines;
-        } catch (IOException e) {
-            System.err.println("Error while reading input map file!\n" + e.getMessage());
-            return null;
+            return blocks;
         }
     }
 }
@@ -3,9 +3,13 @@ package pgs.mine;
 import pgs.cargo.Lorry;
 
 import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.Future;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Mine contains blocks of resources to be processed by the workers. Mined resources are taken away by
@@ -16,36 +20,66 @@ import java.util.concurrent.FutureTask;
  */
 public class Mine {
     /**
-     * Lorry, waiting at the mine entrance to be filled up.
+     * Loading docks at the mine entrance, each with one lorry waiting to be filled up.
      */
-    private Lorry steadyLorry;
+    private final List<LoadingDock> loadingDocks;
     /**
      * A map representing this mine's resources.
      */
     private final Map mineMap;
     /**
-     * Queue of resource blocks in this mine, that have not been processed yet.
+     * Lengths of resource blocks in this mine, that have not been processed yet.
      */
-    private Queue<Block> unprocessedBlocks;
+    private BlockStore unprocessedBlocks;
+    /**
+     * Flag indicating, that the analysis of the mine is in progress and more blocks may still be added.
+     */
+    private volatile boolean analysisInProgress = false;
+    /**
+     * Lock used for waiting on blocks, while the analysis is in progress.
+     */
+    private final Lock blocksLock = new ReentrantLock();
+    /**
+     * Condition signalled when a block is added or the analysis ends.
+     */
+    private final Condition blocksChanged = blocksLock.newCondition();
 
     /**
-     * Constructs a mine. It's resources will be represented by given map.
+     * Constructs a mine with a single loading dock. It's resources will be represented by given map.
      * @param mineMap map representing the resources of this mine
      */
     public Mine(final Map mineMap) {
+        this(mineMap, 1);
+    }
+
+    /**
+     * Constructs a mine with given number of loading docks. It's resources will be represented by given map.
+     * @param mineMap map representing the resources of this mine
+     * @param loadingDockCount number of loading docks
+     */
+    public Mine(final Map mineMap, final int loadingDockCount) {
         if (mineMap == null) {
             throw new InvalidParameterException("A mine map cannot be null!");
         }
+        if (loadingDockCount <= 0) {
+            throw new InvalidParameterException("A mine has to have at least one loading dock!");
+        }
 
         this.mineMap = mineMap;
+        this.unprocessedBlocks = new BlockStore();
+        List<LoadingDock> docks = new ArrayList<>(loadingDockCount);
+        for (int i = 0; i < loadingDockCount; i++) {
+            docks.add(new LoadingDock(i + 1));
+        }
+        this.loadingDocks = List.copyOf(docks);
     }
 
     /**
-     * Returns currently steady Lorry at the mine entrance.
+     * Returns currently steady Lorry in the first loading dock.
      * @return steady Lorry
      */
     public Lorry getSteadyLorry() {
-        return steadyLorry;
+        return loadingDocks.get(0).getSteadyLorry();
     }
 
     /**
@@ -61,7 +95,13 @@ public class Mine {
      * @param unprocessedBlocks new set of unprocessed blocks
      */
     public void setUnprocessedBlocks(final Queue<Block> unprocessedBlocks) {
-        this.unprocessedBlocks = unprocessedBlocks;
+        BlockStore blocks = new BlockStore();
+        if (unprocessedBlocks != null) {
+            for (Block block : unprocessedBlocks) {
+                blocks.add(block.getLength());
+            }
+        }
+        this.unprocessedBlocks = blocks;
     }
 
     /**
@@ -69,7 +109,7 @@ public class Mine {
      * @return true, if there are any unprocessed blocks, otherwise false
      */
     public boolean hasUnprocessedBlocks() {
-        return unprocessedBlocks != null && !unprocessedBlocks.isEmpty();
+        return !unprocessedBlocks.isEmpty();
     }
 
     /**
@@ -77,17 +117,91 @@ public class Mine {
      * @return first unprocessed block
      */
     public Block pollUnprocessedBlock() {
-        return unprocessedBlocks.poll();
+        int length = unprocessedBlocks.poll();
+        return length == BlockStore.NO_BLOCK ? null : new Block(length);
+    }
+
+    /**
+     * Removes the first unprocessed block from the queue and returns it. If the queue is empty and the analysis
+     * is still in progress, waits until the analysis finds another block.
+     * @return first unprocessed block, or null if there are no more blocks and no more will be found
+     */
+    public Block takeUnprocessedBlock() {
+        Block block = pollUnprocessedBlock();
+        if (block != null || !analysisInProgress) {
+            return block;
+        }
+
+        blocksLock.lock();
+        try {
+            while (true) {
+                boolean lastBlocksAdded = !analysisInProgress;  // Has to be read before polling, so no block is missed
+                block = pollUnprocessedBlock();
+                if (block != null || lastBlocksAdded) {
+                    return block;
+                }
+
+                try {
+                    blocksChanged.await();
+                } catch (InterruptedException e) {
+                    System.err.println("Waiting for the mine analysis was interrupted!\n" + e.getMessage());
+                }
+            }
+        } finally {
+            blocksLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the start of the mine analysis. Until {@link #completeAnalysis()} is called, workers taking blocks
+     * through {@link #takeUnprocessedBlock()} wait for more blocks instead of finishing.
+     */
+    public void beginAnalysis() {
+        analysisInProgress = true;
+    }
+
+    /**
+     * Marks the end of the mine analysis - no more blocks will be found. Wakes up everyone waiting for blocks.
+     */
+    public void completeAnalysis() {
+        blocksLock.lock();
+        try {
+            analysisInProgress = false;
+            blocksChanged.signalAll();
+        } finally {
+            blocksLock.unlock();
+        }
+    }
+
+    /**
+     * Checks if the mine analysis is still in progress.
+     * @return true, if more blocks may still be found
+     */
+    public boolean isAnalysisInProgress() {
+        return analysisInProgress;
+    }
+
+    /**
+     * Throws away every unprocessed block. Used when the simulation has to be stopped.
+     */
+    public void discardUnprocessedBlocks() {
+        unprocessedBlocks.clear();
     }
 
     /**
      * Returns number of unprocessed resources in the mine.
      * @return number of unprocessed resources
      */
-    public int getUnprocessedResourcesCount() {
-        return unprocessedBlocks.stream()
-                .mapToInt(Block::getLength)
-                .sum();
+    public long getUnprocessedResourcesCount() {
+        return unprocessedBlocks.getRemainingLength();
+    }
+
+    /**
+     * Returns number of unprocessed resource blocks in the mine.
+     * @return number of unprocessed blocks
+     */
+    public int getUnprocessedBlocksCount() {
+        return unprocessedBlocks.size();
     }
 
     /**
@@ -99,24 +213,75 @@ public class Mine {
             return;
         }
 
-        unprocessedBlocks.add(block);
+        addResourceBlock(block.getLength());
+    }
+
+    /**
+     * Adds new resource block with given length to the queue of unprocessed blocks. Only the length is stored,
+     * the block object is created when the block is taken from the queue.
+     * @param length length of the new resource block
+     */
+    public void addResourceBlock(final int length) {
+        unprocessedBlocks.add(length);
+        if (analysisInProgress) {   // Someone may be waiting for the block
+            blocksLock.lock();
+            try {
+                blocksChanged.signal();
+            } finally {
+                blocksLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds every block of an analysed map to the queue of unprocessed blocks at once.
+     * @param analysedMap analysed map of this mine
+     */
+    public void addResourceBlocks(final AnalysedMap analysedMap) {
+        unprocessedBlocks.addAll(analysedMap.getBlockLengths(), analysedMap.getResourceCount());
+        if (analysisInProgress) {   // Anyone may be waiting for the blocks
+            blocksLock.lock();
+            try {
+                blocksChanged.signalAll();
+            } finally {
+                blocksLock.unlock();
+            }
+        }
     }
 
     /**
-     * Places new steady lorry at the mine entrance. Only one lorry may be waiting at the entrance. If there is
-     * one steady lorry at the entrance and is filled up to a maximum load, it will be sent to unload to given
-     * cargo vehicle. If the steady Lorry is not filled up, the replacement will not be done.
+     * Places new steady lorry into the first loading dock. If there is a steady lorry in the dock,
+     * it will be sent to unload it's cargo.
      * @param newSteadyLorry new steady Lorry
      * @return future result of lorry unloading or null
      */
-    public synchronized Future<?> replaceSteadyLorry(final Lorry newSteadyLorry) {
-        if (this.steadyLorry != null) {
-            Future<?> unloadingResult =  this.steadyLorry.unloadCargo();
-            this.steadyLorry = newSteadyLorry;
-            return unloadingResult;
+    public Future<?> replaceSteadyLorry(final Lorry newSteadyLorry) {
+        return loadingDocks.get(0).replaceSteadyLorry(newSteadyLorry);
+    }
+
+    /**
+     * Returns every loading dock of this mine.
+     * @return loading docks
+     */
+    public List<LoadingDock> getLoadingDocks() {
+        return loadingDocks;
+    }
+
+    /**
+     * Selects the loading dock, whose steady lorry has the most free space.
+     * @return least loaded dock
+     */
+    public LoadingDock selectLoadingDock() {
+        LoadingDock selectedDock = loadingDocks.get(0);
+        int selectedFreeSpace = selectedDock.getFreeSpace();
+        for (int i = 1; i < loadingDocks.size(); i++) {
+            int freeSpace = loadingDocks.get(i).getFreeSpace();
+            if (freeSpace > selectedFreeSpace) {
+                selectedDock = loadingDocks.get(i);
+                selectedFreeSpace = freeSpace;
+            }
         }
 
-        this.steadyLorry = newSteadyLorry;
-        return new FutureTask<>(() -> null);
+        return selectedDock;
     }
 }
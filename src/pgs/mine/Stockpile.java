@@ -0,0 +1,236 @@
+package pgs.mine;
+
+import pgs.metrics.Histogram;
+import pgs.metrics.MetricsRegistry;
+import pgs.time.TimeSource;
+
+import java.security.InvalidParameterException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded stockpile of processed resources at the mine entrance. Workers deposit the resources of their processed
+ * blocks and go back to mining, loaders take them and load them into the lorries. When the stockpile is full,
+ * the workers wait for space, when it is empty, the loaders wait for material - the time spent waiting on either
+ * side tells, whether mining or loading is the bottleneck.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class Stockpile {
+    /**
+     * Maximum number of resources on the stockpile
+     */
+    private final int capacity;
+    /**
+     * Number of resources on the stockpile
+     */
+    private int depth = 0;
+    /**
+     * Largest number of resources, that has been on the stockpile at once
+     */
+    private int maxDepth = 0;
+    /**
+     * Flag indicating, that no more resources will be deposited
+     */
+    private boolean closed = false;
+    /**
+     * Total number of nanoseconds of the simulated time the workers waited for space
+     */
+    private long depositWaitNanos = 0;
+    /**
+     * Total number of nanoseconds of the simulated time the loaders waited for material
+     */
+    private long takeWaitNanos = 0;
+    /**
+     * Lock guarding the stockpile
+     */
+    private final Lock stockpileLock = new ReentrantLock();
+    /**
+     * Condition signalled when resources are taken from the stockpile
+     */
+    private final Condition spaceFreed = stockpileLock.newCondition();
+    /**
+     * Condition signalled when resources are deposited, or the stockpile is closed
+     */
+    private final Condition materialDeposited = stockpileLock.newCondition();
+    /**
+     * Source of the time the waiting is measured in
+     */
+    private final TimeSource timeSource;
+    /**
+     * Histogram of the microseconds the workers waited for space
+     */
+    private final Histogram depositWaitTimes;
+    /**
+     * Histogram of the microseconds the loaders waited for material
+     */
+    private final Histogram takeWaitTimes;
+
+    /**
+     * Creates an empty stockpile reporting it's depth and the time spent waiting on it into given registry.
+     * @param capacity maximum number of resources on the stockpile
+     * @param metrics registry of the metrics
+     * @param timeSource source of the time the waiting is measured in
+     */
+    public Stockpile(final int capacity, final MetricsRegistry metrics, final TimeSource timeSource) {
+        if (capacity <= 0) {
+            throw new InvalidParameterException("Stockpile capacity has to be positive!");
+        }
+
+        this.capacity = capacity;
+        this.timeSource = timeSource;
+        this.depositWaitTimes = metrics.histogram("stockpile_deposit_wait_us");
+        this.takeWaitTimes = metrics.histogram("stockpile_take_wait_us");
+        metrics.gauge("stockpile_depth", this::getDepth);
+    }
+
+    /**
+     * Deposits given number of resources onto the stockpile. If there is not enough space, deposits as much
+     * as fits and waits until the loaders make space for the rest. Must not be called after {@link #close()}.
+     * @param amount number of deposited resources
+     */
+    public void deposit(final int amount) {
+        stockpileLock.lock();
+        try {
+            int remaining = amount;
+            while (remaining > 0) {
+                long waitStart = timeSource.nanoTime();
+                while (depth == capacity) {
+                    try {
+                        spaceFreed.await();
+                    } catch (InterruptedException e) {
+                        System.err.println("Waiting for space on the stockpile was interrupted!\n" + e.getMessage());
+                    }
+                }
+                recordWait(depositWaitTimes, waitStart, true);
+
+                int deposited = Math.min(remaining, capacity - depth);
+                depth += deposited;
+                maxDepth = Math.max(maxDepth, depth);
+                remaining -= deposited;
+                materialDeposited.signalAll();
+            }
+        } finally {
+            stockpileLock.unlock();
+        }
+    }
+
+    /**
+     * Takes up to given number of resources from the stockpile. If it is empty, waits until something is deposited.
+     * @param maxAmount maximum number of taken resources
+     * @return number of taken resources, zero once the stockpile is closed and empty
+     */
+    public int take(final int maxAmount) {
+        stockpileLock.lock();
+        try {
+            long waitStart = timeSource.nanoTime();
+            while (depth == 0 && !closed) {
+                try {
+                    materialDeposited.await();
+                } catch (InterruptedException e) {
+                    System.err.println("Waiting for material on the stockpile was interrupted!\n" + e.getMessage());
+                }
+            }
+            if (depth == 0) {
+                return 0;   // Closed, there is nothing more to wait for
+            }
+            recordWait(takeWaitTimes, waitStart, false);
+
+            int taken = Math.min(Math.max(maxAmount, 1), depth);
+            depth -= taken;
+            spaceFreed.signalAll();
+            return taken;
+        } finally {
+            stockpileLock.unlock();
+        }
+    }
+
+    /**
+     * Records the time waited since given start. Has to be called with the stockpile lock held.
+     */
+    private void recordWait(final Histogram waitTimes, final long waitStart, final boolean depositing) {
+        long waitNanos = timeSource.nanoTime() - waitStart;
+        waitTimes.record(TimeUnit.NANOSECONDS.toMicros(waitNanos));
+        if (depositing) {
+            depositWaitNanos += waitNanos;
+        } else {
+            takeWaitNanos += waitNanos;
+        }
+    }
+
+    /**
+     * Lets the loaders know, that nothing more will be deposited. They take what is left and then stop.
+     */
+    public void close() {
+        stockpileLock.lock();
+        try {
+            closed = true;
+            materialDeposited.signalAll();
+        } finally {
+            stockpileLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the maximum number of resources on the stockpile.
+     * @return capacity of the stockpile
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of resources on the stockpile.
+     * @return number of resources
+     */
+    public int getDepth() {
+        stockpileLock.lock();
+        try {
+            return depth;
+        } finally {
+            stockpileLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the largest number of resources, that has been on the stockpile at once.
+     * @return largest depth
+     */
+    public int getMaxDepth() {
+        stockpileLock.lock();
+        try {
+            return maxDepth;
+        } finally {
+            stockpileLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total number of milliseconds of the simulated time the workers waited for space.
+     * @return time spent waiting for space
+     */
+    public long getDepositWaitMillis() {
+        stockpileLock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(depositWaitNanos);
+        } finally {
+            stockpileLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total number of milliseconds of the simulated time the loaders waited for material.
+     * @return time spent waiting for material
+     */
+    public long getTakeWaitMillis() {
+        stockpileLock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(takeWaitNanos);
+        } finally {
+            stockpileLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package pgs.random;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of the durations of an activity, e.g. processing of a resource or a transport, in milliseconds.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public interface Distribution {
+    /**
+     * Uniform distribution of whole milliseconds between 1 and the maximum duration
+     */
+    Distribution UNIFORM = new UniformDistribution();
+    /**
+     * Exponential distribution with the mean of half the maximum duration, cut off at the maximum
+     */
+    Distribution EXPONENTIAL = new ExponentialDistribution();
+    /**
+     * Prefix of the distribution description, that is followed by the path to the histogram
+     */
+    String EMPIRICAL_PREFIX = "empirical:";
+
+    /**
+     * Draws the next duration.
+     * @param random random stream to draw from
+     * @param maxMillis maximum duration configured for the actor
+     * @return duration in milliseconds, at least 1
+     */
+    int sample(SplittableRandom random, int maxMillis);
+
+    /**
+     * Creates the distribution with given description - "uniform", "exponential" or "empirical:" followed
+     * by the path to a histogram file, see {@link EmpiricalDistribution#load(java.nio.file.Path)}.
+     * @param description description of the distribution
+     * @return distribution
+     * @throws IOException if the histogram cannot be read
+     * @throws IllegalArgumentException if the description is unknown
+     */
+    static Distribution parse(final String description) throws IOException {
+        if (description.equalsIgnoreCase("uniform")) {
+            return UNIFORM;
+        }
+        if (description.equalsIgnoreCase("exponential")) {
+            return EXPONENTIAL;
+        }
+        if (description.startsWith(EMPIRICAL_PREFIX)) {
+            return EmpiricalDistribution.load(Paths.get(description.substring(EMPIRICAL_PREFIX.length())));
+        }
+
+        throw new IllegalArgumentException("Unknown distribution: " + description);
+    }
+}
@@ -0,0 +1,45 @@
+package pgs.random;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws the durations of one actor's activity from it's own random stream. Has to be used by one thread
+ * at a time, which holds for an actor performing one task at a time.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class DurationSampler {
+    /**
+     * Random stream of the actor
+     */
+    private final SplittableRandom random;
+    /**
+     * Distribution of the durations
+     */
+    private final Distribution distribution;
+    /**
+     * Maximum duration configured for the actor
+     */
+    private final int maxMillis;
+
+    /**
+     * Creates a sampler drawing from given stream.
+     * @param random random stream of the actor
+     * @param distribution distribution of the durations
+     * @param maxMillis maximum duration configured for the actor
+     */
+    public DurationSampler(final SplittableRandom random, final Distribution distribution, final int maxMillis) {
+        this.random = random;
+        this.distribution = distribution;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * Draws the next duration.
+     * @return duration in milliseconds
+     */
+    public int next() {
+        return distribution.sample(random, maxMillis);
+    }
+}
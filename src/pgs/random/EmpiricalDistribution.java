@@ -0,0 +1,125 @@
+package pgs.random;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Distribution given by a histogram of measured durations. Each bin is drawn with the probability given by
+ * it's weight. The configured maximum of the actor is ignored - the histogram says everything.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class EmpiricalDistribution implements Distribution {
+    /**
+     * Durations of the bins in milliseconds
+     */
+    private final int[] durations;
+    /**
+     * Sum of the weights of the bins up to and including each bin
+     */
+    private final long[] cumulativeWeights;
+    /**
+     * Number of bins with a positive weight
+     */
+    private final int binCount;
+    /**
+     * Description of the distribution
+     */
+    private final String description;
+
+    /**
+     * Creates the distribution from a histogram.
+     * @param durations durations of the bins in milliseconds, all positive
+     * @param weights weights of the bins, all non-negative and at least one positive
+     * @param description description of the distribution
+     */
+    public EmpiricalDistribution(final int[] durations, final long[] weights, final String description) {
+        if (durations.length != weights.length || durations.length == 0) {
+            throw new IllegalArgumentException("Histogram has to have the same positive number of durations and weights!");
+        }
+
+        int bins = 0;
+        long total = 0;
+        this.durations = new int[durations.length];
+        this.cumulativeWeights = new long[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            if (durations[i] <= 0 || weights[i] < 0) {
+                throw new IllegalArgumentException("Histogram durations have to be positive and weights non-negative!");
+            }
+            if (weights[i] == 0) {
+                continue;   // Never drawn, leaving it out keeps the cumulative weights increasing
+            }
+
+            total += weights[i];
+            this.durations[bins] = durations[i];
+            this.cumulativeWeights[bins++] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Histogram has to have a positive total weight!");
+        }
+        this.binCount = bins;
+        this.description = description;
+    }
+
+    /**
+     * Loads the histogram from a text file. Every non-empty line holds a duration in milliseconds and it's weight,
+     * separated by whitespace. Lines starting with '#' are ignored.
+     * @param histogramFile file with the histogram
+     * @return distribution given by the histogram
+     * @throws IOException if the file cannot be read or is not a valid histogram
+     */
+    public static EmpiricalDistribution load(final Path histogramFile) throws IOException {
+        int[] durations = new int[16];
+        long[] weights = new long[16];
+        int bins = 0;
+        try (BufferedReader reader = Files.newBufferedReader(histogramFile)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] columns = line.split("\\s+");
+                if (columns.length != 2) {
+                    throw new IOException("Invalid histogram line: " + line);
+                }
+                if (bins == durations.length) {
+                    durations = Arrays.copyOf(durations, bins * 2);
+                    weights = Arrays.copyOf(weights, bins * 2);
+                }
+                try {
+                    durations[bins] = Integer.parseInt(columns[0]);
+                    weights[bins] = Long.parseLong(columns[1]);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid histogram line: " + line, e);
+                }
+                bins++;
+            }
+        }
+
+        try {
+            return new EmpiricalDistribution(Arrays.copyOf(durations, bins), Arrays.copyOf(weights, bins),
+                    EMPIRICAL_PREFIX + histogramFile);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int sample(final SplittableRandom random, final int maxMillis) {
+        long drawn = random.nextLong(cumulativeWeights[binCount - 1]);
+        int bin = Arrays.binarySearch(cumulativeWeights, 0, binCount, drawn + 1);  // First bin, whose cumulative weight exceeds drawn
+        return durations[bin >= 0 ? bin : -bin - 1];
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
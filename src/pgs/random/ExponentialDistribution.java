@@ -0,0 +1,25 @@
+package pgs.random;
+
+import java.util.SplittableRandom;
+
+/**
+ * Exponential distribution with the mean of half the maximum duration. Most activities are short, with a long
+ * tail of slow ones. Durations are cut off at the maximum, so the configured maximum still holds.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+class ExponentialDistribution implements Distribution {
+
+    @Override
+    public int sample(final SplittableRandom random, final int maxMillis) {
+        double mean = maxMillis / 2.0;
+        double duration = -mean * Math.log(1 - random.nextDouble());     // nextDouble is below 1, never log(0)
+        return (int) Math.min(maxMillis, Math.max(1, Math.round(duration)));
+    }
+
+    @Override
+    public String toString() {
+        return "exponential";
+    }
+}
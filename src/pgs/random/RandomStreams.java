@@ -0,0 +1,77 @@
+package pgs.random;
+
+import java.util.SplittableRandom;
+
+/**
+ * Source of the random streams of the actors of one simulation. Every actor has it's own stream, derived from
+ * the master seed and the actor's ID only, so the same seed gives every actor the same durations, no matter
+ * the order, in which the actors are created.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public final class RandomStreams {
+    /**
+     * Master seed of all streams
+     */
+    private final long masterSeed;
+    /**
+     * Distribution of the resource processing times
+     */
+    private final Distribution processingTimeDistribution;
+    /**
+     * Distribution of the transport times
+     */
+    private final Distribution transportTimeDistribution;
+
+    /**
+     * Creates the source of streams with given master seed and distributions.
+     * @param masterSeed master seed of all streams
+     * @param processingTimeDistribution distribution of the resource processing times, null for uniform
+     * @param transportTimeDistribution distribution of the transport times, null for uniform
+     */
+    public RandomStreams(final long masterSeed, final Distribution processingTimeDistribution,
+                         final Distribution transportTimeDistribution) {
+        this.masterSeed = masterSeed;
+        this.processingTimeDistribution = processingTimeDistribution != null ? processingTimeDistribution : Distribution.UNIFORM;
+        this.transportTimeDistribution = transportTimeDistribution != null ? transportTimeDistribution : Distribution.UNIFORM;
+    }
+
+    /**
+     * Creates the random stream of the actor with given ID.
+     * @param actorId ID of the actor
+     * @return random stream of the actor
+     */
+    public SplittableRandom forActor(final int actorId) {
+        return new SplittableRandom(mix(masterSeed + actorId * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Creates the sampler of the resource processing times of the actor with given ID.
+     * @param actorId ID of the actor
+     * @param maxMillis maximum processing time of one resource
+     * @return sampler of the processing times
+     */
+    public DurationSampler processingTimes(final int actorId, final int maxMillis) {
+        return new DurationSampler(forActor(actorId), processingTimeDistribution, maxMillis);
+    }
+
+    /**
+     * Creates the sampler of the transport times of the actor with given ID.
+     * @param actorId ID of the actor
+     * @param maxMillis maximum transport time
+     * @return sampler of the transport times
+     */
+    public DurationSampler transportTimes(final int actorId, final int maxMillis) {
+        return new DurationSampler(forActor(actorId), transportTimeDistribution, maxMillis);
+    }
+
+    /**
+     * Scrambles the bits of given value, so the seeds of actors with neighbouring IDs are not related.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
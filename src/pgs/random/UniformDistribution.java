@@ -0,0 +1,22 @@
+package pgs.random;
+
+import java.util.SplittableRandom;
+
+/**
+ * Uniform distribution of whole milliseconds between 1 and the maximum duration.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+class UniformDistribution implements Distribution {
+
+    @Override
+    public int sample(final SplittableRandom random, final int maxMillis) {
+        return random.nextInt(maxMillis) + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "uniform";
+    }
+}
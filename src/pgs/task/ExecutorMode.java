@@ -0,0 +1,20 @@
+package pgs.task;
+
+/**
+ * Kind of threads, that parallel tasks of workers and lorries are executed on.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public enum ExecutorMode {
+    /**
+     * Every task runs on a platform thread from a cached thread pool.
+     */
+    CACHED,
+    /**
+     * Every task runs on it's own virtual thread. Requires Java 21 or newer, older runtimes fall back
+     * to {@link #CACHED}. The blocking hand-offs between the actors are guarded by locks instead of monitors,
+     * so a virtual thread waiting in them does not pin it's carrier thread.
+     */
+    VIRTUAL
+}
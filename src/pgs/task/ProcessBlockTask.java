@@ -1,10 +1,14 @@
 package pgs.task;
 
-import pgs.Logger;
+import pgs.SimulationContext;
+import pgs.log.EventType;
 import pgs.PerformsTask;
+import pgs.jfr.BlockProcessingEvent;
+import pgs.metrics.Counter;
+import pgs.metrics.MetricsRegistry;
 import pgs.mine.Block;
-
-import java.util.Random;
+import pgs.random.DurationSampler;
+import pgs.worker.Worker;
 
 /**
  * Parallel task of processing of given resource block.
@@ -13,6 +17,10 @@ import java.util.Random;
  * @since 7.3.2021
  */
 public class ProcessBlockTask implements Runnable {
+    /**
+     * Simulation the task is performed in
+     */
+    private final SimulationContext context;
     /**
      * Processor performing this task
      */
@@ -22,9 +30,9 @@ public class ProcessBlockTask implements Runnable {
      */
     private final Block processedBlock;
     /**
-     * Maximum time in milliseconds it may take to process a single resource in a block
+     * Sampler of the times in milliseconds it takes to process a single resource in a block
      */
-    private final int maxResourceProcessingTime;
+    private final DurationSampler processingTimes;
     /**
      * Number of seconds it took to process the entire block of resources
      */
@@ -33,41 +41,60 @@ public class ProcessBlockTask implements Runnable {
      * Action to perform, after the block is processed
      */
     private final Runnable afterBlockProcessed;
+    /**
+     * Counter of the resources processed by the processor
+     */
+    private final Counter processedResources;
 
     /**
      * Creates new task to process a block of resources. Each resource in given block will be processed by a {@code processor}
-     * for maximum of {@code maxResourceProcessingTime} seconds. After the block is processed, worker will preform {@code afterBlockProcessed}
+     * for a time drawn from {@code processingTimes}. After the block is processed, worker will preform {@code afterBlockProcessed}
      * action. If this action is null, worker will just finish the task.
+     * @param context simulation the task is performed in
      * @param processor object performing this task
      * @param processedBlock block of resources to process
-     * @param maxResourceProcessingTime maximum number of milliseconds it will take to process one resource in given block
+     * @param processingTimes sampler of the times in milliseconds it takes to process one resource in given block
      * @param afterBlockProcessed task to perform after the block is processed - may be null
      */
-    public ProcessBlockTask(final PerformsTask processor, final Block processedBlock, final int maxResourceProcessingTime, final Runnable afterBlockProcessed) {
+    public ProcessBlockTask(final SimulationContext context, final PerformsTask processor, final Block processedBlock,
+                            final DurationSampler processingTimes, final Runnable afterBlockProcessed) {
+        this.context = context;
         this.processor = processor;
         this.processedBlock = processedBlock;
-        this.maxResourceProcessingTime = maxResourceProcessingTime;
+        this.processingTimes = processingTimes;
         this.afterBlockProcessed = afterBlockProcessed;
+        this.processedResources = context.getMetrics().counter(
+                MetricsRegistry.labelled(Worker.RESOURCES_PROCESSED_METRIC, "worker", processor.getId()));
     }
 
     @Override
     public void run() {
+        BlockProcessingEvent event = context.getConfig().isJfrEventsEnabled() ? new BlockProcessingEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+
         for (int i = 0; i < processedBlock.getLength(); i++) {
             int resourceProcessingTime = getNextResourceProcessingTime();
 
             try {
-                Thread.sleep(resourceProcessingTime); // Simulating processing of the resource
+                context.getTimeSource().sleep(resourceProcessingTime); // Simulating processing of the resource
             } catch (InterruptedException e) {
                 System.err.println("Resource processor " + processor.getId() + " was interrupted during resource processing!\n" + e.getMessage());
             }
 
             this.blockProcessingTime += resourceProcessingTime;
-            Logger.getInstance().logEvent(
-                    processor, "Resource processing finished (took " + resourceProcessingTime + " ms)");
+            processedResources.increment();
+            context.getLogger().logEvent(processor, EventType.RESOURCE_PROCESSED, resourceProcessingTime);
         }
 
-        Logger.getInstance().logEvent(
-                processor, "Block processing finished (took " + blockProcessingTime + " ms)");
+        context.getLogger().logEvent(processor, EventType.BLOCK_PROCESSED, blockProcessingTime);
+        if (event != null) {
+            event.workerId = processor.getId();
+            event.resources = processedBlock.getLength();
+            event.processingMillis = blockProcessingTime;
+            event.commit();
+        }
 
         if (afterBlockProcessed != null) { // If we were supposed to do something after processing the block, we do it
             afterBlockProcessed.run();
@@ -81,6 +108,6 @@ public class ProcessBlockTask implements Runnable {
      * @return number of seconds it will take to process next resource
      */
     private int getNextResourceProcessingTime() {
-        return new Random().nextInt(this.maxResourceProcessingTime) + 1;
+        return processingTimes.next();
     }
 }
@@ -0,0 +1,52 @@
+package pgs.task;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory of executors running parallel tasks of the simulation.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class TaskExecutors {
+
+    private TaskExecutors() {
+    }
+
+    /**
+     * Creates new executor of given mode. Idle threads of a cached executor are kept alive
+     * for given amount of time.
+     * @param mode mode of the executor
+     * @param keepAliveMillis number of milliseconds an idle cached thread is kept alive
+     * @return new executor
+     */
+    public static ExecutorService create(final ExecutorMode mode, final long keepAliveMillis) {
+        if (mode == ExecutorMode.VIRTUAL) {
+            ExecutorService executor = createVirtualThreadExecutor();
+            if (executor != null) {
+                return executor;
+            }
+            System.out.println("Virtual threads are not supported by this Java runtime. Falling back to cached threads...");
+        }
+
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+        executor.setKeepAliveTime(keepAliveMillis, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    /**
+     * Creates an executor starting new virtual thread for each task. The executor is looked up reflectively,
+     * so the simulation still runs on runtimes without virtual threads.
+     * @return virtual thread executor, or null if virtual threads are not available
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {   // Missing or disabled (preview) virtual threads
+            return null;
+        }
+    }
+}
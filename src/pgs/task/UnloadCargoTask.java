@@ -1,10 +1,11 @@
 package pgs.task;
 
-import pgs.Logger;
+import pgs.SimulationContext;
+import pgs.log.EventType;
 import pgs.cargo.CargoVehicle;
-import pgs.cargo.Ferry;
-
-import java.util.Random;
+import pgs.cargo.RiverCrossing;
+import pgs.jfr.LorryTripEvent;
+import pgs.random.DurationSampler;
 
 /**
  * Parallel task of unloading cargo from the vehicle.
@@ -13,69 +14,108 @@ import java.util.Random;
  * @since 7.3.2021
  */
 public class UnloadCargoTask implements Runnable {
+    /**
+     * Simulation the task is performed in.
+     */
+    private final SimulationContext context;
     /**
      * Object performing the unload task.
      */
     private final CargoVehicle<?> performer;
     /**
-     * Maximum number of seconds it will take to transport to the cargo to the destination.
+     * Sampler of the times in milliseconds it takes to transport the cargo to the destination.
      */
-    private final int maxTransportTime;
+    private final DurationSampler transportTimes;
     /**
-     * A ferry on the way to unload the vehicle.
+     * A river crossing on the way to unload the vehicle.
      */
-    private final Ferry ferryOnTheWay;
+    private final RiverCrossing crossingOnTheWay;
 
     /**
      * Creates new task to unload a cargo. There will be {@code cargoSize} of cargo unloaded by {@code performer}. The cargo will be
-     * transported for maximum of {@code maxTransportTime} milliseconds.
+     * transported for a time drawn from {@code transportTimes}.
+     * @param context simulation the task is performed in
      * @param performer object performing this task
-     * @param maxTransportTime maximum transport time
-     * @param ferryOnTheWay ferry to load the performer to, to cross the river - may be null, if not unloading across the river
+     * @param transportTimes sampler of the transport times
+     * @param crossingOnTheWay river crossing, where the performer boards a ferry - may be null, if not unloading across the river
      */
-    public UnloadCargoTask(final CargoVehicle<?> performer, final int maxTransportTime, final Ferry ferryOnTheWay) {
+    public UnloadCargoTask(final SimulationContext context, final CargoVehicle<?> performer,
+                           final DurationSampler transportTimes, final RiverCrossing crossingOnTheWay) {
+        this.context = context;
         this.performer = performer;
-        this.maxTransportTime = maxTransportTime;
-        this.ferryOnTheWay = ferryOnTheWay;
+        this.transportTimes = transportTimes;
+        this.crossingOnTheWay = crossingOnTheWay;
     }
 
     @Override
     public void run() {
+        LorryTripEvent event = context.getConfig().isJfrEventsEnabled() ? new LorryTripEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+
         int transportTime = getNextTransportTime();
 
         try {
-            Thread.sleep(transportTime); // Simulating the transportation process
+            context.getTimeSource().sleep(transportTime); // Simulating the transportation process
         } catch (InterruptedException e) {
             System.err.println("Cargo transporter " + performer.getId() + " was interrupted during cargo transportation!\n" + e.getMessage());
         }
 
-        if (ferryOnTheWay == null) {
-            Logger.getInstance().logEvent(performer, "Vehicle arrived to the unload destination " +
-                    "and unloaded cargo. It took " + transportTime + " ms.");
+        if (event != null) {
+            event.vehicleId = performer.getId();
+            event.resources = performer.getCurrentLoad();
+            event.toFerryMillis = transportTime;
+        }
+
+        if (crossingOnTheWay == null) {
+            context.getLogger().logEvent(performer, EventType.VEHICLE_UNLOADED, transportTime);
+            commitTripEvent(event, 0, true);
+            performer.setTaskDone();
             return;
         } else {
-            Logger.getInstance().logEvent(performer, "Vehicle arrived to the " + Ferry.class.getSimpleName() +
-                    " to cross the river. It took " + transportTime + " ms.");
+            context.getLogger().logEvent(performer, EventType.VEHICLE_AT_FERRY, transportTime);
         }
 
-        ferryOnTheWay.loadCargo(performer); // The ferry is not null, so the performer has to be loaded onto the ferry - may block
+        if (!crossingOnTheWay.cross(performer)) { // The crossing is not null, so the performer has to be loaded onto a ferry - may block
+            commitTripEvent(event, 0, false);
+            performer.setTaskDone();    // Crossing was cancelled, cargo will not be delivered
+            return;
+        }
 
         transportTime = getNextTransportTime(); // Unloaded from the ferry, transporting the cargo
         try {
-            Thread.sleep(transportTime); // Simulating the transport to the station
+            context.getTimeSource().sleep(transportTime); // Simulating the transport to the station
         } catch (InterruptedException e) {
             System.err.println("Cargo transporter " + performer.getId() + " was interrupted during it's return!\n" + e.getMessage());
         }
 
-        Logger.getInstance().logEvent(performer, "Vehicle arrived to it's destination. It took " + transportTime + " ms.");
+        context.getLogger().logEvent(performer, EventType.VEHICLE_AT_DESTINATION, transportTime);
+        commitTripEvent(event, transportTime, true);
         performer.setTaskDone();
     }
 
+    /**
+     * Finishes the JFR event of the trip. Has to be done before the performer is set free for another trip.
+     * @param event started event, may be null
+     * @param toDestinationTime number of milliseconds the transport from the ferry took
+     * @param delivered flag indicating, that the cargo reached the destination
+     */
+    private void commitTripEvent(final LorryTripEvent event, final int toDestinationTime, final boolean delivered) {
+        if (event == null) {
+            return;
+        }
+
+        event.toDestinationMillis = toDestinationTime;
+        event.delivered = delivered;
+        event.commit();
+    }
+
     /**
      * Returns number of seconds it will take to transport the cargo.
      * @return number of seconds it will take to transport the cargo.
      */
     private int getNextTransportTime() {
-        return new Random().nextInt(this.maxTransportTime) + 1;
+        return transportTimes.next();
     }
 }
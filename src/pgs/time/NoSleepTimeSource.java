@@ -0,0 +1,27 @@
+package pgs.time;
+
+/**
+ * Time source running in real time, whose sleeps return immediately. The simulation then runs as fast
+ * as the synchronization between the actors allows. Timeouts are kept in real time, so the actors still
+ * give up waiting for each other.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+class NoSleepTimeSource implements TimeSource {
+
+    @Override
+    public void sleep(final long millis) {
+        // Activities take no time
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public long toRealNanos(final long simulatedNanos) {
+        return simulatedNanos;
+    }
+}
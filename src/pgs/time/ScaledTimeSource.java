@@ -0,0 +1,71 @@
+package pgs.time;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time source running given number of times faster than the real time. Every sleep takes the scaled
+ * real time and the simulated time runs faster by the same factor, so the simulated durations are the same
+ * as with the real time.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class ScaledTimeSource implements TimeSource {
+    /**
+     * Number of simulated nanoseconds passing in one real nanosecond
+     */
+    private final double speedup;
+    /**
+     * Real time, when the simulated time started running faster
+     */
+    private final long realOrigin;
+
+    /**
+     * Creates a time source running given number of times faster than the real time.
+     * @param speedup number of simulated nanoseconds passing in one real nanosecond, 1 for the real time
+     */
+    public ScaledTimeSource(final double speedup) {
+        if (!(speedup > 0) || Double.isInfinite(speedup)) {
+            throw new IllegalArgumentException("Time speedup has to be a positive number!");
+        }
+
+        this.speedup = speedup;
+        this.realOrigin = System.nanoTime();
+    }
+
+    @Override
+    public void sleep(final long millis) throws InterruptedException {
+        if (speedup == 1) {
+            Thread.sleep(millis);
+            return;
+        }
+
+        long realNanos = toRealNanos(millis * 1_000_000);  // Thread.sleep would round sub-millisecond sleeps
+        long deadline = System.nanoTime() + realNanos;
+        for (long remaining = realNanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException("Interrupted while sleeping");
+            }
+        }
+    }
+
+    @Override
+    public long nanoTime() {
+        long realElapsed = System.nanoTime() - realOrigin;
+        return realOrigin + (long) (realElapsed * speedup);
+    }
+
+    @Override
+    public long toRealNanos(final long simulatedNanos) {
+        return (long) (simulatedNanos / speedup);
+    }
+
+    /**
+     * Returns the number of simulated nanoseconds passing in one real nanosecond.
+     * @return speedup of the time
+     */
+    public double getSpeedup() {
+        return speedup;
+    }
+}
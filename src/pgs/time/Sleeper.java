@@ -0,0 +1,18 @@
+package pgs.time;
+
+/**
+ * Spends the simulated time of an activity, e.g. processing of a resource or a transport.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+@FunctionalInterface
+public interface Sleeper {
+
+    /**
+     * Spends given number of milliseconds of the simulated time.
+     * @param millis number of milliseconds
+     * @throws InterruptedException if the thread is interrupted while sleeping
+     */
+    void sleep(long millis) throws InterruptedException;
+}
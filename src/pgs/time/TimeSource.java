@@ -0,0 +1,44 @@
+package pgs.time;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source of the simulated time. Besides spending the time of activities, it tells the current simulated time,
+ * so the durations measured by the actors and the timestamps of the log stay consistent with the sleeps.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public interface TimeSource extends Sleeper {
+    /**
+     * Time source running in real time
+     */
+    TimeSource REAL = new ScaledTimeSource(1);
+    /**
+     * Time source running in real time, whose sleeps return immediately
+     */
+    TimeSource NO_SLEEP = new NoSleepTimeSource();
+
+    /**
+     * Returns the current simulated time in nanoseconds. The value is only meaningful compared to another
+     * value returned by the same time source, like {@link System#nanoTime()}.
+     * @return current simulated time in nanoseconds
+     */
+    long nanoTime();
+
+    /**
+     * Returns the current simulated time in milliseconds. Only meant for measuring durations, the value is not
+     * related to the epoch.
+     * @return current simulated time in milliseconds
+     */
+    default long millis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanoTime());
+    }
+
+    /**
+     * Converts given duration of the simulated time to the real time, e.g. to wait for a simulated timeout.
+     * @param simulatedNanos duration of the simulated time in nanoseconds
+     * @return duration of the real time in nanoseconds
+     */
+    long toRealNanos(long simulatedNanos);
+}
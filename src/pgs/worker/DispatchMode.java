@@ -0,0 +1,24 @@
+package pgs.worker;
+
+/**
+ * Way of handing the blocks of resources over to the workers.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public enum DispatchMode {
+    /**
+     * Foreman takes an available worker from the queue and assigns him the next block.
+     */
+    FOREMAN,
+    /**
+     * Every worker takes the next block from the mine by himself, as soon as he is done with the previous one.
+     * Foreman only waits for the work to be done.
+     */
+    PULL,
+    /**
+     * Foreman submits the blocks to a work-stealing pool, where long blocks are split into ranges of resources
+     * processed by different workers. See {@link WorkStealingScheduler}.
+     */
+    WORK_STEALING
+}
@@ -0,0 +1,91 @@
+package pgs.worker;
+
+import pgs.time.TimeSource;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Total time the workers spent waiting for the downstream, e.g. for an empty lorry. Waits still in progress count
+ * as well, so a long wait shows up while it lasts, not all at once when it ends.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+class DownstreamWaits {
+    /**
+     * Source of the time the waits are measured in
+     */
+    private final TimeSource timeSource;
+    /**
+     * Lock guarding the sums, so they are always read consistent with each other
+     */
+    private final Lock lock = new ReentrantLock();
+    /**
+     * Total number of nanoseconds of the finished waits
+     */
+    private long finishedNanos = 0;
+    /**
+     * Number of waits in progress
+     */
+    private int waiting = 0;
+    /**
+     * Sum of the times the waits in progress started at
+     */
+    private long startedAtSum = 0;
+
+    /**
+     * Creates the record of waits measured in given time.
+     * @param timeSource source of the time the waits are measured in
+     */
+    DownstreamWaits(final TimeSource timeSource) {
+        this.timeSource = timeSource;
+    }
+
+    /**
+     * Records the start of a wait.
+     * @return value of {@link TimeSource#nanoTime()} the wait started at, to pass to {@link #end(long)}
+     */
+    long begin() {
+        long now = timeSource.nanoTime();
+        lock.lock();
+        try {
+            waiting++;
+            startedAtSum += now;
+        } finally {
+            lock.unlock();
+        }
+        return now;
+    }
+
+    /**
+     * Records the end of a wait.
+     * @param startedAt time the wait started at, returned by {@link #begin()}
+     * @return number of nanoseconds the wait took
+     */
+    long end(final long startedAt) {
+        long waitNanos = timeSource.nanoTime() - startedAt;
+        lock.lock();
+        try {
+            waiting--;
+            startedAtSum -= startedAt;
+            finishedNanos += waitNanos;
+        } finally {
+            lock.unlock();
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Returns the total time spent waiting so far, including the waits in progress.
+     * @return total number of nanoseconds of the waits
+     */
+    long getTotalNanos() {
+        lock.lock();
+        try {
+            return finishedNanos + waiting * timeSource.nanoTime() - startedAtSum;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
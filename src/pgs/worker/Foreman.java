@@ -1,19 +1,30 @@
 package pgs.worker;
 
 import pgs.HasId;
-import pgs.Logger;
-import pgs.Simulation;
+import pgs.SimulationContext;
 import pgs.cargo.Ferry;
 import pgs.cargo.Lorry;
+import pgs.cargo.LorryFleet;
+import pgs.cargo.RiverCrossing;
+import pgs.jfr.MapAnalysisEvent;
+import pgs.log.EventType;
+import pgs.metrics.Histogram;
+import pgs.mine.AnalysedMap;
 import pgs.mine.Block;
+import pgs.mine.LoadingDock;
 import pgs.mine.Mine;
+import pgs.mine.Stockpile;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Foreman identifies blocks of resources on a map and delegates individual workers to process them.
@@ -22,98 +33,401 @@ import java.util.concurrent.Future;
  * @since 6.3.2021
  */
 public class Foreman implements HasId {
+    /**
+     * Minimum number of active workers meaning, that the number of active workers is not adapted
+     */
+    public static final int FIXED_WORKERS = 0;
+    /**
+     * Stockpile capacity meaning, that the workers load their resources into the lorries themselves
+     */
+    public static final int NO_STOCKPILE = 0;
 
     /**
      * Identified of this Foreman
      */
     private final int foremanId;
+    /**
+     * Simulation the foreman works in.
+     */
+    private final SimulationContext context;
     /**
      * A mine that the foreman is delegated to.
      */
     private Mine mine;
+    /**
+     * Number of resources found by the analysis of the mine.
+     */
+    private long foundResourcesCount = 0;
+    /**
+     * Number of blocks found by the analysis of the mine.
+     */
+    private int foundBlocksCount = 0;
+    /**
+     * Way of handing the blocks over to the workers.
+     */
+    private DispatchMode dispatchMode = DispatchMode.FOREMAN;
+    /**
+     * Maximum number of resources of a block processed by one worker at once, with {@link DispatchMode#WORK_STEALING}.
+     */
+    private int blockSplitThreshold = WorkStealingScheduler.DEFAULT_SPLIT_THRESHOLD;
+    /**
+     * Fleet providing the lorries, or null if a new lorry is bought for every trip.
+     */
+    private LorryFleet lorryFleet;
+    /**
+     * Histogram of the microseconds the workers waited in a loading dock for a new lorry, because the steady one
+     * was already fully reserved by someone else.
+     */
+    private final Histogram lorryReplacementWaitTimes;
+    /**
+     * Simulated time the workers, or the loaders, spent waiting for an empty lorry - either for someone else
+     * to bring it into the dock, or for it to return to the fleet.
+     */
+    private final DownstreamWaits lorryWaits;
+    /**
+     * Simulated time the workers spent waiting for space on the stockpile.
+     */
+    private final DownstreamWaits stockpileWaits;
+    /**
+     * Minimum number of active workers with the adaptive limit, or {@link #FIXED_WORKERS} if every worker is used.
+     */
+    private int minActiveWorkers = FIXED_WORKERS;
+    /**
+     * Number of milliseconds of the simulated time between two adjustments of the adaptive limit of active workers.
+     */
+    private int workerLimitIntervalMillis;
+    /**
+     * Maximum number of resources on the stockpile between the workers and the lorries, or {@link #NO_STOCKPILE}.
+     */
+    private int stockpileCapacity = NO_STOCKPILE;
+    /**
+     * Number of loaders loading the resources from the stockpile into the lorries.
+     */
+    private int loaderCount = 1;
 
     /**
      * Constructs new Foreman with given ID.
+     * @param context simulation the foreman works in
      * @param foremanId id
      */
-    public Foreman(final int foremanId) {
+    public Foreman(final SimulationContext context, final int foremanId) {
+        this.context = context;
         this.foremanId = foremanId;
+        this.lorryReplacementWaitTimes = context.getMetrics().histogram("lorry_replacement_wait_us");
+        this.lorryWaits = new DownstreamWaits(context.getTimeSource());
+        this.stockpileWaits = new DownstreamWaits(context.getTimeSource());
+    }
+
+    /**
+     * Analyzes the mine and identifies all resource blocks in it. Found blocks are added straight into the mine's
+     * queue of unprocessed blocks, while the map is being scanned.
+     * @param mine mine to analyze
+     * @throws IOException when the map of the mine is not valid or cannot be read
+     */
+    public void analyzeMineResources(final Mine mine) throws IOException {
+        analyzeMineResources(mine, 1);
+    }
+
+    /**
+     * Analyzes the mine using up to {@code parallelism} threads. Blocks are added into the mine's queue
+     * in the same order as with the sequential analysis.
+     * @param mine mine to analyze
+     * @param parallelism maximum number of threads scanning the map
+     * @throws IOException when the map of the mine is not valid or cannot be read
+     */
+    public void analyzeMineResources(final Mine mine, final int parallelism) throws IOException {
+        analyzeMineResources(mine, parallelism, null);
     }
 
     /**
-     * Analyzes the mine and identifies all resource blocks in it.
+     * Analyzes the mine using up to {@code parallelism} threads and collects the found blocks into given builder,
+     * so that the analysis may be loaded into another mine with the same map.
      * @param mine mine to analyze
+     * @param parallelism maximum number of threads scanning the map
+     * @param analysis builder collecting the analysis of the map, or null if the analysis is not kept
+     * @throws IOException when the map of the mine is not valid or cannot be read
      */
-    public void analyzeMineResources(final Mine mine) {
+    public void analyzeMineResources(final Mine mine, final int parallelism, final AnalysedMap.Builder analysis)
+            throws IOException {
         if (mine == null) {
             return;
         }
 
+        MapAnalysisEvent event = beginAnalysisEvent(parallelism);
         this.mine = mine;
-        Queue<Block> blocks = new LinkedList<>();
-        int resourceCount = 0;
-
-        int currentBlockSize = 0;
-        for (String line : mine.getMineMap().getLines()) {
-            for (int i = 0; i < line.length(); i++) {
-                if (line.charAt(i) == 'X') {    // Found resource, incrementing size of the block
-                    currentBlockSize++;
-                } else if (currentBlockSize > 0) {  // Found free space, if there was block, create it
-                    resourceCount += currentBlockSize;
-                    blocks.add(new Block(currentBlockSize));
-                    currentBlockSize = 0;
+        foundResourcesCount = 0;
+        foundBlocksCount = 0;
+        mine.beginAnalysis();
+        try {
+            mine.getMineMap().scanBlocks(length -> {
+                foundResourcesCount += length;
+                foundBlocksCount++;
+                if (analysis != null) {
+                    analysis.accept(length);
                 }
-            }
+                mine.addResourceBlock(length);
+            }, parallelism);
+        } finally {
+            mine.completeAnalysis();    // Nobody may wait for more blocks, even if the analysis failed
+        }
 
-            if (currentBlockSize > 0) { // If line ended with block, create it
-                resourceCount += currentBlockSize;
-                blocks.add(new Block(currentBlockSize));
-                currentBlockSize = 0;
-            }
+        reportAnalysis();
+        commitAnalysisEvent(event, false);
+    }
+
+    /**
+     * Fills the mine with the blocks of an earlier analysis of it's map, instead of analysing the map again.
+     * @param mine mine to fill
+     * @param analysedMap analysis of the mine's map
+     */
+    public void loadMineResources(final Mine mine, final AnalysedMap analysedMap) {
+        if (mine == null || analysedMap == null) {
+            return;
+        }
+
+        MapAnalysisEvent event = beginAnalysisEvent(1);
+        this.mine = mine;
+        foundResourcesCount = analysedMap.getResourceCount();
+        foundBlocksCount = analysedMap.getBlockCount();
+        mine.addResourceBlocks(analysedMap);
+        reportAnalysis();
+        commitAnalysisEvent(event, true);
+    }
+
+    /**
+     * Starts timing the analysis of the mine as a JFR event, if the events are enabled.
+     * @param parallelism maximum number of threads scanning the map
+     * @return started event, or null if the events are disabled
+     */
+    private MapAnalysisEvent beginAnalysisEvent(final int parallelism) {
+        if (!context.getConfig().isJfrEventsEnabled()) {
+            return null;
+        }
+
+        MapAnalysisEvent event = new MapAnalysisEvent();
+        event.foremanId = getId();
+        event.parallelism = parallelism;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records what the analysis of the mine found into given JFR event.
+     * @param event started event, may be null
+     * @param cached flag indicating, that the blocks were loaded from an earlier analysis
+     */
+    private void commitAnalysisEvent(final MapAnalysisEvent event, final boolean cached) {
+        if (event == null) {
+            return;
+        }
+
+        event.cached = cached;
+        event.blocks = foundBlocksCount;
+        event.resources = foundResourcesCount;
+        event.commit();
+    }
+
+    /**
+     * Logs and prints what the analysis of the mine found.
+     */
+    private void reportAnalysis() {
+        context.getLogger().logEvent(this, EventType.MINE_ANALYZED,
+                (int) Math.min(foundResourcesCount, Integer.MAX_VALUE), foundBlocksCount);    // Payloads of the log are ints
+        System.out.println("Mine analysis completed. Found " + foundResourcesCount + " resources " +
+                "and " + foundBlocksCount + " blocks.");
+    }
+
+    /**
+     * Starts the analysis of the mine in a separate thread and returns immediately. Found blocks are available
+     * in the mine's queue as soon as they are found, so {@link #delegateWorkers(WorkerQueue, RiverCrossing)} may be called
+     * right away and workers start processing while the map is still being scanned.
+     * @param mine mine to analyze
+     * @param parallelism maximum number of threads scanning the map
+     * @param mapAnalysis builder collecting the analysis of the map, or null if the analysis is not kept
+     * @return future completed when the analysis ends, completed exceptionally with {@link IOException}
+     * when the map is not valid or cannot be read
+     */
+    public CompletableFuture<Void> startMineAnalysis(final Mine mine, final int parallelism,
+                                                     final AnalysedMap.Builder mapAnalysis) {
+        CompletableFuture<Void> analysis = new CompletableFuture<>();
+        if (mine == null) {
+            analysis.complete(null);
+            return analysis;
         }
 
-        this.mine.setUnprocessedBlocks(blocks);
-        Logger.getInstance().logEvent(this,
-                "Mine analysis completed. Found " + resourceCount + " resources " +
-                        "and " + blocks.size() + " blocks.");
-        System.out.println("Mine analysis completed. Found " + resourceCount + " resources " +
-                "and " + blocks.size() + " blocks.");
+        this.mine = mine;
+        mine.beginAnalysis();   // Before returning, so the workers do not finish before the analysis even starts
+        Thread analysisThread = new Thread(() -> {
+            try {
+                analyzeMineResources(mine, parallelism, mapAnalysis);
+                analysis.complete(null);
+            } catch (IOException | RuntimeException e) {
+                mine.completeAnalysis();
+                analysis.completeExceptionally(e);
+            }
+        }, "mine-analysis");
+        analysisThread.setDaemon(true);
+        analysisThread.start();
+        return analysis;
+    }
+
+    /**
+     * Returns the number of resources found by the last analysis of the mine.
+     * @return number of found resources
+     */
+    public long getFoundResourcesCount() {
+        return foundResourcesCount;
+    }
+
+    /**
+     * Returns the number of blocks found by the last analysis of the mine.
+     * @return number of found blocks
+     */
+    public int getFoundBlocksCount() {
+        return foundBlocksCount;
+    }
+
+    /**
+     * Sets the way of handing the blocks over to the workers.
+     * @param dispatchMode dispatch mode
+     */
+    public void setDispatchMode(final DispatchMode dispatchMode) {
+        this.dispatchMode = dispatchMode != null ? dispatchMode : DispatchMode.FOREMAN;
+    }
+
+    /**
+     * Sets the maximum number of resources of a block processed by one worker at once, when the blocks are
+     * split among the workers with {@link DispatchMode#WORK_STEALING}.
+     * @param blockSplitThreshold maximum number of resources processed at once, non-positive for default
+     */
+    public void setBlockSplitThreshold(final int blockSplitThreshold) {
+        this.blockSplitThreshold = blockSplitThreshold > 0 ? blockSplitThreshold : WorkStealingScheduler.DEFAULT_SPLIT_THRESHOLD;
+    }
+
+    /**
+     * Sets the fleet, that will provide the lorries replacing the filled ones. If null, a new lorry is bought
+     * for every trip.
+     * @param lorryFleet fleet of lorries, may be null
+     */
+    public void setLorryFleet(final LorryFleet lorryFleet) {
+        this.lorryFleet = lorryFleet;
+    }
+
+    /**
+     * Lets the foreman adapt the number of active workers to the downstream, when he assigns the blocks
+     * with {@link DispatchMode#FOREMAN}. The number stays between given minimum and the number of available workers.
+     * @param minActiveWorkers minimum number of active workers, {@link #FIXED_WORKERS} to always use every worker
+     * @param intervalMillis number of milliseconds of the simulated time between two adjustments
+     * @see WorkerLimitController
+     */
+    public void setAdaptiveWorkerLimit(final int minActiveWorkers, final int intervalMillis) {
+        this.minActiveWorkers = Math.max(minActiveWorkers, FIXED_WORKERS);
+        this.workerLimitIntervalMillis = intervalMillis;
+    }
+
+    /**
+     * Places a stockpile between the workers and the lorries. Workers only deposit their processed resources
+     * on it and go on mining, given number of loaders load the resources into the lorries.
+     * @param stockpileCapacity maximum number of resources on the stockpile, {@link #NO_STOCKPILE} to let
+     *                          the workers load the lorries
+     * @param loaderCount number of loaders, at least one
+     */
+    public void setStockpile(final int stockpileCapacity, final int loaderCount) {
+        this.stockpileCapacity = Math.max(stockpileCapacity, NO_STOCKPILE);
+        this.loaderCount = Math.max(loaderCount, 1);
     }
 
     /**
      * Starts delegating work among available workers. If no available workers are passed, immediately returns.
+     * If the analysis of the mine is still in progress, blocks are delegated as soon as they are found.
+     * With {@link DispatchMode#PULL}, the workers take the blocks by themselves and foreman only waits
+     * for them to finish. With {@link DispatchMode#WORK_STEALING}, long blocks are shared by multiple workers.
+     * If there is a stockpile, the loaders start loading the lorries from it right away.
      * @param availableWorkers workers to delegate
-     * @param ferry ferry, that all material will be unloaded to
+     * @param crossing river crossing, where all material will be unloaded to ferries
      */
-    public void delegateWorkers(final WorkerQueue availableWorkers, final Ferry ferry) {
+    public void delegateWorkers(final WorkerQueue availableWorkers, final RiverCrossing crossing) {
         if (availableWorkers == null || availableWorkers.size() == 0 || mine == null) {
             return;
         }
 
         List<Future<?>> blockProcessings = new ArrayList<>();
-        List<Future<?>> lorryReplacements = new ArrayList<>();
-        while (mine.hasUnprocessedBlocks()) {
-            Worker currentWorker = availableWorkers.getAvailableWorker();
-            Block blockToProcess = mine.pollUnprocessedBlock();
+        Collection<Future<?>> lorryReplacements = new ConcurrentLinkedQueue<>();  // Filled by the workers or the loaders
+        Stockpile stockpile = null;
+        List<Loader> loaders = new ArrayList<>();
+        List<Future<?>> loadings = new ArrayList<>();
+        Consumer<Block> afterBlockProcessed = block -> loadResources(block.getLength(), crossing, lorryReplacements);
+        if (stockpileCapacity != NO_STOCKPILE) {
+            Stockpile pile = new Stockpile(stockpileCapacity, context.getMetrics(), context.getTimeSource());
+            for (int i = 0; i < loaderCount; i++) {
+                Loader loader = new Loader(context, context.nextActorId());
+                loaders.add(loader);
+                loadings.add(loader.loadFrom(pile, context.getConfig().getLorryCapacity(),
+                        amount -> loadResources(amount, crossing, lorryReplacements)));
+            }
+            afterBlockProcessed = block -> depositResources(pile, block.getLength());
+            stockpile = pile;
+        }
 
-            Future<?> result = currentWorker.processBlock(blockToProcess, () -> { // Adding an action what the worker should do when he's done
-                for (int i = 0; i < blockToProcess.getLength(); i++) {
-                    if (!mine.getSteadyLorry().loadCargo(1)) {
-                        i--;    // If we didn't succeed with loading, we try again
-                        continue;
+        Consumer<Block> afterEachBlock = afterBlockProcessed;
+        WorkStealingScheduler scheduler = null;
+        WorkerLimitController limitController = null;
+        switch (dispatchMode) {
+            case PULL:
+                for (Worker worker : availableWorkers.getWorkers()) {
+                    Future<?> result = worker.pullBlocks(mine, afterEachBlock);
+                    if (result != null) {
+                        blockProcessings.add(result);
                     }
+                }
+                break;
+            case WORK_STEALING:
+                scheduler = new WorkStealingScheduler(context, availableWorkers.getWorkers(), blockSplitThreshold);
+                Block block;
+                while ((block = mine.takeUnprocessedBlock()) != null) {
+                    blockProcessings.add(scheduler.submit(block, afterEachBlock));
+                }
+                break;
+            case FOREMAN:
+            default:
+                if (minActiveWorkers != FIXED_WORKERS) {
+                    DownstreamWaits workerWaits = stockpile != null ? stockpileWaits : lorryWaits;
+                    limitController = new WorkerLimitController(context, this, availableWorkers,
+                            workerWaits::getTotalNanos, minActiveWorkers, availableWorkers.size(), workerLimitIntervalMillis);
+                    limitController.start();
+                }
+                assignBlocks(availableWorkers, afterEachBlock, blockProcessings);
+        }
 
-                    if (mine.getSteadyLorry().isFilledUp()) {
-                        Future<?> replacementResult = mine.replaceSteadyLorry(new Lorry(Simulation.threadCount++,
-                                Lorry.getDefaultCapacity(), Lorry.getDefaultMaxTransportTime(), ferry));
+        waitForWorksToFinish(blockProcessings, stockpile, loadings, lorryReplacements, crossing);
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        if (limitController != null) {
+            limitController.stop();
+            System.out.println("Limit of active workers ranged from " + limitController.getLowestLimit() + " to "
+                    + limitController.getHighestLimit() + ", ended at " + availableWorkers.getActiveLimit() + ".");
+        }
+        informAboutState(availableWorkers, stockpile, loaders, crossing);
+    }
 
-                        if (replacementResult != null) {
-                            lorryReplacements.add(replacementResult);
-                        }
-                    }
-                }
+    /**
+     * Assigns every block of the mine to the first available worker, until there are no blocks left.
+     * @param availableWorkers workers to delegate
+     * @param afterBlockProcessed what the worker does with the processed block, before he is available again
+     * @param blockProcessings collection of results of block processings
+     */
+    private void assignBlocks(final WorkerQueue availableWorkers, final Consumer<Block> afterBlockProcessed,
+                              final List<Future<?>> blockProcessings) {
+        Block nextBlock;
+        while ((nextBlock = mine.takeUnprocessedBlock()) != null) {  // Waits for blocks not yet found by the analysis
+            Block blockToProcess = nextBlock;
+            Worker currentWorker = availableWorkers.getAvailableWorker();
 
-                availableWorkers.addWorker(currentWorker);
+            Future<?> result = currentWorker.processBlock(blockToProcess, () -> { // Adding an action what the worker should do when he's done
+                afterBlockProcessed.accept(blockToProcess);
+                currentWorker.setTaskDone();    // Worker has to be free before anyone can take him from the queue
+                availableWorkers.returnWorker(currentWorker);
             });
 
             if (result == null) {
@@ -122,12 +436,75 @@ public class Foreman implements HasId {
                 blockProcessings.add(result);
             }
         }
+    }
+
+    /**
+     * Deposits the resources of a processed block on the stockpile. If it is full, the worker waits for space.
+     * @param stockpile stockpile to deposit to
+     * @param amount number of processed resources
+     */
+    private void depositResources(final Stockpile stockpile, final int amount) {
+        long waitStart = stockpileWaits.begin();
+        stockpile.deposit(amount);
+        stockpileWaits.end(waitStart);
+    }
+
+    /**
+     * Loads given number of processed resources into the steady lorries. The worker, or the loader, goes to the loading
+     * dock with the most free space and reserves as much space as fits into it's lorry at once, the rest goes into
+     * the next lorry. Whoever reserves the rest of the lorry places a new one into the dock, and whoever fills it up
+     * sends it away. Many workers may be loading the same lorry at once. If the fleet has no lorry to place right
+     * away, the dock stays empty and the worker loads his reserved material first and only then waits for a lorry -
+     * otherwise every lorry could be waiting in the docks for the material of workers, who are waiting for a lorry.
+     * @param amount number of processed resources
+     * @param crossing river crossing, where all material will be unloaded to ferries
+     * @param lorryReplacements collection of results of sending the lorries away
+     */
+    private void loadResources(final int amount, final RiverCrossing crossing, final Collection<Future<?>> lorryReplacements) {
+        int remaining = amount;
+        while (remaining > 0) {
+            LoadingDock dock = mine.selectLoadingDock();
+            Lorry lorry = dock.getSteadyLorry();
+            int reserved = lorry != null ? lorry.reserveCargo(remaining) : 0;
+            if (reserved == 0) {
+                long waitStart = lorryWaits.begin();
+                dock.awaitLorryReplacement(lorry);  // Whoever reserved the rest is bringing a new lorry
+                lorryReplacementWaitTimes.record(TimeUnit.NANOSECONDS.toMicros(lorryWaits.end(waitStart)));
+                continue;
+            }
 
-        waitForWorksToFinish(blockProcessings, lorryReplacements);
-        informAboutState(availableWorkers, ferry);
+            boolean replaced = true;
+            if (lorry.isFullyReserved()) {
+                replaced = dock.replaceReservedLorry(lorry, () -> nextLorry(crossing, false));
+            }
+
+            lorry.loadReservedCargo(reserved);
+            if (lorry.finishLoading(reserved)) {
+                Future<?> unloadingResult = lorry.unloadCargo();
+                if (unloadingResult != null) {
+                    lorryReplacements.add(unloadingResult);
+                }
+            }
+            remaining -= reserved;
+
+            if (!replaced) {
+                dock.replaceSteadyLorry(nextLorry(crossing, true));    // Reserved material is loaded, waiting is safe now
+            }
+        }
     }
 
-    private void waitForWorksToFinish(final List<Future<?>> blockProcessings, final List<Future<?>> lorryReplacements) {
+    /**
+     * Waits until every block is processed and loaded and every lorry arrives to it's destination. The last lorries,
+     * which were not filled up, are sent away, once nothing more will be loaded.
+     * @param blockProcessings results of block processings
+     * @param stockpile stockpile between the workers and the lorries, or null
+     * @param loadings results of the work of the loaders
+     * @param lorryReplacements results of sending the lorries away
+     * @param crossing river crossing, where all material will be unloaded to ferries
+     */
+    private void waitForWorksToFinish(final List<Future<?>> blockProcessings, final Stockpile stockpile,
+                                      final List<Future<?>> loadings, final Collection<Future<?>> lorryReplacements,
+                                      final RiverCrossing crossing) {
         for (Future<?> blockProcessing : blockProcessings) {
             try {
                 blockProcessing.get();
@@ -136,8 +513,24 @@ public class Foreman implements HasId {
             }
         }
 
-        if (mine.getSteadyLorry().getCurrentLoad() != 0) {
-             lorryReplacements.add(mine.replaceSteadyLorry(null));  // If the last lorry was left not filled up, sending it away manually
+        if (stockpile != null) {
+            stockpile.close();  // Every block is processed, loaders only take what is left on the stockpile
+        }
+        for (Future<?> loading : loadings) {
+            try {
+                loading.get();
+            } catch (InterruptedException | ExecutionException e) {
+                System.err.println("Error while waiting for loader to finish!\n" + e.getMessage());
+            }
+        }
+
+        for (LoadingDock dock : mine.getLoadingDocks()) {
+            if (dock.getSteadyLorry() != null && dock.getSteadyLorry().getCurrentLoad() != 0) {
+                lorryReplacements.add(dock.replaceSteadyLorry(null));  // If the last lorry was left not filled up, sending it away manually
+            }
+        }
+        if (crossing != null) {
+            crossing.shipRemaining(lorryReplacements.size());  // With more docks, the last ferries may not be filled up
         }
 
         for (Future<?> lorryReplacement : lorryReplacements) {
@@ -147,16 +540,56 @@ public class Foreman implements HasId {
                 System.err.println("Error while waiting for worker to finish!\n" + e.getMessage());
             }
         }
+    }
+
+    /**
+     * Returns an empty lorry to place into a loading dock - from the fleet if there is one, otherwise a new one
+     * with the capacity and transport time of the simulation's configuration.
+     * @param crossing river crossing, where all material will be unloaded to ferries
+     * @param mayWait true, if it's allowed to wait until some lorry of the fleet returns
+     * @return empty lorry, or null if every lorry of the fleet is on the way and waiting is not allowed
+     */
+    private Lorry nextLorry(final RiverCrossing crossing, final boolean mayWait) {
+        if (lorryFleet != null) {
+            if (!mayWait) {
+                return lorryFleet.tryAcquire();
+            }
+
+            long waitStart = lorryWaits.begin();
+            Lorry lorry = lorryFleet.acquire();    // May wait until some lorry returns
+            lorryWaits.end(waitStart);
+            return lorry;
+        }
 
-        Worker.sendWorkersHome();
+        return new Lorry(context, context.nextActorId(), context.getConfig().getLorryCapacity(),
+                context.getConfig().getMaxLorryTransportTime(), crossing);
     }
 
-    private void informAboutState(final WorkerQueue workers, final Ferry ferry) {
+    private void informAboutState(final WorkerQueue workers, final Stockpile stockpile, final List<Loader> loaders,
+                                  final RiverCrossing crossing) {
         for (Worker worker : workers.getWorkers()) {
             System.out.println("Worker " + worker.getId() + " processed " + worker.getProcessedResources() + " resources.");
         }
 
-        System.out.println("Total number of shipped resources: " + ferry.getShippedResources());
+        if (stockpile != null) {
+            for (Loader loader : loaders) {
+                System.out.println("Loader " + loader.getId() + " loaded " + loader.getLoadedResources() + " resources.");
+            }
+            System.out.println("Stockpile held at most " + stockpile.getMaxDepth() + " of " + stockpile.getCapacity()
+                    + " resources. Workers waited " + stockpile.getDepositWaitMillis() + " ms for space, loaders waited "
+                    + stockpile.getTakeWaitMillis() + " ms for material.");
+        }
+
+        if (lorryFleet != null) {
+            System.out.println("Fleet of " + lorryFleet.getCreatedLorries() + " lorries made " + lorryFleet.getTrips() + " trips.");
+        }
+
+        for (Ferry ferry : crossing.getFerries()) {
+            System.out.println("Ferry " + ferry.getId() + " shipped " + ferry.getShippedResources() + " resources in "
+                    + ferry.getShipments() + " shipments (" + ferry.getPartialShipments() + " not full), average fill time "
+                    + ferry.getAverageFillTime() + " ms.");
+        }
+        System.out.println("Total number of shipped resources: " + crossing.getShippedResources());
     }
 
     @Override
@@ -0,0 +1,71 @@
+package pgs.worker;
+
+import pgs.HasId;
+import pgs.SimulationContext;
+import pgs.mine.Stockpile;
+
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Loader, who's responsibility is loading the processed resources from the {@link Stockpile} into the lorries,
+ * so the workers do not have to.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class Loader implements HasId {
+    /**
+     * Simulation the loader works in
+     */
+    private final SimulationContext context;
+    /**
+     * ID of the loader
+     */
+    private final int loaderId;
+    /**
+     * Number of resources loaded by the loader
+     */
+    private volatile int loadedResources = 0;
+
+    /**
+     * Constructs a new loader.
+     * @param context simulation the loader works in
+     * @param loaderId ID of the loader
+     */
+    public Loader(final SimulationContext context, final int loaderId) {
+        this.context = context;
+        this.loaderId = loaderId;
+    }
+
+    /**
+     * Sends this loader to the stockpile. He keeps taking at most {@code batchSize} resources from it and loading
+     * them by given action, until the stockpile is closed and empty.
+     * @param stockpile stockpile to take the resources from
+     * @param batchSize maximum number of resources taken at once
+     * @param loadResources action loading given number of resources into the lorries
+     * @return future result of the work, completed when there is nothing more to load
+     */
+    public Future<?> loadFrom(final Stockpile stockpile, final int batchSize, final IntConsumer loadResources) {
+        return context.getWorkerExecutor().submit(() -> {
+            int taken;
+            while ((taken = stockpile.take(batchSize)) > 0) {
+                loadResources.accept(taken);
+                loadedResources += taken;   // Only this loader writes the count
+            }
+        });
+    }
+
+    /**
+     * Returns the number of resources loaded by this loader.
+     * @return number of loaded resources
+     */
+    public int getLoadedResources() {
+        return loadedResources;
+    }
+
+    @Override
+    public int getId() {
+        return loaderId;
+    }
+}
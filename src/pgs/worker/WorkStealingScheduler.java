@@ -0,0 +1,210 @@
+package pgs.worker;
+
+import pgs.SimulationContext;
+import pgs.jfr.BlockProcessingEvent;
+import pgs.log.EventType;
+import pgs.mine.Block;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Scheduler processing blocks on a work-stealing pool, where every thread acts as one of the workers. Blocks
+ * longer than the split threshold are split into ranges of resources, which idle workers steal from the busy
+ * ones, so a single long block is not processed by one worker only.
+ * <p>
+ * Every worker is counted the resources he processed himself. The block is finished by the worker, who processes
+ * it's last range - he logs the block as processed, with the time spent on all of it's ranges, and performs
+ * the task after the block is processed.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+public class WorkStealingScheduler {
+    /**
+     * Default maximum number of resources processed as a single range
+     */
+    public static final int DEFAULT_SPLIT_THRESHOLD = 8;
+    /**
+     * Simulation the workers work in
+     */
+    private final SimulationContext context;
+    /**
+     * Pool processing the blocks
+     */
+    private final ForkJoinPool pool;
+    /**
+     * Workers, that are not acting as any thread of the pool
+     */
+    private final Queue<Worker> unboundWorkers;
+    /**
+     * Maximum number of resources processed as a single range
+     */
+    private final int splitThreshold;
+
+    /**
+     * Creates a scheduler with one thread for each of given workers.
+     * @param context simulation the workers work in
+     * @param workers workers processing the blocks
+     * @param splitThreshold maximum number of resources processed as a single range, non-positive for default
+     */
+    public WorkStealingScheduler(final SimulationContext context, final Collection<Worker> workers,
+                                 final int splitThreshold) {
+        this.context = context;
+        this.unboundWorkers = new ConcurrentLinkedQueue<>(workers);
+        this.splitThreshold = splitThreshold > 0 ? splitThreshold : DEFAULT_SPLIT_THRESHOLD;
+        this.pool = new ForkJoinPool(Math.max(workers.size(), 1), this::createWorkerThread, null, false);
+    }
+
+    /**
+     * Submits given block to be processed.
+     * @param block block to process
+     * @param afterBlockProcessed task to perform with the block after it is processed - may be null
+     * @return future result of the block processing
+     */
+    public Future<?> submit(final Block block, final Consumer<Block> afterBlockProcessed) {
+        return pool.submit(new RangeTask(null, new BlockProgress(block, afterBlockProcessed), 0, block.getLength()));
+    }
+
+    /**
+     * Stops the threads of the pool, after every submitted block is processed.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Creates a pool thread acting as a worker, who is not acting as any other thread.
+     * @param pool pool to create the thread for
+     * @return new thread, or null if every worker is already acting as a thread
+     */
+    private ForkJoinWorkerThread createWorkerThread(final ForkJoinPool pool) {
+        Worker worker = unboundWorkers.poll();
+        return worker == null ? null : new WorkerThread(pool, worker, unboundWorkers);
+    }
+
+    /**
+     * Pool thread acting as a worker. When the thread ends, the worker may act as another thread.
+     */
+    private static class WorkerThread extends ForkJoinWorkerThread {
+
+        private final Worker worker;
+
+        private final Queue<Worker> unboundWorkers;
+
+        private WorkerThread(final ForkJoinPool pool, final Worker worker, final Queue<Worker> unboundWorkers) {
+            super(pool);
+            this.worker = worker;
+            this.unboundWorkers = unboundWorkers;
+            setName("worker-" + worker.getId());
+        }
+
+        @Override
+        protected void onTermination(final Throwable exception) {
+            unboundWorkers.add(worker);
+            super.onTermination(exception);
+        }
+    }
+
+    /**
+     * Progress of a block split into ranges.
+     */
+    private static class BlockProgress {
+
+        private final Block block;
+
+        private final Consumer<Block> afterBlockProcessed;
+        /**
+         * Number of milliseconds spent on processing all finished ranges of the block
+         */
+        private final AtomicInteger processingTime = new AtomicInteger();
+
+        private BlockProgress(final Block block, final Consumer<Block> afterBlockProcessed) {
+            this.block = block;
+            this.afterBlockProcessed = afterBlockProcessed;
+        }
+    }
+
+    /**
+     * Task processing a range of resources in a block. Ranges longer than the split threshold are halved
+     * and the second half is left for stealing.
+     */
+    private class RangeTask extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final BlockProgress progress;
+
+        private final int from;
+
+        private final int to;
+
+        private RangeTask(final RangeTask parent, final BlockProgress progress, final int from, final int to) {
+            super(parent);
+            this.progress = progress;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public void compute() {
+            int end = to;
+            while (end - from > splitThreshold) {
+                int middle = (from + end) >>> 1;
+                addToPendingCount(1);
+                new RangeTask(this, progress, middle, end).fork();
+                end = middle;
+            }
+
+            Worker worker = ((WorkerThread) Thread.currentThread()).worker;
+            BlockProcessingEvent event = context.getConfig().isJfrEventsEnabled() ? new BlockProcessingEvent() : null;
+            if (event != null) {
+                event.begin();
+            }
+
+            int rangeProcessingTime = 0;
+            for (int i = from; i < end; i++) {
+                int resourceProcessingTime = worker.getProcessingTimes().next();
+                try {
+                    context.getTimeSource().sleep(resourceProcessingTime); // Simulating processing of the resource
+                } catch (InterruptedException e) {
+                    System.err.println("Resource processor " + worker.getId() + " was interrupted during resource processing!\n" + e.getMessage());
+                }
+
+                rangeProcessingTime += resourceProcessingTime;
+                worker.getProcessedResourcesCounter().increment();
+                context.getLogger().logEvent(worker, EventType.RESOURCE_PROCESSED, resourceProcessingTime);
+            }
+
+            worker.addProcessedResources(end - from);
+            if (event != null) {
+                event.workerId = worker.getId();
+                event.resources = end - from;
+                event.processingMillis = rangeProcessingTime;
+                event.commit();
+            }
+            progress.processingTime.addAndGet(rangeProcessingTime);
+            tryComplete();
+        }
+
+        @Override
+        public void onCompletion(final CountedCompleter<?> caller) {
+            if (getCompleter() != null) {
+                return;     // Only the whole block is finished
+            }
+
+            Worker worker = ((WorkerThread) Thread.currentThread()).worker;
+            context.getLogger().logEvent(worker, EventType.BLOCK_PROCESSED, progress.processingTime.get());
+            if (progress.afterBlockProcessed != null) {
+                progress.afterBlockProcessed.accept(progress.block);
+            }
+        }
+    }
+}
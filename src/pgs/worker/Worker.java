@@ -1,15 +1,18 @@
 package pgs.worker;
 
 import pgs.PerformsTask;
+import pgs.SimulationContext;
 import pgs.cargo.CargoVehicle;
+import pgs.metrics.Counter;
+import pgs.metrics.MetricsRegistry;
 import pgs.mine.Block;
+import pgs.mine.Mine;
+import pgs.random.DurationSampler;
 import pgs.task.ProcessBlockTask;
 
 import java.security.InvalidParameterException;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Worker, who's responsibility is mining blocks of resources and loading them into the {@link CargoVehicle}
@@ -19,42 +22,51 @@ import java.util.concurrent.TimeUnit;
  */
 public class Worker implements PerformsTask {
     /**
-     * Executor for submitting parallel tasks.
+     * Name of the counter of resources processed by a worker, labelled by the worker's ID
      */
-    private static final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
-    static {
-//        executor.allowCoreThreadTimeOut(true);
-        executor.setKeepAliveTime(0L, TimeUnit.MILLISECONDS);
-    }
+    public static final String RESOURCES_PROCESSED_METRIC = "worker_resources_processed";
+    /**
+     * Simulation the worker works in.
+     */
+    private final SimulationContext context;
     /**
      * ID of a worker
      */
     private final int workerId;
     /**
-     * Maximum number of milliseconds that it takes to process one block
+     * Sampler of the times it takes to process one resource, at most the maximum resource processing time
      */
-    private final int maxResourceProcessingTime;
+    private final DurationSampler processingTimes;
     /**
      * Number of resources blocks by a worker.
      */
     private int processedResources = 0;
+    /**
+     * Counter of the resources processed by a worker, updated as soon as each resource is processed.
+     */
+    private final Counter processedResourcesCounter;
     /**
      * Flag indicating whether any task is currently in progress.
      */
-    private boolean taskInProgress = false;
+    private volatile boolean taskInProgress = false;
 
     /**
      * Constructs a new worker and trains him in a way, that processing of single resource in a resource block
      * will take him maximum of {@code maxResourceProcessingTime} seconds.
+     * @param context simulation the worker works in
+     * @param workerId ID of the worker
      * @param maxResourceProcessingTime maximum number of seconds it will take worker to process one resource
      */
-    public Worker(final int workerId, final int maxResourceProcessingTime) {
+    public Worker(final SimulationContext context, final int workerId, final int maxResourceProcessingTime) {
         if (maxResourceProcessingTime <= 0) {
             throw new InvalidParameterException("Max resource processing time has to be positive!");
         }
 
-        this.maxResourceProcessingTime = maxResourceProcessingTime;
+        this.context = context;
         this.workerId = workerId;
+        this.processingTimes = context.getRandomStreams().processingTimes(workerId, maxResourceProcessingTime);
+        this.processedResourcesCounter = context.getMetrics().counter(
+                MetricsRegistry.labelled(RESOURCES_PROCESSED_METRIC, "worker", workerId));
     }
 
     /**
@@ -65,6 +77,32 @@ public class Worker implements PerformsTask {
         return this.processedResources;
     }
 
+    /**
+     * Adds given number of resources to the resources processed by this worker. Has to be called only
+     * by the thread acting as this worker.
+     * @param resourceCount number of processed resources
+     */
+    void addProcessedResources(final int resourceCount) {
+        this.processedResources += resourceCount;
+    }
+
+    /**
+     * Returns the counter of the resources processed by this worker.
+     * @return counter of processed resources
+     */
+    Counter getProcessedResourcesCounter() {
+        return processedResourcesCounter;
+    }
+
+    /**
+     * Returns the sampler of the times it takes this worker to process one resource. Has to be used only
+     * by the thread acting as this worker.
+     * @return sampler of the resource processing times
+     */
+    DurationSampler getProcessingTimes() {
+        return processingTimes;
+    }
+
     /**
      * Commands this worker to process given block of resources. Worker can be given a task, that he should do after
      * the block is processed. If given task is null, worker doesn't do anything afterwards - may be null. Returns
@@ -82,23 +120,37 @@ public class Worker implements PerformsTask {
 
         taskInProgress = true;
         processedResources += block.getLength();
-        return executor.submit(
-                new ProcessBlockTask(this, block, maxResourceProcessingTime, afterBlockProcessed));
+        return context.getWorkerExecutor().submit(
+                new ProcessBlockTask(context, this, block, processingTimes, afterBlockProcessed));
     }
 
     /**
-     * Sets the core expected number of workers, that will perform asynchronous tasks, to given value.
-     * @param workerCount expected number of workers to perform an asynchronous task
+     * Sends this worker to the mine to process blocks on his own. The worker keeps taking unprocessed blocks from
+     * the mine and processing them, until there are no more blocks left. After each block, he performs given task
+     * with the processed block - may be null. If the worker is already busy, returns null.
+     *
+     * @param mine mine to take the blocks from
+     * @param afterBlockProcessed task to do after processing each block
+     * @return future result of the work, completed when there are no more blocks, or null
      */
-    public static void setWorkerCount(final int workerCount) {
-        executor.setCorePoolSize(workerCount);
-    }
+    public Future<?> pullBlocks(final Mine mine, final Consumer<Block> afterBlockProcessed) {
+        if (taskInProgress) {   // We are already busy
+            return null;
+        }
 
-    /**
-     * All workers will be sent home and all their actions will be ended.
-     */
-    public static void sendWorkersHome() {
-        executor.shutdown();
+        taskInProgress = true;
+        return context.getWorkerExecutor().submit(() -> {
+            Block block;
+            while ((block = mine.takeUnprocessedBlock()) != null) {
+                Block processedBlock = block;
+                taskInProgress = true;
+                processedResources += processedBlock.getLength();
+                new ProcessBlockTask(context, this, processedBlock, processingTimes,
+                        afterBlockProcessed == null ? null : () -> afterBlockProcessed.accept(processedBlock)).run();
+            }
+
+            taskInProgress = false;
+        });
     }
 
     @Override
@@ -0,0 +1,199 @@
+package pgs.worker;
+
+import pgs.HasId;
+import pgs.SimulationContext;
+import pgs.log.EventType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Adjusts the number of active workers of a worker queue to what the rest of the mine can take. Once per interval
+ * of the simulated time, it compares the time the active workers spent blocked by the downstream - waiting for
+ * an empty lorry - with the time they worked. If they were blocked for too long, the limit of active workers is cut
+ * multiplicatively, otherwise, if the limit kept idle workers from a block waiting for them, it is raised additively.
+ * Until the first cut, the limit is doubled instead of raised by one, so it reaches the right size quickly
+ * from the minimum.
+ *
+ * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
+ * @since 18.10.2026
+ */
+class WorkerLimitController {
+    /**
+     * Share of the active workers' time spent blocked by the downstream, from which the limit is cut
+     */
+    static final double BLOCKED_RATIO_LIMIT = 0.5;
+    /**
+     * Factor the limit is multiplied by, when the workers are blocked for too long
+     */
+    static final double DECREASE_FACTOR = 0.75;
+    /**
+     * Simulation the workers work in
+     */
+    private final SimulationContext context;
+    /**
+     * Actor the changes of the limit are logged by
+     */
+    private final HasId owner;
+    /**
+     * Queue of the controlled workers
+     */
+    private final WorkerQueue workers;
+    /**
+     * Total number of nanoseconds of the simulated time the workers spent blocked by the downstream so far
+     */
+    private final LongSupplier blockedNanos;
+    /**
+     * Lowest allowed limit
+     */
+    private final int minWorkers;
+    /**
+     * Highest allowed limit
+     */
+    private final int maxWorkers;
+    /**
+     * Number of nanoseconds of the simulated time between two adjustments
+     */
+    private final long intervalNanos;
+    /**
+     * Flag indicating whether the limit is still doubled, because it has never been cut yet
+     */
+    private boolean slowStart = true;
+    /**
+     * Lowest limit set so far
+     */
+    private int lowestLimit;
+    /**
+     * Highest limit set so far
+     */
+    private int highestLimit;
+    /**
+     * Thread adjusting the limit, or null if not started
+     */
+    private Thread controllerThread;
+    /**
+     * Flag indicating whether the controller keeps adjusting the limit
+     */
+    private volatile boolean running;
+
+    /**
+     * Creates a controller of given worker queue. The limit is not touched until the controller is started.
+     * @param context simulation the workers work in
+     * @param owner actor logging the changes of the limit
+     * @param workers queue of the controlled workers
+     * @param blockedNanos total simulated time in nanoseconds the workers spent blocked by the downstream so far
+     * @param minWorkers lowest allowed limit, at least one
+     * @param maxWorkers highest allowed limit
+     * @param intervalMillis number of milliseconds of the simulated time between two adjustments
+     */
+    WorkerLimitController(final SimulationContext context, final HasId owner, final WorkerQueue workers,
+                          final LongSupplier blockedNanos, final int minWorkers, final int maxWorkers,
+                          final int intervalMillis) {
+        this.context = context;
+        this.owner = owner;
+        this.workers = workers;
+        this.blockedNanos = blockedNanos;
+        this.minWorkers = Math.max(minWorkers, 1);
+        this.maxWorkers = Math.max(maxWorkers, this.minWorkers);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(intervalMillis, 1));
+        context.getMetrics().gauge("worker_active_limit", workers::getActiveLimit);
+    }
+
+    /**
+     * Sets the limit to the minimum and starts adjusting it.
+     */
+    void start() {
+        lowestLimit = minWorkers;
+        highestLimit = minWorkers;
+        workers.setActiveLimit(minWorkers);
+        running = true;
+        controllerThread = new Thread(this::adjustLimit, "worker-limit-controller");
+        controllerThread.setDaemon(true);
+        controllerThread.start();
+    }
+
+    /**
+     * Stops adjusting the limit and waits for the controller to finish. The last limit is kept.
+     */
+    void stop() {
+        running = false;
+        if (controllerThread == null) {
+            return;
+        }
+
+        LockSupport.unpark(controllerThread);
+        try {
+            controllerThread.join();
+        } catch (InterruptedException e) {
+            System.err.println("Waiting for the worker limit controller was interrupted!\n" + e.getMessage());
+        }
+    }
+
+    /**
+     * Adjusts the limit once per interval, until stopped.
+     */
+    private void adjustLimit() {
+        long lastTime = context.getTimeSource().nanoTime();
+        long lastBlocked = blockedNanos.getAsLong();
+        long lastStalls = workers.getLimitStalls();
+        while (running) {
+            LockSupport.parkNanos(this, Math.max(context.getTimeSource().toRealNanos(intervalNanos), 1));
+            long now = context.getTimeSource().nanoTime();
+            if (!running || now - lastTime < intervalNanos) {
+                continue;   // Woken up early
+            }
+
+            long blocked = blockedNanos.getAsLong();
+            long stalls = workers.getLimitStalls();
+            int limit = workers.getActiveLimit();
+            double blockedRatio = (double) (blocked - lastBlocked) / ((now - lastTime) * (double) Math.max(limit, 1));
+            int newLimit = nextLimit(limit, blockedRatio, stalls > lastStalls || workers.isStalledByLimit());
+            if (newLimit != limit) {
+                workers.setActiveLimit(newLimit);
+                lowestLimit = Math.min(lowestLimit, newLimit);
+                highestLimit = Math.max(highestLimit, newLimit);
+                context.getLogger().logEvent(owner, EventType.WORKER_LIMIT_CHANGED, newLimit,
+                        (int) Math.min(Math.round(blockedRatio * 100), 100));
+            }
+
+            lastTime = now;
+            lastBlocked = blocked;
+            lastStalls = stalls;
+        }
+    }
+
+    /**
+     * Computes the limit for the next interval.
+     * @param limit current limit
+     * @param blockedRatio share of the active workers' time spent blocked by the downstream during the last interval
+     * @param stalled flag indicating, that the limit kept an idle worker from a block during the last interval
+     * @return next limit
+     */
+    int nextLimit(final int limit, final double blockedRatio, final boolean stalled) {
+        if (blockedRatio >= BLOCKED_RATIO_LIMIT) {
+            slowStart = false;
+            return Math.max(minWorkers, Math.min(limit - 1, (int) (limit * DECREASE_FACTOR)));
+        }
+        if (stalled) {
+            return Math.min(maxWorkers, slowStart ? limit * 2 : limit + 1);
+        }
+        return limit;
+    }
+
+    /**
+     * Returns the lowest limit set since the controller started.
+     * @return lowest limit
+     */
+    int getLowestLimit() {
+        return lowestLimit;
+    }
+
+    /**
+     * Returns the highest limit set since the controller started.
+     * @return highest limit
+     */
+    int getHighestLimit() {
+        return highestLimit;
+    }
+}
@@ -1,11 +1,23 @@
 package pgs.worker;
 
+import pgs.metrics.Histogram;
+import pgs.metrics.MetricsRegistry;
+import pgs.time.TimeSource;
+
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Queue of workers, waiting to be assigned to process blocks of resources.
+ * <p>
+ * The queue may limit the number of workers, that are taken from it and not returned yet - the active workers.
+ * Workers over the limit stay in the queue, even if someone waits for a worker. The limit may change at any time,
+ * workers already taken are not called back when it drops.
  *
  * @author <a href="mailto:markovd@students.zcu.cz">David Markov</a>
  * @since 6.3.2021
@@ -15,9 +27,57 @@ public class WorkerQueue {
      * Queue of waiting workers
      */
     private final Queue<Worker> workers;
+    /**
+     * Lock guarding the queue
+     */
+    private final Lock queueLock = new ReentrantLock();
+    /**
+     * Condition signalled when a worker is added to the queue
+     */
+    private final Condition workerAdded = queueLock.newCondition();
+    /**
+     * Source of the time the waiting for a worker is measured in
+     */
+    private final TimeSource timeSource;
+    /**
+     * Histogram of the microseconds spent waiting for an available worker
+     */
+    private final Histogram waitTimes;
+    /**
+     * Maximum number of active workers
+     */
+    private int activeLimit = Integer.MAX_VALUE;
+    /**
+     * Number of workers taken from the queue and not returned yet
+     */
+    private int activeWorkers = 0;
+    /**
+     * Number of times someone had to wait for a worker, although there was one in the queue, because of the limit
+     */
+    private long limitStalls = 0;
+    /**
+     * Number of threads currently waiting for a worker only because of the limit
+     */
+    private int stalledWaiters = 0;
 
+    /**
+     * Creates an empty queue, whose metrics are not reported anywhere.
+     */
     public WorkerQueue() {
-        workers = new LinkedList<>();
+        this(new MetricsRegistry(), TimeSource.REAL);
+    }
+
+    /**
+     * Creates an empty queue reporting it's depth and the time spent waiting for a worker into given registry.
+     * @param metrics registry of the metrics
+     * @param timeSource source of the time the waiting is measured in
+     */
+    public WorkerQueue(final MetricsRegistry metrics, final TimeSource timeSource) {
+        this.workers = new LinkedList<>();
+        this.timeSource = timeSource;
+        this.waitTimes = metrics.histogram("worker_queue_wait_us");
+        metrics.gauge("worker_queue_depth", this::size);
+        metrics.gauge("worker_active", this::getActiveWorkers);
     }
 
     /**
@@ -25,26 +85,141 @@ public class WorkerQueue {
      * he will be notified.
      * @param worker worker to add to the queue
      */
-    public synchronized void addWorker(final Worker worker) {
-        workers.add(worker);
-        WorkerQueue.this.notifyAll();   // If there is anyone waiting for any worker, we notify him
+    public void addWorker(final Worker worker) {
+        queueLock.lock();
+        try {
+            workers.add(worker);
+            workerAdded.signal();   // If there is anyone waiting for any worker, we notify him
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Returns given worker, taken by {@link #getAvailableWorker()}, back to the queue. He no longer counts
+     * as active.
+     * @param worker returned worker
+     */
+    public void returnWorker(final Worker worker) {
+        queueLock.lock();
+        try {
+            activeWorkers--;
+            workers.add(worker);
+            workerAdded.signal();
+        } finally {
+            queueLock.unlock();
+        }
     }
 
     /**
      * Retrieves the first worker from the queue of available workers. This operation is blocking - if there are
-     * none available workers, this thread will be paused, until some worker is available.
+     * none available workers, or the number of active workers has reached the limit, this thread will be paused,
+     * until some worker is available. The worker is active until he is returned by {@link #returnWorker(Worker)}.
      * @return available worker
      */
-    public synchronized Worker getAvailableWorker() {
-        while (workers.isEmpty()) {
-            try {
-                WorkerQueue.this.wait();     // We need to wait, until there is any worker available
-            } catch (InterruptedException e) {
-                System.err.println("Thread was unexpectedly woken up!\n" + e.getMessage());
+    public Worker getAvailableWorker() {
+        queueLock.lock();
+        try {
+            boolean waiting = !isWorkerAvailable();
+            long waitStart = waiting ? timeSource.nanoTime() : 0;
+            while (!isWorkerAvailable()) {
+                boolean stalled = !workers.isEmpty();   // Someone is idle, only the limit keeps him in the queue
+                if (stalled) {
+                    limitStalls++;
+                    stalledWaiters++;
+                }
+                try {
+                    workerAdded.await();     // We need to wait, until there is any worker available
+                } catch (InterruptedException e) {
+                    System.err.println("Thread was unexpectedly woken up!\n" + e.getMessage());
+                } finally {
+                    if (stalled) {
+                        stalledWaiters--;
+                    }
+                }
             }
+
+            waitTimes.record(!waiting ? 0 : TimeUnit.NANOSECONDS.toMicros(timeSource.nanoTime() - waitStart));
+            activeWorkers++;
+            return workers.poll();
+        } finally {
+            queueLock.unlock();
         }
+    }
+
+    /**
+     * Checks if a worker may be taken from the queue right now. Has to be called with the queue lock held.
+     */
+    private boolean isWorkerAvailable() {
+        return !workers.isEmpty() && activeWorkers < activeLimit;
+    }
+
+    /**
+     * Sets the maximum number of active workers. If the limit drops below the number of currently active
+     * workers, no more workers are taken until enough of them return.
+     * @param activeLimit maximum number of active workers, at least one
+     */
+    public void setActiveLimit(final int activeLimit) {
+        queueLock.lock();
+        try {
+            this.activeLimit = Math.max(activeLimit, 1);
+            workerAdded.signalAll();    // Whoever waits may take a worker now
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the maximum number of active workers.
+     * @return limit of active workers, {@link Integer#MAX_VALUE} if not limited
+     */
+    public int getActiveLimit() {
+        queueLock.lock();
+        try {
+            return activeLimit;
+        } finally {
+            queueLock.unlock();
+        }
+    }
 
-        return workers.poll();
+    /**
+     * Returns the number of workers taken from the queue and not returned yet.
+     * @return number of active workers
+     */
+    public int getActiveWorkers() {
+        queueLock.lock();
+        try {
+            return activeWorkers;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of times someone had to wait for a worker only because of the limit of active workers,
+     * while an idle worker was in the queue.
+     * @return number of stalls caused by the limit
+     */
+    public long getLimitStalls() {
+        queueLock.lock();
+        try {
+            return limitStalls;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Checks if someone is waiting for a worker right now only because of the limit of active workers.
+     * @return true, if the limit keeps an idle worker from someone
+     */
+    public boolean isStalledByLimit() {
+        queueLock.lock();
+        try {
+            return stalledWaiters > 0;
+        } finally {
+            queueLock.unlock();
+        }
     }
 
     /**
@@ -52,7 +227,12 @@ public class WorkerQueue {
      * @return number of available workers
      */
     public int size() {
-        return workers.size();
+        queueLock.lock();
+        try {
+            return workers.size();
+        } finally {
+            queueLock.unlock();
+        }
     }
 
     /**
@@ -60,6 +240,11 @@ public class WorkerQueue {
      * @return list of workers
      */
     public List<Worker> getWorkers() {
-        return List.copyOf(workers);
+        queueLock.lock();
+        try {
+            return List.copyOf(workers);
+        } finally {
+            queueLock.unlock();
+        }
     }
 }
@@ -1,9 +1,23 @@
 package pgs;
 
+import pgs.log.BinaryEventSink;
+import pgs.log.EventType;
+import pgs.log.LogDecoder;
+import pgs.log.LogRingBuffer;
+import pgs.log.TextEventSink;
 import pgs.mine.Map;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
 
 public class MainTest {
 
@@ -18,11 +32,117 @@ public class MainTest {
     private static boolean isImputFileValid(final String filePath) {
         try {
             Map map = new Map(new File(filePath));
+            map.scanBlocks(length -> { });    // Map is validated while it is scanned
             return true;
         } catch (IOException e) {
             return false;
         }
     }
+
+    public static boolean parallelMapScanTest() {
+        Path mapFile = null;
+        try {
+            mapFile = Files.createTempFile("pgs-map", ".txt");
+            writeRandomMap(mapFile, 5 << 20);   // Big enough to be split into chunks
+            Map map = new Map(mapFile.toFile());
+            long[] sequential = summarizeScan(map, 1);
+            long[] parallel = summarizeScan(map, 8);
+            return sequential[0] > 0 && Arrays.equals(sequential, parallel);
+        } catch (IOException e) {
+            return false;
+        } finally {
+            deleteQuietly(mapFile);
+        }
+    }
+
+    private static long[] summarizeScan(final Map map, final int parallelism) throws IOException {
+        long[] summary = new long[3];   // Number of blocks, number of resources and a hash of the block order
+        map.scanBlocks(length -> {
+            summary[0]++;
+            summary[1] += length;
+            summary[2] = summary[2] * 31 + length;
+        }, parallelism);
+        return summary;
+    }
+
+    private static void writeRandomMap(final Path mapFile, final int size) throws IOException {
+        Random random = new Random(42);
+        StringBuilder map = new StringBuilder(size + 256);
+        while (map.length() < size) {
+            int lineLength = random.nextInt(256);
+            for (int i = 0; i < lineLength; i++) {
+                map.append(random.nextInt(3) == 0 ? ' ' : 'X');
+            }
+            map.append(random.nextInt(8) == 0 ? "\r\n" : "\n");
+        }
+        Files.write(mapFile, map.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static boolean binaryLogDecodingTest() {
+        Path textLog = null;
+        Path binaryLog = null;
+        try {
+            textLog = Files.createTempFile("pgs-text", ".log");
+            binaryLog = Files.createTempFile("pgs-binary", ".log");
+            long startMillis = System.currentTimeMillis();
+            long startNanos = System.nanoTime();
+            try (FileChannel textChannel = FileChannel.open(textLog, StandardOpenOption.WRITE);
+                 FileChannel binaryChannel = FileChannel.open(binaryLog, StandardOpenOption.WRITE)) {
+                TextEventSink textSink = new TextEventSink(textChannel, startMillis, startNanos);
+                BinaryEventSink binarySink = new BinaryEventSink(binaryChannel, startMillis, startNanos, 4);
+                LogRingBuffer buffer = new LogRingBuffer(EventType.values().length);
+                HasId[] sources = {new TestSource(1), new TestSource(2)};
+                for (EventType type : EventType.values()) {
+                    int i = type.ordinal();
+                    buffer.offer(startNanos + i * 1_234_567L, sources[i % sources.length], type, i * 100, i);
+                }
+                buffer.drain(entry -> {
+                    try {
+                        textSink.write(entry);
+                        binarySink.write(entry);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, EventType.values().length);
+                textSink.flush();
+                binarySink.flush();
+            }
+
+            StringWriter decoded = new StringWriter();
+            LogDecoder.decode(binaryLog, decoded);
+            String text = new String(Files.readAllBytes(textLog), StandardCharsets.UTF_8);
+            return !text.isEmpty() && decoded.toString().equals(text);
+        } catch (IOException | UncheckedIOException e) {
+            return false;
+        } finally {
+            deleteQuietly(textLog);
+            deleteQuietly(binaryLog);
+        }
+    }
+
+    private static void deleteQuietly(final Path file) {
+        try {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            // Only a temporary file
+        }
+    }
+
+    private static class TestSource implements HasId {
+        private final int id;
+
+        private TestSource(final int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+    }
+
     public static void main(String[] args) {
 
         System.out.print("Valid imput map file test...\t");
@@ -39,6 +159,20 @@ public class MainTest {
             System.out.println("ERROR!");
         }
 
+        System.out.print("Parallel map scan test...\t");
+        if (parallelMapScanTest()) {
+            System.out.println("OK!");
+        } else {
+            System.out.println("ERROR!");
+        }
+
+        System.out.print("Binary log decoding test...\t");
+        if (binaryLogDecodingTest()) {
+            System.out.println("OK!");
+        } else {
+            System.out.println("ERROR!");
+        }
+
 
         System.out.println("Testing finished.");
     }
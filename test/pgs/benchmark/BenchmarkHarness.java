@@ -0,0 +1,93 @@
+package pgs.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measuring helpers shared by the benchmarks. Every measurement is preceded by warm up runs and the best
+ * of the measured runs is reported, as the other benchmarks do.
+ */
+final class BenchmarkHarness {
+
+    private static final int WARM_UP_RUNS = 2;
+
+    private static final int MEASURED_RUNS = 5;
+
+    private BenchmarkHarness() {
+    }
+
+    /**
+     * Benchmarked piece of code.
+     */
+    @FunctionalInterface
+    interface Task {
+        void run() throws Exception;
+    }
+
+    /**
+     * Body of a benchmarked thread.
+     */
+    @FunctionalInterface
+    interface ThreadTask {
+        void run(int threadIndex) throws Exception;
+    }
+
+    /**
+     * Runs the task repeatedly and prints the best time and throughput of the measured runs.
+     * @param name name of the measurement
+     * @param operations number of operations performed by one run of the task
+     * @param task measured task
+     * @return best time of a measured run in nanoseconds
+     */
+    static long measure(final String name, final long operations, final Task task) throws Exception {
+        for (int run = 0; run < WARM_UP_RUNS; run++) {
+            task.run();
+        }
+
+        long bestNanos = Long.MAX_VALUE;
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            long start = System.nanoTime();
+            task.run();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("%-32s\t%10.2f ms\t%14.0f ops/s%n", name, bestNanos / 1e6, operations / (bestNanos / 1e9));
+        return bestNanos;
+    }
+
+    /**
+     * Runs the task on given number of threads, all of them released at the same moment, and waits
+     * until every thread finishes.
+     * @param threads number of threads
+     * @param task body of every thread, given the index of the thread
+     */
+    static void runConcurrently(final int threads, final ThreadTask task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> started = new ArrayList<>(threads);
+        List<Exception> failures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int threadIndex = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(threadIndex);
+                } catch (Exception e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            thread.start();
+            started.add(thread);
+        }
+
+        start.countDown();
+        for (Thread thread : started) {
+            thread.join();
+        }
+        if (!failures.isEmpty()) {
+            throw failures.get(0);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package pgs.benchmark;
+
+import pgs.SimulationConfig;
+import pgs.SimulationContext;
+import pgs.mine.Block;
+import pgs.mine.Map;
+import pgs.mine.Mine;
+import pgs.worker.WorkStealingScheduler;
+import pgs.worker.Worker;
+import pgs.worker.WorkerQueue;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Compares the throughput of handing blocks to workers by the foreman (workers returning into a shared queue)
+ * against workers pulling the blocks from the mine by themselves and against the work-stealing pool.
+ * The mine consists of given number of single resource blocks (100 000 by default) processed by given number
+ * of workers (64 by default). With the third argument "skewed", one block of a tenth of all resources is added
+ * at the start of the mine. Loading into lorries is left out, so only the dispatching and the processing itself
+ * is measured.
+ */
+public class DispatchBenchmark {
+
+    private static final int MEASURED_RUNS = 3;
+
+    private static final int BLOCKS_PER_LINE = 100;
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        int blockCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int workerCount = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int giantBlockLength = args.length > 2 && args[2].equals("skewed") ? blockCount / 10 : 0;
+
+        File mapFile = File.createTempFile("pgs-benchmark-map", ".txt");
+        File logFile = File.createTempFile("pgs-benchmark-log", ".log");
+        mapFile.deleteOnExit();
+        logFile.deleteOnExit();
+        generateMap(mapFile, blockCount, giantBlockLength);
+        SimulationConfig config = new SimulationConfig();
+        config.setOutputFilePath(logFile.getPath());
+        config.setWorkerCount(workerCount);
+        SimulationContext context = new SimulationContext(config);
+        Map map = new Map(mapFile);
+
+        System.out.println("Blocks: " + blockCount + ", workers: " + workerCount
+                + (giantBlockLength > 0 ? ", giant block: " + giantBlockLength : ""));
+        String[] modes = {"foreman", "pull", "stealing", "foreman", "pull", "stealing"};   // First round is a warm up
+        for (String mode : modes) {
+            long bestNanos = Long.MAX_VALUE;
+            for (int run = 0; run < MEASURED_RUNS; run++) {
+                Mine mine = new Mine(map);
+                map.scanBlocks(mine::addResourceBlock);
+
+                long start = System.nanoTime();
+                if (mode.equals("pull")) {
+                    pull(mine, createWorkers(context, workerCount));
+                } else if (mode.equals("stealing")) {
+                    steal(context, mine, createWorkers(context, workerCount));
+                } else {
+                    assign(mine, createWorkers(context, workerCount));
+                }
+                bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            }
+
+            System.out.printf("%-8s\t%8.1f ms\t%10.0f resources/s%n",
+                    mode, bestNanos / 1e6, (blockCount + giantBlockLength) / (bestNanos / 1e9));
+        }
+
+        context.close();
+    }
+
+    /**
+     * Same dispatching as {@link pgs.worker.Foreman} does with {@link pgs.worker.DispatchMode#FOREMAN}.
+     */
+    private static void assign(final Mine mine, final WorkerQueue workers) throws InterruptedException, ExecutionException {
+        List<Future<?>> processings = new ArrayList<>();
+        Block block;
+        while ((block = mine.takeUnprocessedBlock()) != null) {
+            Worker worker = workers.getAvailableWorker();
+            Future<?> result = worker.processBlock(block, () -> {
+                worker.setTaskDone();
+                workers.returnWorker(worker);
+            });
+            if (result == null) {
+                mine.addResourceBlock(block);
+            } else {
+                processings.add(result);
+            }
+        }
+
+        for (Future<?> processing : processings) {
+            processing.get();
+        }
+    }
+
+    /**
+     * Same dispatching as {@link pgs.worker.Foreman} does with {@link pgs.worker.DispatchMode#PULL}.
+     */
+    private static void pull(final Mine mine, final WorkerQueue workers) throws InterruptedException, ExecutionException {
+        List<Future<?>> processings = new ArrayList<>();
+        for (Worker worker : workers.getWorkers()) {
+            processings.add(worker.pullBlocks(mine, null));
+        }
+
+        for (Future<?> processing : processings) {
+            processing.get();
+        }
+    }
+
+    /**
+     * Same dispatching as {@link pgs.worker.Foreman} does with {@link pgs.worker.DispatchMode#WORK_STEALING}.
+     */
+    private static void steal(final SimulationContext context, final Mine mine, final WorkerQueue workers)
+            throws InterruptedException, ExecutionException {
+        WorkStealingScheduler scheduler = new WorkStealingScheduler(context, workers.getWorkers(), 0);
+        List<Future<?>> processings = new ArrayList<>();
+        Block block;
+        while ((block = mine.takeUnprocessedBlock()) != null) {
+            processings.add(scheduler.submit(block, null));
+        }
+
+        for (Future<?> processing : processings) {
+            processing.get();
+        }
+        scheduler.shutdown();
+    }
+
+    private static WorkerQueue createWorkers(final SimulationContext context, final int workerCount) {
+        WorkerQueue workers = new WorkerQueue();
+        for (int i = 0; i < workerCount; i++) {
+            workers.addWorker(new Worker(context, i + 1, 1));
+        }
+        return workers;
+    }
+
+    private static void generateMap(final File mapFile, final int blockCount, final int giantBlockLength) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(mapFile), 1 << 16)) {
+            if (giantBlockLength > 0) {
+                writer.write("X".repeat(giantBlockLength));
+                writer.newLine();
+            }
+            for (int written = 0; written < blockCount; written++) {
+                writer.write('X');
+                writer.write(written % BLOCKS_PER_LINE == BLOCKS_PER_LINE - 1 ? '\n' : ' ');
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package pgs.benchmark;
+
+import pgs.HasId;
+import pgs.SimulationConfig;
+import pgs.SimulationContext;
+import pgs.cargo.Ferry;
+import pgs.cargo.Lorry;
+import pgs.cargo.RiverCrossing;
+import pgs.log.EventType;
+import pgs.mine.Map;
+import pgs.mine.Mine;
+import pgs.time.TimeSource;
+import pgs.worker.Foreman;
+import pgs.worker.Worker;
+import pgs.worker.WorkerQueue;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Measures the hot paths of the simulation with the simulated time costs removed ({@link TimeSource#NO_SLEEP}), so only
+ * the parsing and the synchronization overhead is left. Given sections are measured ("map", "logger", "queue",
+ * "lorry", "ferry"), all of them by default:
+ * <ul>
+ *     <li>map - reading the map and analysing the mine by the foreman, for maps of 1, 16 and 64 MiB</li>
+ *     <li>logger - logging events from 1, 8 and 64 threads at once</li>
+ *     <li>queue - taking a worker from the worker queue and returning it, from 1, 8 and 64 threads</li>
+ *     <li>lorry - loading single units into a shared lorry from 1, 8 and 64 threads</li>
+ *     <li>ferry - 64 lorries crossing the river repeatedly, on a single ferry and on a crossing
+ *     of 4 ferries</li>
+ * </ul>
+ */
+public class HotPathBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 8, 64};
+
+    private static final int[] MAP_SIZES_MIB = {1, 16, 64};
+
+    private static final int LOGGED_EVENTS = 1_000_000;
+
+    private static final int QUEUE_ROUND_TRIPS = 1_000_000;
+
+    private static final int LOADED_UNITS = 1_000_000;
+
+    private static final int LORRY_CAPACITY = 100;
+
+    private static final int CROSSING_VEHICLES = 64;
+
+    private static final int CROSSINGS_PER_VEHICLE = 2_000;
+
+    private static final int CROSSING_FERRIES = 4;
+
+    private static final int LINE_LENGTH = 200;
+
+    private static SimulationContext context;
+
+    public static void main(String[] args) throws Exception {
+        List<String> sections = args.length > 0 ? List.of(args) : List.of("map", "logger", "queue", "lorry", "ferry");
+        File logFile = File.createTempFile("pgs-benchmark-log", ".log");
+        logFile.deleteOnExit();
+        SimulationConfig config = new SimulationConfig();
+        config.setOutputFilePath(logFile.getPath());
+        config.setTimeSpeedup(0);   // No sleeping
+        context = new SimulationContext(config);
+
+        if (sections.contains("map")) {
+            benchmarkMapAnalysis();
+        }
+        if (sections.contains("logger")) {
+            benchmarkLogger();
+        }
+        if (sections.contains("queue")) {
+            benchmarkWorkerQueue();
+        }
+        if (sections.contains("lorry")) {
+            benchmarkLorryLoading();
+        }
+        if (sections.contains("ferry")) {
+            benchmarkFerry();
+        }
+
+        context.close();
+    }
+
+    private static void benchmarkMapAnalysis() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int sizeMib : MAP_SIZES_MIB) {
+            File mapFile = File.createTempFile("pgs-benchmark-map", ".txt");
+            mapFile.deleteOnExit();
+            long size = sizeMib * 1024L * 1024L;
+            generateMap(mapFile, size);
+
+            BenchmarkHarness.measure("map " + sizeMib + " MiB", size, () -> {
+                Mine mine = new Mine(new Map(mapFile));
+                new Foreman(context, 0).analyzeMineResources(mine, cores);
+            });
+        }
+    }
+
+    private static void benchmarkLogger() throws Exception {
+        HasId source = () -> 1;
+        for (int threads : THREAD_COUNTS) {
+            int eventsPerThread = LOGGED_EVENTS / threads;
+            BenchmarkHarness.measure("logger " + threads + " threads", (long) eventsPerThread * threads,
+                    () -> BenchmarkHarness.runConcurrently(threads, thread -> {
+                        for (int i = 0; i < eventsPerThread; i++) {
+                            context.getLogger().logEvent(source, EventType.RESOURCE_PROCESSED, i);
+                        }
+                    }));
+        }
+    }
+
+    private static void benchmarkWorkerQueue() throws Exception {
+        for (int threads : THREAD_COUNTS) {
+            WorkerQueue queue = new WorkerQueue();
+            for (int i = 0; i < threads; i++) {
+                queue.addWorker(new Worker(context, i + 1, 1));    // Enough workers, so nobody waits forever
+            }
+
+            int roundTripsPerThread = QUEUE_ROUND_TRIPS / threads;
+            BenchmarkHarness.measure("worker queue " + threads + " threads", (long) roundTripsPerThread * threads,
+                    () -> BenchmarkHarness.runConcurrently(threads, thread -> {
+                        for (int i = 0; i < roundTripsPerThread; i++) {
+                            queue.returnWorker(queue.getAvailableWorker());
+                        }
+                    }));
+        }
+    }
+
+    private static void benchmarkLorryLoading() throws Exception {
+        for (int threads : THREAD_COUNTS) {
+            AtomicReference<Lorry> steadyLorry = new AtomicReference<>(createLorry());
+            int unitsPerThread = LOADED_UNITS / threads;
+            BenchmarkHarness.measure("lorry " + threads + " threads", (long) unitsPerThread * threads,
+                    () -> BenchmarkHarness.runConcurrently(threads, thread -> {
+                        for (int i = 0; i < unitsPerThread; i++) {
+                            Lorry lorry = steadyLorry.get();
+                            while (!lorry.loadCargo(1)) {   // Full, replacing it by an empty one
+                                steadyLorry.compareAndSet(lorry, createLorry());
+                                lorry = steadyLorry.get();
+                            }
+                        }
+                    }));
+        }
+    }
+
+    /**
+     * Lorries take the crossings from a shared counter, not a fixed number each - a lorry, that finished
+     * it's share early, would leave the rest unable to fill up the ferry. The ferries of the crossing together
+     * never take more lorries than there are, so a ferry is never left waiting for lorries stuck on another one.
+     */
+    private static void benchmarkFerry() throws Exception {
+        int crossings = CROSSING_VEHICLES * CROSSINGS_PER_VEHICLE;
+        for (int capacity : new int[] {8, CROSSING_VEHICLES}) {
+            Ferry ferry = new Ferry(context, 1, capacity);
+            BenchmarkHarness.measure("ferry capacity " + capacity, crossings, () -> {
+                AtomicInteger remainingCrossings = new AtomicInteger(crossings);
+                BenchmarkHarness.runConcurrently(CROSSING_VEHICLES, thread -> {
+                    Lorry lorry = createLorry();
+                    while (remainingCrossings.getAndDecrement() > 0) {
+                        ferry.loadCargo(lorry);
+                    }
+                });
+            });
+        }
+
+        for (int capacity : new int[] {8, CROSSING_VEHICLES / CROSSING_FERRIES}) {
+            BenchmarkHarness.measure(CROSSING_FERRIES + " ferries capacity " + capacity, crossings, () -> {
+                List<Ferry> ferries = new ArrayList<>();
+                for (int i = 0; i < CROSSING_FERRIES; i++) {
+                    ferries.add(new Ferry(context, i + 1, capacity));
+                }
+                RiverCrossing crossing = new RiverCrossing(ferries);
+                crossing.shipRemaining(crossings);  // Ferries may be left partially loaded at the end
+                AtomicInteger remainingCrossings = new AtomicInteger(crossings);
+                BenchmarkHarness.runConcurrently(CROSSING_VEHICLES, thread -> {
+                    Lorry lorry = createLorry();
+                    while (remainingCrossings.getAndDecrement() > 0) {
+                        crossing.cross(lorry);
+                    }
+                });
+            });
+        }
+    }
+
+    private static Lorry createLorry() {
+        return new Lorry(context, 1, LORRY_CAPACITY, 1, null);
+    }
+
+    private static void generateMap(final File mapFile, final long size) throws IOException {
+        Random random = new Random(42);
+        char[] line = new char[LINE_LENGTH];
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(mapFile), 1 << 16)) {
+            for (long written = 0; written < size; written += LINE_LENGTH + 1) {
+                for (int i = 0; i < LINE_LENGTH; i++) {
+                    line[i] = random.nextInt(3) == 0 ? ' ' : 'X';
+                }
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+}
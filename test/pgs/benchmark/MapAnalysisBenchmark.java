@@ -0,0 +1,132 @@
+package pgs.benchmark;
+
+import pgs.mine.AnalysedMap;
+import pgs.mine.AnalysedMapCache;
+import pgs.mine.Map;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Measures the speedup of parallel map scanning against the number of threads. Generates a random map
+ * of given size (in MiB, 256 by default), scans it with 1, 2, 4, ... threads up to the number of cores
+ * and checks, that every scan finds the same blocks. Then compares the scan with loading the analysis from
+ * the sidecar file and from the memory of {@link AnalysedMapCache}.
+ */
+public class MapAnalysisBenchmark {
+
+    private static final int MEASURED_RUNS = 5;
+
+    private static final int LINE_LENGTH = 200;
+
+    public static void main(String[] args) throws IOException {
+        long sizeMib = args.length > 0 ? Long.parseLong(args[0]) : 256;
+        File mapFile = File.createTempFile("pgs-benchmark-map", ".txt");
+        mapFile.deleteOnExit();
+        generateMap(mapFile, sizeMib * 1024 * 1024);
+        Map map = new Map(mapFile);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("Map size: " + sizeMib + " MiB, cores: " + cores);
+        long[] expected = scan(map, 1);    // Warm up and reference result
+        long sequentialNanos = 0;
+
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            long bestNanos = Long.MAX_VALUE;
+            for (int run = 0; run < MEASURED_RUNS; run++) {
+                long start = System.nanoTime();
+                long[] result = scan(map, threads);
+                bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+
+                if (result[0] != expected[0] || result[1] != expected[1] || result[2] != expected[2]) {
+                    System.out.println("ERROR! Scan with " + threads + " threads found different blocks.");
+                    return;
+                }
+            }
+
+            if (threads == 1) {
+                sequentialNanos = bestNanos;
+            }
+            System.out.printf("threads %3d\t%8.1f ms\tspeedup %.2fx%n",
+                    threads, bestNanos / 1e6, (double) sequentialNanos / bestNanos);
+        }
+
+        measureCache(mapFile, cores, expected);
+    }
+
+    /**
+     * Measures the lookup of the analysis stored in the sidecar file and in the memory of the cache.
+     */
+    private static void measureCache(final File mapFile, final int threads, final long[] expected) throws IOException {
+        AnalysedMapCache cache = new AnalysedMapCache();
+        new File(mapFile.getPath() + AnalysedMapCache.SIDECAR_SUFFIX).deleteOnExit();
+        AnalysedMap.Builder analysis = new AnalysedMap.Builder();
+        new Map(mapFile).scanBlocks(analysis, threads);
+        cache.lookup(mapFile.toPath(), true).store(analysis.build());
+
+        long sidecarNanos = Long.MAX_VALUE;
+        long memoryNanos = Long.MAX_VALUE;
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            cache.clear();
+            long start = System.nanoTime();
+            AnalysedMap fromSidecar = cache.lookup(mapFile.toPath(), true).getAnalysedMap();
+            long[] result = sum(fromSidecar);
+            sidecarNanos = Math.min(sidecarNanos, System.nanoTime() - start);
+            if (result[0] != expected[0] || result[1] != expected[1] || result[2] != expected[2]) {
+                System.out.println("ERROR! Analysis loaded from the sidecar has different blocks.");
+                return;
+            }
+
+            start = System.nanoTime();
+            AnalysedMap fromMemory = cache.lookup(mapFile.toPath(), true).getAnalysedMap();
+            sum(fromMemory);
+            memoryNanos = Math.min(memoryNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("sidecar load\t%8.1f ms%n", sidecarNanos / 1e6);
+        System.out.printf("memory hit\t%8.1f ms%n", memoryNanos / 1e6);
+    }
+
+    /**
+     * Reads every block of the analysed map, like {@link #scan(Map, int)} does.
+     */
+    private static long[] sum(final AnalysedMap analysedMap) {
+        long[] result = new long[3];
+        analysedMap.forEachBlock(length -> {
+            result[0]++;
+            result[1] += length;
+            result[2] = result[2] * 31 + length;
+        });
+        return result;
+    }
+
+    /**
+     * Scans the map and returns the number of blocks, number of resources and a checksum of the block order.
+     */
+    private static long[] scan(final Map map, final int threads) throws IOException {
+        long[] result = new long[3];
+        map.scanBlocks(length -> {
+            result[0]++;
+            result[1] += length;
+            result[2] = result[2] * 31 + length;
+        }, threads);
+        return result;
+    }
+
+    private static void generateMap(final File mapFile, final long size) throws IOException {
+        Random random = new Random(42);
+        char[] line = new char[LINE_LENGTH];
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(mapFile), 1 << 16)) {
+            for (long written = 0; written < size; written += LINE_LENGTH + 1) {
+                for (int i = 0; i < LINE_LENGTH; i++) {
+                    line[i] = random.nextInt(3) == 0 ? ' ' : 'X';
+                }
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+}